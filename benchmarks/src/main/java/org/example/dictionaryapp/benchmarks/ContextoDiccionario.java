@@ -0,0 +1,87 @@
+package org.example.dictionaryapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dictionaryapp.DictionaryAppApplication;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.service.ImportacionService;
+import org.example.dictionaryapp.service.PalabraService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Arranca la aplicación sin servidor web sobre una H2 en memoria y la siembra con un diccionario
+// sintético. Se comparte entre todos los hilos de una misma prueba.
+//   -p palabras=N   tamaño del diccionario (por defecto 10000)
+//   -p cache=false  desactiva la caché de lecturas para medir el acceso a la base de datos
+@State(Scope.Benchmark)
+public class ContextoDiccionario {
+
+    @Param({"10000"})
+    public int palabras;
+
+    @Param({"true"})
+    public boolean cache;
+
+    public ConfigurableApplicationContext context;
+
+    public PalabraService palabraService;
+
+    // Ids y términos sembrados, en orden de id
+    public long[] ids;
+    public String[] terminos;
+
+    @Setup(Level.Trial)
+    public void arrancar() throws Exception {
+        context = new SpringApplicationBuilder(DictionaryAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.threads.virtual.enabled=false",
+                        "--diccionario.cache.tamano-maximo=" + (cache ? 10000 : 0),
+                        "--diccionario.busqueda.instantanea=",
+                        "--logging.level.root=WARN");
+        palabraService = context.getBean(PalabraService.class);
+        sembrar();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        context.close();
+    }
+
+    private void sembrar() throws Exception {
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        StringBuilder ndjson = new StringBuilder();
+        for (Palabra palabra : new GeneradorDiccionario(42).generar(palabras)) {
+            palabra.getDefiniciones().forEach(definicion -> definicion.setPalabra(null));
+            ndjson.append(objectMapper.writeValueAsString(palabra)).append('\n');
+        }
+        context.getBean(ImportacionService.class).importarNdjson(new StringReader(ndjson.toString()), null);
+
+        List<PalabraDTO> sembradas = new ArrayList<>(palabras);
+        Long after = null;
+        List<PalabraDTO> pagina;
+        while (!(pagina = palabraService.getPaginaPalabras(after, PalabraService.LIMITE_MAXIMO)).isEmpty()) {
+            sembradas.addAll(pagina);
+            after = pagina.get(pagina.size() - 1).getId();
+        }
+        ids = sembradas.stream().mapToLong(PalabraDTO::getId).toArray();
+        terminos = sembradas.stream().map(PalabraDTO::getTermino).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.dictionaryapp.benchmarks;
+
+import org.example.dictionaryapp.service.EstadisticasService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// La consulta de estadísticas (servida desde memoria) y el recálculo completo con consultas agregadas
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EstadisticasBenchmark {
+
+    @Benchmark
+    public Map<String, Object> obtenerEstadisticas(ContextoDiccionario diccionario) {
+        return diccionario.palabraService.obtenerEstadisticas();
+    }
+
+    @Benchmark
+    public Map<String, Object> recalcularEstadisticas(ContextoDiccionario diccionario) {
+        EstadisticasService estadisticasService = diccionario.context.getBean(EstadisticasService.class);
+        estadisticasService.recalcular();
+        return estadisticasService.obtener();
+    }
+}
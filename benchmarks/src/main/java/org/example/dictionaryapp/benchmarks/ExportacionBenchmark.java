@@ -0,0 +1,62 @@
+package org.example.dictionaryapp.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Exportación completa a CSV con la misma cadena de escritores que el controlador, descartando
+// la salida; con gzip=true incluye la compresión
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportacionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Benchmark
+    public long exportarDiccionario(ContextoDiccionario diccionario) throws IOException {
+        Contador contador = new Contador();
+        OutputStream destino = gzip ? new GZIPOutputStream(contador, 8192) : contador;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), 8192);
+        diccionario.palabraService.exportarDiccionario(writer);
+        if (destino instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
+        }
+        return contador.bytes;
+    }
+
+    private static final class Contador extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
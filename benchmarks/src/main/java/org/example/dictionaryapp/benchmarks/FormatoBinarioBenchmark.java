@@ -0,0 +1,144 @@
+package org.example.dictionaryapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.service.PalabraService;
+import org.example.dictionaryapp.util.FormatoBinario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Descarga completa de /palabras/condefiniciones en JSON frente al formato binario, descartando la
+// salida; con gzip=true incluye la compresión. Los métodos *Memoria serializan un diccionario ya
+// cargado y miden solo el formato; los *BaseDeDatos recorren el mismo camino que el controlador.
+// Al preparar se imprime el tamaño de cada representación.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatoBinarioBenchmark {
+
+    @Param({"10000"})
+    public int palabras;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private List<Palabra> diccionario;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        diccionario = new GeneradorDiccionario(42).generar(palabras);
+        long definicionId = 1;
+        for (int i = 0; i < diccionario.size(); i++) {
+            Palabra palabra = diccionario.get(i);
+            palabra.setId(i + 1L);
+            palabra.setVersion(0L);
+            for (var definicion : palabra.getDefiniciones()) {
+                definicion.setId(definicionId++);
+            }
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        objectMapper.writeValue(json, diccionario);
+        ByteArrayOutputStream binario = new ByteArrayOutputStream();
+        FormatoBinario.escribir(diccionario, binario);
+        if (FormatoBinario.leer(new ByteArrayInputStream(binario.toByteArray())).size() != diccionario.size()) {
+            throw new IllegalStateException("El formato binario no recupera el diccionario");
+        }
+        System.out.printf("%n%d palabras: JSON %d bytes (gzip %d), binario %d bytes (gzip %d)%n", palabras,
+                json.size(), comprimido(json.toByteArray()), binario.size(), comprimido(binario.toByteArray()));
+    }
+
+    @Benchmark
+    public long jsonMemoria() throws IOException {
+        return escribir(destino -> objectMapper.writeValue(destino, diccionario));
+    }
+
+    @Benchmark
+    public long binarioMemoria() throws IOException {
+        return escribir(destino -> FormatoBinario.escribir(diccionario, destino));
+    }
+
+    @Benchmark
+    public long jsonBaseDeDatos(ContextoDiccionario contexto) throws IOException {
+        ObjectMapper mapper = contexto.context.getBean(ObjectMapper.class);
+        return escribir(destino -> mapper.writeValue(destino, todasConDefiniciones(contexto)));
+    }
+
+    // Los listados JSON van por páginas: se leen todas, como haría un cliente que descarga el diccionario
+    private static List<Palabra> todasConDefiniciones(ContextoDiccionario contexto) {
+        List<Palabra> todas = new ArrayList<>();
+        List<Palabra> pagina;
+        long after = 0;
+        while (!(pagina = contexto.palabraService.getPaginaPalabrasConDefiniciones(after, PalabraService.LIMITE_MAXIMO)).isEmpty()) {
+            todas.addAll(pagina);
+            after = pagina.get(pagina.size() - 1).getId();
+        }
+        return todas;
+    }
+
+    @Benchmark
+    public long binarioBaseDeDatos(ContextoDiccionario contexto) throws IOException {
+        return escribir(destino -> contexto.palabraService.exportarDiccionarioBinario(null, destino));
+    }
+
+    private long escribir(Escritura escritura) throws IOException {
+        Contador contador = new Contador();
+        OutputStream destino = gzip ? new GZIPOutputStream(contador, 8192) : contador;
+        escritura.escribir(destino);
+        if (destino instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
+        }
+        return contador.bytes;
+    }
+
+    private static int comprimido(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(salida)) {
+            gzipOutputStream.write(datos);
+        }
+        return salida.size();
+    }
+
+    private interface Escritura {
+        void escribir(OutputStream destino) throws IOException;
+    }
+
+    private static final class Contador extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.dictionaryapp.benchmarks;
+
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Genera un diccionario sintético con aspecto de español: términos formados por sílabas,
+// categorías con la frecuencia habitual de un diccionario y un número de definiciones sesgado
+// (la mayoría tiene una o dos, unas pocas llegan a diez). Con la misma semilla sale siempre
+// el mismo diccionario, para que los resultados de distintas ejecuciones sean comparables.
+public final class GeneradorDiccionario {
+
+    private static final String[] SILABAS = {
+            "ca", "ma", "ri", "llo", "ción", "ar", "es", "to", "la", "pe", "dro", "sa", "ne", "güe",
+            "bra", "zo", "ña", "mi", "ta", "co", "rre", "gui", "lo", "cha", "ve", "fi", "ja", "ron",
+            "me", "tra", "di", "go", "ble", "ñu", "que", "sol", "plu", "ma", "ber", "nal", "í", "án"
+    };
+
+    private static final String[] CATEGORIAS = {"sustantivo", "verbo", "adjetivo", "adverbio", "interjección", "preposición"};
+
+    private static final double[] PESOS_CATEGORIAS = {0.50, 0.25, 0.15, 0.06, 0.02, 0.02};
+
+    private static final String[] VOCABULARIO = {
+            "acción", "efecto", "persona", "cosa", "que", "tiene", "lugar", "donde", "se", "hace", "parte",
+            "conjunto", "de", "los", "las", "una", "un", "para", "con", "por", "sin", "agua", "tierra",
+            "tiempo", "forma", "manera", "cualidad", "propio", "relativo", "perteneciente", "movimiento",
+            "instrumento", "sirve", "cortar", "medir", "llevar", "animal", "planta", "color", "casa", "campo",
+            "mar", "río", "fuego", "viento", "sonido", "mano", "ojo", "cabeza", "pequeño", "grande", "antiguo"
+    };
+
+    private final Random random;
+    private final Set<String> usados = new HashSet<>();
+
+    public GeneradorDiccionario(long semilla) {
+        this.random = new Random(semilla);
+    }
+
+    public List<Palabra> generar(int cantidad) {
+        List<Palabra> palabras = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            palabras.add(palabra(definiciones()));
+        }
+        return palabras;
+    }
+
+    public Palabra palabra(int numeroDefiniciones) {
+        Palabra palabra = new Palabra();
+        palabra.setTermino(termino());
+        palabra.setCategoriaGramatical(categoria());
+        List<Definicion> definiciones = new ArrayList<>(numeroDefiniciones);
+        for (int i = 0; i < numeroDefiniciones; i++) {
+            Definicion definicion = new Definicion();
+            definicion.setDescripcion(frase(6 + random.nextInt(14)));
+            if (random.nextInt(3) == 0) {
+                definicion.setEjemplo(frase(4 + random.nextInt(6)));
+            }
+            definicion.setPalabra(palabra);
+            definiciones.add(definicion);
+        }
+        palabra.setDefiniciones(definiciones);
+        return palabra;
+    }
+
+    // Distribución geométrica truncada: P(1) = 0,55, P(2) ≈ 0,25, ..., máximo 10
+    private int definiciones() {
+        int n = 1;
+        while (n < 10 && random.nextDouble() < 0.45) {
+            n++;
+        }
+        return n;
+    }
+
+    // Términos únicos de dos a cuatro sílabas; si se agotan las combinaciones se añade un sufijo
+    private String termino() {
+        for (int intento = 0; ; intento++) {
+            StringBuilder termino = new StringBuilder();
+            int silabas = 2 + random.nextInt(3);
+            for (int i = 0; i < silabas; i++) {
+                termino.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            if (intento > 10) {
+                termino.append(usados.size());
+            }
+            if (usados.add(termino.toString())) {
+                return termino.toString();
+            }
+        }
+    }
+
+    private String categoria() {
+        double valor = random.nextDouble();
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            valor -= PESOS_CATEGORIAS[i];
+            if (valor < 0) {
+                return CATEGORIAS[i];
+            }
+        }
+        return CATEGORIAS[0];
+    }
+
+    private String frase(int palabras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(VOCABULARIO[random.nextInt(VOCABULARIO.length)]);
+        }
+        frase.setCharAt(0, Character.toUpperCase(frase.charAt(0)));
+        return frase.append('.').toString();
+    }
+}
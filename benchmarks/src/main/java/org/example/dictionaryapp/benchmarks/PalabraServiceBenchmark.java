@@ -0,0 +1,70 @@
+package org.example.dictionaryapp.benchmarks;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
+import org.example.dictionaryapp.model.Palabra;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Consultas de PalabraService sobre ids y términos elegidos al azar entre los sembrados
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PalabraServiceBenchmark {
+
+    @Benchmark
+    public PalabraDTO palabraPorId(ContextoDiccionario diccionario) throws Exception {
+        return diccionario.palabraService.getPalabraById(id(diccionario));
+    }
+
+    @Benchmark
+    public Palabra palabraConDefiniciones(ContextoDiccionario diccionario) throws Exception {
+        return diccionario.palabraService.getPalabraConDefinicionesById(id(diccionario));
+    }
+
+    @Benchmark
+    public boolean existeTermino(ContextoDiccionario diccionario) {
+        return diccionario.palabraService.existsByTermino(termino(diccionario));
+    }
+
+    // Términos que no existen: los descarta el filtro de Bloom sin consultar
+    @Benchmark
+    public boolean existeTerminoInexistente(ContextoDiccionario diccionario) {
+        return diccionario.palabraService.existsByTermino(termino(diccionario) + "xz");
+    }
+
+    @Benchmark
+    public List<PalabraDTO> paginaDePalabras(ContextoDiccionario diccionario) {
+        return diccionario.palabraService.getPaginaPalabras(id(diccionario), 50);
+    }
+
+    @Benchmark
+    public List<PalabraDTO> autocompletar(ContextoDiccionario diccionario) {
+        String termino = termino(diccionario);
+        return diccionario.palabraService.autocompletar(termino.substring(0, Math.min(3, termino.length())), 10);
+    }
+
+    @Benchmark
+    public List<ResultadoBusquedaDTO> buscarEnDefiniciones(ContextoDiccionario diccionario) {
+        return diccionario.palabraService.buscarEnDefiniciones("instrumento para cortar", 20);
+    }
+
+    private static long id(ContextoDiccionario diccionario) {
+        return diccionario.ids[ThreadLocalRandom.current().nextInt(diccionario.ids.length)];
+    }
+
+    private static String termino(ContextoDiccionario diccionario) {
+        return diccionario.terminos[ThreadLocalRandom.current().nextInt(diccionario.terminos.length)];
+    }
+}
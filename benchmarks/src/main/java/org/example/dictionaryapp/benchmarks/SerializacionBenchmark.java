@@ -0,0 +1,87 @@
+package org.example.dictionaryapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.model.Palabra;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversión Palabra -> PalabraDTO de una página y serialización JSON de las respuestas, sin
+// base de datos. El ObjectMapper se construye igual que el de Spring Boot.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    private static final int TAMANO_PAGINA = 100;
+
+    @Param({"1", "5", "20"})
+    public int definiciones;
+
+    private ObjectMapper objectMapper;
+    private Palabra palabra;
+    private List<Palabra> pagina;
+    private List<PalabraDTO> paginaDTO;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        GeneradorDiccionario generador = new GeneradorDiccionario(42);
+        palabra = generador.palabra(definiciones);
+        numerar(palabra, 1);
+        pagina = generador.generar(TAMANO_PAGINA);
+        for (int i = 0; i < pagina.size(); i++) {
+            numerar(pagina.get(i), i + 2);
+        }
+        paginaDTO = mapearPagina();
+    }
+
+    @Benchmark
+    public List<PalabraDTO> mapearPagina() {
+        List<PalabraDTO> resultado = new ArrayList<>(pagina.size());
+        for (Palabra p : pagina) {
+            resultado.add(PalabraDTO.de(p));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public byte[] serializarPalabraConDefiniciones() throws Exception {
+        return objectMapper.writeValueAsBytes(palabra);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(paginaDTO);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaConDefiniciones() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    private static void numerar(Palabra palabra, long id) {
+        palabra.setId(id);
+        for (int i = 0; i < palabra.getDefiniciones().size(); i++) {
+            palabra.getDefiniciones().get(i).setId(id * 100 + i);
+        }
+    }
+}
@@ -2,12 +2,32 @@ package org.example.dictionaryapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class DictionaryAppApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(DictionaryAppApplication.class, args);
+        SpringApplication aplicacion = new SpringApplication(DictionaryAppApplication.class);
+        aplicacion.addListeners(new PasosArranque());
+        aplicacion.run(args);
     }
 
+    // Guarda los pasos del arranque para /actuator/startup (creación de cada bean, refresco del contexto...)
+    // solo si diccionario.arranque.pasos lo pide (perfil produccion). Se decide con el entorno ya preparado,
+    // antes de crear el contexto, que es cuando se leen los perfiles y las propiedades
+    private static final class PasosArranque implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent evento) {
+            int pasos = evento.getEnvironment().getProperty("diccionario.arranque.pasos", Integer.class, 0);
+            if (pasos > 0) {
+                evento.getSpringApplication().setApplicationStartup(new BufferingApplicationStartup(pasos));
+            }
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package org.example.dictionaryapp.configs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Las tablas se crearon con ids IDENTITY; al pasar a secuencias, una secuencia recién creada
+// empieza en 1 y chocaría con los ids existentes. Al arrancar se adelanta cada secuencia por
+// encima del id máximo si hace falta. Solo avanza: nunca retrocede una secuencia en uso.
+@Component
+public class AjusteSecuencias {
+
+    private static final Logger log = LoggerFactory.getLogger(AjusteSecuencias.class);
+
+    private static final int TAMANO_BLOQUE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void ajustar() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        ajustar(dialect, "palabra", "palabra_seq");
+        ajustar(dialect, "definicion", "definicion_seq");
+    }
+
+    private void ajustar(Dialect dialect, String tabla, String secuencia) {
+        try {
+            Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabla, Long.class);
+            if (maximo == null) {
+                return;
+            }
+            Long siguiente = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(secuencia), Long.class);
+            // Con asignación por bloques el valor de la secuencia es el final del bloque que se reserva
+            if (siguiente != null && siguiente - TAMANO_BLOQUE < maximo) {
+                long reinicio = maximo + 2L * TAMANO_BLOQUE;
+                jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + reinicio);
+                log.info("Secuencia {} adelantada a {} (id máximo en {}: {})", secuencia, reinicio, tabla, maximo);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo ajustar la secuencia {}: {}", secuencia, e.getMessage());
+        }
+    }
+}
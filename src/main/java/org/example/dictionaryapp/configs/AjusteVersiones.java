@@ -0,0 +1,37 @@
+package org.example.dictionaryapp.configs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// La columna version de palabra se añadió con filas ya existentes, que quedan a NULL. Hibernate
+// no puede incrementar una versión nula (y Spring Data tomaría la palabra por nueva), así que al
+// arrancar se ponen a 0.
+@Component
+public class AjusteVersiones {
+
+    private static final Logger log = LoggerFactory.getLogger(AjusteVersiones.class);
+
+    // Garantiza que el esquema ya está actualizado antes de ajustar
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void ajustar() {
+        try {
+            int actualizadas = jdbcTemplate.update("UPDATE palabra SET version = 0 WHERE version IS NULL");
+            if (actualizadas > 0) {
+                log.info("Versión inicial asignada a {} palabras", actualizadas);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo asignar la versión inicial de las palabras: {}", e.getMessage());
+        }
+    }
+}
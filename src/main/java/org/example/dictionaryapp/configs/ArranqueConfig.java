@@ -0,0 +1,50 @@
+package org.example.dictionaryapp.configs;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.List;
+
+// Crea en su primer uso los beans de diccionario.arranque.perezosos (prefijos de nombres de clase)
+// en lugar de al arrancar; el resto del contexto se sigue creando al arrancar.
+@Configuration
+public class ArranqueConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor beansPerezosos(Environment environment) {
+        List<String> prefijos = Binder.get(environment)
+                .bind("diccionario.arranque.perezosos", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return beanFactory -> {
+            if (prefijos.isEmpty()) {
+                return;
+            }
+            for (String nombre : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definicion = beanFactory.getBeanDefinition(nombre);
+                String clase = clase(definicion);
+                if (clase != null && definicion.isSingleton() && prefijos.stream().anyMatch(clase::startsWith)) {
+                    definicion.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // Clase del bean o, si sale de un método @Bean, la de la configuración que lo declara
+    private static String clase(BeanDefinition definicion) {
+        if (definicion.getBeanClassName() != null) {
+            return definicion.getBeanClassName();
+        }
+        if (definicion instanceof AnnotatedBeanDefinition anotada) {
+            MethodMetadata metodo = anotada.getFactoryMethodMetadata();
+            return metodo != null ? metodo.getDeclaringClassName() : null;
+        }
+        return null;
+    }
+}
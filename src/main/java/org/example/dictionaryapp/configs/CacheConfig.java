@@ -0,0 +1,38 @@
+package org.example.dictionaryapp.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Cachés en memoria delante de las consultas por id y de existencia de términos. Guardan también
+// los fallos (valor nulo) para que los ids o términos inexistentes no vuelvan a ir a la base de datos.
+// Las estadísticas de aciertos, fallos y expulsiones se publican como métricas cache.* en Actuator.
+@Configuration
+public class CacheConfig {
+
+    public static final String PALABRAS = "palabras";
+
+    public static final String PALABRAS_CON_DEFINICIONES = "palabrasConDefiniciones";
+
+    public static final String EXISTENCIAS = "existencias";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${diccionario.cache.tamano-maximo:10000}") long tamanoMaximo,
+                                     @Value("${diccionario.cache.ttl:10m}") Duration ttl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(true);
+        for (String nombre : new String[]{PALABRAS, PALABRAS_CON_DEFINICIONES, EXISTENCIAS}) {
+            cacheManager.registerCustomCache(nombre, Caffeine.newBuilder()
+                    .maximumSize(tamanoMaximo)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build());
+        }
+        return cacheManager;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.dictionaryapp.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.example.dictionaryapp.util.Normalizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Abre el pool y repite las consultas más frecuentes antes de declarar lista la aplicación
+// (diccionario.arranque.calentamiento.activo); con el pool abierto lanza también CargasArranque.
+@Component
+@ConditionalOnProperty(name = "diccionario.arranque.calentamiento.activo", havingValue = "true")
+public class CalentamientoArranque {
+
+    private static final Logger log = LoggerFactory.getLogger(CalentamientoArranque.class);
+
+    private static final int TAMANO_POOL_POR_DEFECTO = 10;
+
+    private static final int TAMANO_PAGINA = 20;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CargasArranque cargasArranque;
+
+    // 0: tantas como el tamaño máximo del pool
+    @Value("${diccionario.arranque.calentamiento.conexiones:0}")
+    private int conexiones;
+
+    @Value("${diccionario.arranque.calentamiento.iteraciones:10}")
+    private int iteraciones;
+
+    @Value("${diccionario.arranque.calentamiento.espera-maxima-ms:60000}")
+    private long esperaMaximaMs;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        int hilos = conexiones > 0 ? conexiones : tamanoPool();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "calentamiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            CountDownLatch abiertas = new CountDownLatch(hilos);
+            boolean completo = fase("conexiones", ejecutor, hilos, limite, () -> abrirConexion(abiertas, limite));
+            cargasArranque.cargar(ejecutor);
+            completo = completo && fase("consultas", ejecutor, hilos, limite, this::ejecutarConsultas);
+            long duracion = System.nanoTime() - inicio;
+            registrar("calentamiento", duracion);
+            log.info("Calentamiento {} en {} ms con {} hilos; lista para recibir tráfico a los {} ms del arranque de la JVM",
+                    completo ? "completado" : "incompleto", TimeUnit.NANOSECONDS.toMillis(duracion), hilos,
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    // Ejecuta la tarea en todos los hilos y espera a que terminen; false si falla o se pasa del límite
+    private boolean fase(String nombre, ExecutorService ejecutor, int hilos, long limite, Callable<Void> tarea) {
+        long inicio = System.nanoTime();
+        List<Future<Void>> tareas = new ArrayList<>(hilos);
+        for (int i = 0; i < hilos; i++) {
+            tareas.add(ejecutor.submit(tarea));
+        }
+        try {
+            for (Future<Void> pendiente : tareas) {
+                pendiente.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("El calentamiento ({}) no ha terminado en {} ms", nombre, esperaMaximaMs);
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Error en el calentamiento ({}): {}", nombre, e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            tareas.forEach(pendiente -> pendiente.cancel(true));
+            registrar(nombre, System.nanoTime() - inicio);
+        }
+    }
+
+    // Cada hilo retiene su conexión hasta que todos tienen la suya: así se abren todas, no se reutiliza una
+    private Void abrirConexion(CountDownLatch abiertas, long limite) throws SQLException, InterruptedException {
+        Connection conexion;
+        try {
+            conexion = dataSource.getConnection();
+        } finally {
+            abiertas.countDown();
+        }
+        try (conexion) {
+            conexion.isValid(5);
+            abiertas.await(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+        return null;
+    }
+
+    private Void ejecutarConsultas() {
+        for (int i = 0; i < iteraciones; i++) {
+            List<PalabraDTO> pagina = palabraRepository.findPagina(0, Limit.of(TAMANO_PAGINA));
+            List<Long> ids = pagina.stream().map(PalabraDTO::getId).toList();
+            long id = ids.isEmpty() ? 0L : ids.get(0);
+            String termino = pagina.isEmpty() ? "" : pagina.get(0).getTermino();
+            palabraRepository.findConDefinicionesById(id);
+            palabraRepository.findFilasById(id);
+            palabraRepository.findByIdIn(ids.isEmpty() ? List.of(id) : ids);
+            palabraRepository.findByTerminoNormalizado(Normalizador.normalizar(termino));
+            palabraRepository.existsByTermino(termino);
+        }
+        return null;
+    }
+
+    private void registrar(String fase, long nanos) {
+        CargasArranque.registrar(meterRegistry, fase, nanos);
+    }
+
+    private int tamanoPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int maximo = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                if (maximo > 0) {
+                    return maximo;
+                }
+            }
+        } catch (SQLException e) {
+            // Se usa el tamaño por defecto de Hikari
+        }
+        return TAMANO_POOL_POR_DEFECTO;
+    }
+}
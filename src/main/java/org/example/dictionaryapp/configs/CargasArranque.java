@@ -0,0 +1,130 @@
+package org.example.dictionaryapp.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.dictionaryapp.indice.FiltroTerminos;
+import org.example.dictionaryapp.indice.IndiceCategorias;
+import org.example.dictionaryapp.indice.IndicePrefijos;
+import org.example.dictionaryapp.indice.IndiceTextual;
+import org.example.dictionaryapp.service.EstadisticasService;
+import org.example.dictionaryapp.service.PalabraService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Cargas en memoria del arranque, a la vez y cada una medida como fase del timer diccionario.arranque.
+@Component
+public class CargasArranque {
+
+    private static final Logger log = LoggerFactory.getLogger(CargasArranque.class);
+
+    @Autowired
+    private PalabraService palabraService;
+
+    @Autowired
+    private FiltroTerminos filtroTerminos;
+
+    @Autowired
+    private IndicePrefijos indicePrefijos;
+
+    @Autowired
+    private IndiceCategorias indiceCategorias;
+
+    @Autowired
+    private IndiceTextual indiceTextual;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final AtomicBoolean lanzadas = new AtomicBoolean();
+
+    // Después de CalentamientoArranque, que puede haberlas hecho ya
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        if (lanzadas.get()) {
+            return;
+        }
+        ExecutorService ejecutor = Executors.newFixedThreadPool(cargas().size(), tarea -> {
+            Thread hilo = new Thread(tarea, "cargas-arranque");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            cargar(ejecutor);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    // Lanza todas las cargas en el ejecutor y espera a que terminen; solo la primera vez
+    public void cargar(ExecutorService ejecutor) {
+        if (!lanzadas.compareAndSet(false, true)) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        List<Future<?>> tareas = new ArrayList<>();
+        cargas().forEach((fase, carga) -> tareas.add(ejecutor.submit(() -> {
+            long inicioFase = System.nanoTime();
+            try {
+                carga.run();
+            } finally {
+                registrar(meterRegistry.getIfAvailable(), fase, System.nanoTime() - inicioFase);
+            }
+        })));
+        try {
+            for (Future<?> tarea : tareas) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    log.warn("Error en una carga del arranque: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tareas.forEach(tarea -> tarea.cancel(true));
+        }
+        long duracion = System.nanoTime() - inicio;
+        registrar(meterRegistry.getIfAvailable(), "cargas", duracion);
+        log.info("Cargas del arranque terminadas en {} ms", TimeUnit.NANOSECONDS.toMillis(duracion));
+    }
+
+    // Cada carga ya registra sus propios errores y deja lo suyo para cargarse con la primera consulta
+    private Map<String, Runnable> cargas() {
+        Map<String, Runnable> cargas = new LinkedHashMap<>();
+        cargas.put("terminos-normalizados", palabraService::completarTerminosNormalizados);
+        cargas.put("filtro-terminos", filtroTerminos::inicializar);
+        cargas.put("indice-prefijos", indicePrefijos::inicializar);
+        cargas.put("indice-categorias", indiceCategorias::inicializar);
+        cargas.put("indice-textual", indiceTextual::inicializar);
+        cargas.put("estadisticas", estadisticasService::inicializar);
+        return cargas;
+    }
+
+    static void registrar(MeterRegistry registry, String fase, long nanos) {
+        if (registry == null) {
+            return;
+        }
+        Timer.builder("diccionario.arranque")
+                .description("Duración de cada fase del arranque")
+                .tag("fase", fase)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
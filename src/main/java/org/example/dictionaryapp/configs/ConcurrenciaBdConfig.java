@@ -0,0 +1,82 @@
+package org.example.dictionaryapp.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// Envuelve el DataSource en un DataSourceLimitado. La concurrencia máxima es la de
+// diccionario.bd.concurrencia-maxima o, si no se indica, el tamaño máximo del pool de Hikari.
+@Configuration
+public class ConcurrenciaBdConfig {
+
+    private static final int TAMANO_POOL_POR_DEFECTO = 10;
+
+    // Antes que el resto de envoltorios (ReplicasBdConfig), para limitar el pool y no lo que lo envuelve
+    static final int ORDEN = Ordered.LOWEST_PRECEDENCE - 100;
+
+    @Bean
+    public static BeanPostProcessor limitadorDataSource(Environment environment) {
+        return new LimitadorDataSource(environment);
+    }
+
+    @Bean
+    public MeterBinder metricasConcurrenciaBd(DataSource dataSource) {
+        return registry -> {
+            DataSourceLimitado limitado = limitado(dataSource);
+            if (limitado != null) {
+                Gauge.builder("diccionario.bd.permisos.disponibles", limitado, DataSourceLimitado::getPermisosDisponibles)
+                        .description("Conexiones que aún se pueden abrir sin esperar")
+                        .register(registry);
+                Gauge.builder("diccionario.bd.en.espera", limitado, DataSourceLimitado::getEnEspera)
+                        .description("Peticiones esperando una conexión con la base de datos")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static DataSourceLimitado limitado(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(DataSourceLimitado.class) ? dataSource.unwrap(DataSourceLimitado.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static final class LimitadorDataSource implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        LimitadorDataSource(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof DataSourceLimitado) {
+                return bean;
+            }
+            Integer concurrencia = environment.getProperty("diccionario.bd.concurrencia-maxima", Integer.class);
+            if (concurrencia == null) {
+                // Hikari deja el tamaño en -1 hasta arrancar el pool si no se configura; su valor por defecto es 10
+                concurrencia = dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0
+                        ? hikari.getMaximumPoolSize() : TAMANO_POOL_POR_DEFECTO;
+            }
+            long espera = environment.getProperty("diccionario.bd.espera-maxima-ms", Long.class, 5000L);
+            return new DataSourceLimitado(dataSource, concurrencia, espera);
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDEN;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.dictionaryapp.configs;
+
+import java.util.concurrent.Callable;
+
+// Seq mínimo que debe tener una réplica para atender el hilo actual: el último escrito por el cliente
+// en una petición HTTP, o AL_DIA para lo que se comparte entre clientes (cachés, índices).
+public final class ConsistenciaLecturas {
+
+    public static final long AL_DIA = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> MINIMO = new ThreadLocal<>();
+
+    private ConsistenciaLecturas() {
+    }
+
+    public static long minimo() {
+        Long minimo = MINIMO.get();
+        return minimo != null ? minimo : AL_DIA;
+    }
+
+    public static <T> T alDia(Callable<T> lectura) throws Exception {
+        Long anterior = MINIMO.get();
+        MINIMO.set(AL_DIA);
+        try {
+            return lectura.call();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+
+    // Para el resto de la petición. Nunca baja el mínimo: una escritura posterior no puede hacer
+    // aceptable una réplica más atrasada
+    public static void exigir(long seq) {
+        Long actual = MINIMO.get();
+        if (actual != null && actual < seq) {
+            MINIMO.set(seq);
+        }
+    }
+
+    static Long fijar(long seq) {
+        Long anterior = MINIMO.get();
+        MINIMO.set(seq);
+        return anterior;
+    }
+
+    static void restaurar(Long anterior) {
+        if (anterior == null) {
+            MINIMO.remove();
+        } else {
+            MINIMO.set(anterior);
+        }
+    }
+}
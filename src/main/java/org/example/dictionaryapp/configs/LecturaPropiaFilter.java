@@ -0,0 +1,72 @@
+package org.example.dictionaryapp.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Lectura de las propias escrituras con réplicas: el seq de la última escritura del cliente viaja en
+// X-Diccionario-Seq y en una cookie, y sus lecturas solo van a réplicas que ya lo tengan.
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA = "X-Diccionario-Seq";
+
+    static final String COOKIE = "diccionario_seq";
+
+    private final int ventanaSegundos;
+
+    LecturaPropiaFilter(int ventanaSegundos) {
+        this.ventanaSegundos = ventanaSegundos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long anterior = ConsistenciaLecturas.fijar(seqDelCliente(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsistenciaLecturas.restaurar(anterior);
+        }
+    }
+
+    // Se recibe en el hilo de la petición que escribió, antes de que se envíe la respuesta
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        ConsistenciaLecturas.exigir(evento.getSeq());
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos
+                && atributos.getResponse() != null && !atributos.getResponse().isCommitted()) {
+            HttpServletResponse response = atributos.getResponse();
+            response.setHeader(CABECERA, String.valueOf(evento.getSeq()));
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(evento.getSeq()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(ventanaSegundos);
+            response.addCookie(cookie);
+        }
+    }
+
+    private static long seqDelCliente(HttpServletRequest request) {
+        String valor = request.getHeader(CABECERA);
+        if (valor == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    valor = cookie.getValue();
+                }
+            }
+        }
+        try {
+            return valor == null ? 0 : Math.max(0, Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
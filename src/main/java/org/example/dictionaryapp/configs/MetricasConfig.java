@@ -0,0 +1,111 @@
+package org.example.dictionaryapp.configs;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.example.dictionaryapp.service.EstadisticasService;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+// Métricas propias que completan las de Spring Boot (peticiones HTTP, consultas de repositorio,
+// Hibernate, Hikari y cachés): la categoría gramatical en las peticiones que filtran por ella
+// y el número de filas que devuelve cada consulta de repositorio.
+@Configuration
+public class MetricasConfig {
+
+    static final String SIN_CATEGORIA = "ninguna";
+
+    static final String OTRA_CATEGORIA = "otra";
+
+    // Solo se etiqueta con categorías que existen, para que la URL no pueda crear series sin límite
+    @Bean
+    public ServerRequestObservationConvention convencionPeticiones(ObjectProvider<EstadisticasService> estadisticasService) {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and("categoria", categoria(context));
+            }
+
+            private String categoria(ServerRequestObservationContext context) {
+                Object variables = context.getCarrier().getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                if (!(variables instanceof Map<?, ?> mapa) || !(mapa.get("categoria") instanceof String categoria)) {
+                    return SIN_CATEGORIA;
+                }
+                EstadisticasService estadisticas = estadisticasService.getIfAvailable();
+                return estadisticas != null && estadisticas.existeCategoria(categoria) ? categoria : OTRA_CATEGORIA;
+            }
+        };
+    }
+
+    // Se engancha a cada repositorio igual que hace Spring Boot con spring.data.repository.invocations
+    @Bean
+    public static BeanPostProcessor filasRepositorio(ObjectProvider<MeterRegistry> meterRegistry) {
+        SingletonSupplier<MeterRegistry> registrySupplier = SingletonSupplier.of(meterRegistry::getIfAvailable);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, informacion) -> {
+                        String repositorio = informacion.getRepositoryInterface().getSimpleName();
+                        // Un medidor por método, creado con la primera llamada: así no se busca en el registro en cada consulta
+                        Map<Method, DistributionSummary> medidores = new ConcurrentHashMap<>();
+                        proxyFactory.addAdvice((MethodInterceptor) invocacion -> {
+                            Object resultado = invocacion.proceed();
+                            long filas = filas(invocacion.getMethod().getReturnType(), resultado);
+                            if (filas < 0) {
+                                return resultado;
+                            }
+                            MeterRegistry registry = registrySupplier.get();
+                            if (registry != null) {
+                                medidores.computeIfAbsent(invocacion.getMethod(), metodo -> DistributionSummary.builder("diccionario.repositorio.filas")
+                                        .description("Filas devueltas por cada consulta de repositorio")
+                                        .tag("repositorio", repositorio)
+                                        .tag("metodo", metodo.getName())
+                                        .register(registry))
+                                        .record(filas);
+                            }
+                            return resultado;
+                        });
+                    }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // -1 si el método no devuelve filas (conteos, existencias, void) o no se pueden contar sin consumirlas
+    private static long filas(Class<?> tipo, Object valor) {
+        if (valor instanceof Collection<?> coleccion) {
+            return coleccion.size();
+        }
+        if (valor instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (valor instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (tipo.isPrimitive() || Number.class.isAssignableFrom(tipo) || Boolean.class == tipo
+                || BaseStream.class.isAssignableFrom(tipo) || Iterable.class.isAssignableFrom(tipo)) {
+            return -1;
+        }
+        return valor == null ? 0 : 1;
+    }
+}
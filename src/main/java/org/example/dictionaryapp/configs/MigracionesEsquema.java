@@ -0,0 +1,230 @@
+package org.example.dictionaryapp.configs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Migraciones versionadas (classpath:db/migraciones/V<n>__*.sql, tabla esquema_version) en lugar de ddl-auto.
+// Se ejecuta antes que el EntityManagerFactory, con JDBC; en PostgreSQL, bajo pg_advisory_lock.
+@Configuration
+@ConditionalOnProperty(name = "diccionario.migraciones.activas", havingValue = "true")
+public class MigracionesEsquema implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionesEsquema.class);
+
+    private static final String UBICACION = "classpath:db/migraciones/V*__*.sql";
+
+    private static final Pattern NOMBRE = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Versión hasta la que se completa una base creada con ddl-auto=update
+    private static final int VERSION_BASE = 1;
+
+    private static final String ESQUEMA_EXISTENTE = "classpath:db/migraciones/esquema_existente.sql";
+
+    // Secuencias de V1 y la columna cuyos valores deben quedar por debajo del primero que den
+    private static final Map<String, String> SECUENCIAS = Map.of(
+            "palabra_seq", "SELECT MAX(id) FROM palabra",
+            "definicion_seq", "SELECT MAX(id) FROM definicion",
+            "cambio_seq", "SELECT MAX(seq) FROM cambio");
+
+    // allocationSize de las entidades: Hibernate usa los ids anteriores al valor que da la secuencia
+    private static final int INCREMENTO_SECUENCIAS = 50;
+
+    // Clave del pg_advisory_lock que serializa las migraciones entre instancias
+    private static final long BLOQUEO = 0x64696363L;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Duration duracion = Duration.ZERO;
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migracionesAntesDeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MigracionesEsquema.class);
+    }
+
+    @PostConstruct
+    public void migrar() {
+        long inicio = System.nanoTime();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        List<Migracion> migraciones = leerMigraciones();
+        int nuevas = conBloqueo(() -> {
+            Set<Integer> aplicadas = versionesAplicadas(jdbcTemplate, transaccion);
+            int aplicadasAhora = 0;
+            for (Migracion migracion : migraciones) {
+                if (!aplicadas.contains(migracion.version())) {
+                    aplicar(jdbcTemplate, transaccion, migracion);
+                    aplicadasAhora++;
+                }
+            }
+            return aplicadasAhora;
+        });
+        duracion = Duration.ofNanos(System.nanoTime() - inicio);
+        log.info("Esquema en la versión {}: {} migraciones aplicadas en {} ms",
+                migraciones.isEmpty() ? 0 : migraciones.get(migraciones.size() - 1).version(), nuevas, duracion.toMillis());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Timer.builder("diccionario.arranque")
+                .description("Duración de cada fase del arranque")
+                .tag("fase", "migraciones")
+                .register(registry)
+                .record(duracion);
+    }
+
+    // Con PostgreSQL, en una conexión aparte que retiene el bloqueo mientras se migra; si la instancia
+    // se cae a medias, el bloqueo se libera al cerrarse la sesión
+    private <T> T conBloqueo(Supplier<T> migracion) {
+        try (Connection conexion = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(conexion.getMetaData().getDatabaseProductName())) {
+                return migracion.get();
+            }
+            long inicio = System.nanoTime();
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("SELECT pg_advisory_lock(" + BLOQUEO + ")");
+            }
+            log.debug("Bloqueo de migraciones obtenido en {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            try {
+                return migracion.get();
+            } finally {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("SELECT pg_advisory_unlock(" + BLOQUEO + ")");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo obtener el bloqueo de migraciones: " + e.getMessage(), e);
+        }
+    }
+
+    private Set<Integer> versionesAplicadas(JdbcTemplate jdbcTemplate, TransactionTemplate transaccion) {
+        if (!existeTabla(jdbcTemplate, "esquema_version")) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS esquema_version (version INTEGER NOT NULL PRIMARY KEY, " +
+                    "descripcion VARCHAR(200) NOT NULL, aplicada TIMESTAMP NOT NULL, duracion_ms BIGINT NOT NULL)");
+            if (existeTabla(jdbcTemplate, "palabra")) {
+                transaccion.executeWithoutResult(estado -> {
+                    completarEsquemaExistente(jdbcTemplate);
+                    registrar(jdbcTemplate, new Migracion(VERSION_BASE, "esquema existente", null), 0);
+                });
+                log.info("Base de datos creada con ddl-auto: completada y dada por migrada hasta la versión {}", VERSION_BASE);
+            }
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT version FROM esquema_version", Integer.class));
+    }
+
+    // Las secuencias que se crean ahora empiezan por encima de los ids que ya asignó IDENTITY
+    private static void completarEsquemaExistente(JdbcTemplate jdbcTemplate) {
+        Map<String, String> nuevas = new TreeMap<>(SECUENCIAS);
+        nuevas.keySet().removeIf(secuencia -> existeSecuencia(jdbcTemplate, secuencia));
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+            ScriptUtils.executeSqlScript(conexion, new EncodedResource(
+                    new PathMatchingResourcePatternResolver().getResource(ESQUEMA_EXISTENTE), StandardCharsets.UTF_8));
+            return null;
+        });
+        nuevas.forEach((secuencia, maximo) -> {
+            Long ultimo = jdbcTemplate.queryForObject(maximo, Long.class);
+            if (ultimo != null) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + (ultimo + INCREMENTO_SECUENCIAS));
+            }
+        });
+    }
+
+    private void aplicar(JdbcTemplate jdbcTemplate, TransactionTemplate transaccion, Migracion migracion) {
+        try {
+            transaccion.executeWithoutResult(estado -> {
+                long inicio = System.currentTimeMillis();
+                jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+                    ScriptUtils.executeSqlScript(conexion, new EncodedResource(migracion.script(), StandardCharsets.UTF_8));
+                    return null;
+                });
+                registrar(jdbcTemplate, migracion, System.currentTimeMillis() - inicio);
+            });
+            log.info("Migración V{} aplicada: {}", migracion.version(), migracion.descripcion());
+        } catch (RuntimeException e) {
+            // Si otra instancia la ha aplicado mientras tanto, no es un error
+            Integer aplicada = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM esquema_version WHERE version = ?",
+                    Integer.class, migracion.version());
+            if (aplicada == null || aplicada == 0) {
+                throw new IllegalStateException("No se pudo aplicar la migración V" + migracion.version() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static void registrar(JdbcTemplate jdbcTemplate, Migracion migracion, long duracionMs) {
+        jdbcTemplate.update("INSERT INTO esquema_version (version, descripcion, aplicada, duracion_ms) VALUES (?, ?, ?, ?)",
+                migracion.version(), migracion.descripcion(), Timestamp.from(Instant.now()), duracionMs);
+    }
+
+    private static boolean existeSecuencia(JdbcTemplate jdbcTemplate, String secuencia) {
+        Integer total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES WHERE LOWER(SEQUENCE_NAME) = ?", Integer.class, secuencia);
+        return total != null && total > 0;
+    }
+
+    private static boolean existeTabla(JdbcTemplate jdbcTemplate, String tabla) {
+        try {
+            jdbcTemplate.queryForList("SELECT 1 FROM " + tabla + " WHERE 1 = 0");
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private static List<Migracion> leerMigraciones() {
+        Resource[] scripts;
+        try {
+            scripts = new PathMatchingResourcePatternResolver().getResources(UBICACION);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las migraciones del esquema", e);
+        }
+        Map<Integer, Migracion> porVersion = new TreeMap<>();
+        for (Resource script : scripts) {
+            Matcher nombre = NOMBRE.matcher(Objects.requireNonNull(script.getFilename()));
+            if (!nombre.matches()) {
+                continue;
+            }
+            Migracion migracion = new Migracion(Integer.parseInt(nombre.group(1)), nombre.group(2).replace('_', ' '), script);
+            if (porVersion.put(migracion.version(), migracion) != null) {
+                throw new IllegalStateException("Hay dos migraciones con la versión " + migracion.version());
+            }
+        }
+        return new ArrayList<>(porVersion.values());
+    }
+
+    private record Migracion(int version, String descripcion, Resource script) {
+    }
+}
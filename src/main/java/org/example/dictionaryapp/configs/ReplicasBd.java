@@ -0,0 +1,231 @@
+package org.example.dictionaryapp.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Reparte las lecturas por turnos entre las réplicas que responden y están al día, o las manda a la primaria.
+// El retraso se mide contando las filas del registro de cambios hasta el último seq confirmado de la primaria.
+public class ReplicasBd implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasBd.class);
+
+    private static final String CONTAR = "SELECT COUNT(*) FROM cambio WHERE seq > ? AND seq <= ?";
+
+    private final List<Replica> replicas;
+    private final JdbcTemplate primaria;
+    private final LongSupplier ultimoConfirmado;
+    private final long retrasoMaximoMs;
+    private final AtomicInteger turno = new AtomicInteger();
+
+    // Puntos de control de la primaria, del más antiguo al más reciente; solo los usa el hilo de comprobación
+    private final List<Marca> marcas = new ArrayList<>();
+
+    // seq de la última marca descartada por antigua: a una réplica que no llega a él le falta algo desde hace demasiado
+    private volatile long seqDescartado;
+
+    private volatile Counter lecturasPrimaria;
+
+    ReplicasBd(List<Replica> replicas, JdbcTemplate primaria, LongSupplier ultimoConfirmado, long retrasoMaximoMs) {
+        this.replicas = replicas;
+        this.primaria = primaria;
+        this.ultimoConfirmado = ultimoConfirmado;
+        this.retrasoMaximoMs = retrasoMaximoMs;
+    }
+
+    public Connection conexion(DataSource primaria) throws SQLException {
+        long minimo = ConsistenciaLecturas.minimo();
+        if (minimo == ConsistenciaLecturas.AL_DIA) {
+            minimo = ultimoConfirmado.getAsLong();
+        }
+        int inicio = Math.floorMod(turno.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.disponible(minimo, retrasoMaximoMs)) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.contarLectura();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.marcarCaida(e);
+                }
+            }
+        }
+        if (lecturasPrimaria != null) {
+            lecturasPrimaria.increment();
+        }
+        return primaria.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${diccionario.bd.replicas.comprobacion-ms:1000}")
+    public void comprobar() {
+        long ahora = System.currentTimeMillis();
+        try {
+            anotarPrimaria(ahora);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer el registro de cambios de la primaria: {}", e.getMessage());
+            return;
+        }
+        for (Replica replica : replicas) {
+            try {
+                Marca alDia = alDiaHasta(replica);
+                replica.actualizar(alDia, retraso(alDia, ahora), retrasoMaximoMs);
+            } catch (RuntimeException e) {
+                replica.marcarCaida(e);
+            }
+        }
+    }
+
+    private void anotarPrimaria(long ahora) {
+        long seq = ultimoConfirmado.getAsLong();
+        Marca anterior = marcas.isEmpty() ? new Marca(0, 0, 0) : marcas.get(marcas.size() - 1);
+        if (!marcas.isEmpty() && seq == anterior.seq) {
+            return;
+        }
+        Long nuevas = primaria.queryForObject(CONTAR, Long.class, anterior.seq, seq);
+        // No se sabe desde cuándo existen las filas que ya había al arrancar: la primera marca se da por antigua
+        marcas.add(new Marca(marcas.isEmpty() ? 0 : ahora, seq, anterior.filas + (nuevas == null ? 0 : nuevas)));
+        // Más allá del doble del retraso máximo la réplica no se usa igualmente; la última se conserva siempre
+        while (marcas.size() > 1 && marcas.get(0).instante < ahora - 2 * retrasoMaximoMs) {
+            seqDescartado = marcas.remove(0).seq;
+        }
+    }
+
+    // La marca más reciente hasta la que la réplica tiene todas las filas, buscando entre las
+    // posteriores a la que ya tenía (lo normal es que esté al día y baste una consulta)
+    private Marca alDiaHasta(Replica replica) {
+        Marca conocida = replica.alDia;
+        int desde = 0;
+        while (desde < marcas.size() && marcas.get(desde).seq <= conocida.seq) {
+            desde++;
+        }
+        int hasta = marcas.size() - 1;
+        if (desde > hasta) {
+            // Nada nuevo que comprobar, pero la consulta confirma que la réplica responde y tiene el registro
+            replica.jdbcTemplate.queryForObject(CONTAR, Long.class, conocida.seq, conocida.seq);
+        }
+        while (desde <= hasta) {
+            int medio = (desde + hasta + 1) >>> 1;
+            Marca marca = marcas.get(medio);
+            Long filas = replica.jdbcTemplate.queryForObject(CONTAR, Long.class, conocida.seq, marca.seq);
+            if (filas != null && filas == marca.filas - conocida.filas) {
+                conocida = marca;
+                desde = medio + 1;
+            } else {
+                hasta = medio - 1;
+            }
+        }
+        return conocida;
+    }
+
+    // Tiempo desde que la primaria tiene algo que a la réplica aún le falta
+    private long retraso(Marca alDia, long ahora) {
+        if (alDia.seq < seqDescartado) {
+            return Long.MAX_VALUE;
+        }
+        for (Marca marca : marcas) {
+            if (marca.seq > alDia.seq) {
+                return ahora - marca.instante;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lecturasPrimaria = Counter.builder("diccionario.bd.lecturas")
+                .description("Conexiones de solo lectura según a dónde se enviaron")
+                .tag("destino", "primaria")
+                .register(registry);
+        for (Replica replica : replicas) {
+            replica.lecturas = Counter.builder("diccionario.bd.lecturas")
+                    .description("Conexiones de solo lectura según a dónde se enviaron")
+                    .tag("destino", replica.nombre)
+                    .register(registry);
+            Gauge.builder("diccionario.bd.replicas.retraso", replica, r -> r.retrasoMs == Long.MAX_VALUE ? Double.NaN : r.retrasoMs)
+                    .description("Retraso estimado de la réplica respecto a la primaria")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.nombre)
+                    .register(registry);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    // Último seq confirmado en la primaria en un instante y número de filas del registro hasta él
+    private record Marca(long instante, long seq, long filas) {
+    }
+
+    static final class Replica {
+
+        final String nombre;
+        final HikariDataSource pool;
+        final DataSource dataSource;
+        final JdbcTemplate jdbcTemplate;
+
+        // Hasta la primera comprobación no se usa
+        volatile boolean comprobada;
+        volatile boolean sana;
+        volatile Marca alDia = new Marca(0, 0, 0);
+        volatile long retrasoMs = Long.MAX_VALUE;
+        volatile Counter lecturas;
+
+        Replica(String nombre, HikariDataSource pool, DataSource dataSource) {
+            this.nombre = nombre;
+            this.pool = pool;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(5);
+        }
+
+        boolean disponible(long minimo, long retrasoMaximoMs) {
+            return sana && retrasoMs <= retrasoMaximoMs && alDia.seq >= minimo;
+        }
+
+        void actualizar(Marca alDia, long retrasoMs, long retrasoMaximoMs) {
+            if (!sana) {
+                log.info("Réplica {} disponible (al día hasta el seq {})", nombre, alDia.seq);
+            } else if (this.retrasoMs <= retrasoMaximoMs && retrasoMs > retrasoMaximoMs) {
+                log.warn("Réplica {} retrasada más de {} ms: sus lecturas van a la primaria", nombre, retrasoMaximoMs);
+            }
+            this.alDia = alDia;
+            this.retrasoMs = retrasoMs;
+            this.sana = true;
+            this.comprobada = true;
+        }
+
+        void marcarCaida(Exception causa) {
+            if (sana || !comprobada) {
+                log.warn("Réplica {} no disponible, sus lecturas van a la primaria: {}", nombre, causa.getMessage());
+            }
+            sana = false;
+            comprobada = true;
+        }
+
+        void contarLectura() {
+            if (lecturas != null) {
+                lecturas.increment();
+            }
+        }
+    }
+}
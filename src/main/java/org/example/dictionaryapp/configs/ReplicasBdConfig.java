@@ -0,0 +1,103 @@
+package org.example.dictionaryapp.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.dictionaryapp.service.RegistroCambios;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Réplicas de lectura (diccionario.bd.replicas.urls): las transacciones de solo lectura van a ReplicasBd y el
+// resto a la primaria. Necesita spring.jpa.open-in-view=false para que una petición no reutilice la conexión.
+@Configuration
+@ConditionalOnProperty("diccionario.bd.replicas.urls")
+public class ReplicasBdConfig {
+
+    @Bean
+    public ReplicasBd replicasBd(Environment environment, DataSource dataSource, RegistroCambios registroCambios) {
+        if (!Boolean.FALSE.equals(environment.getProperty("spring.jpa.open-in-view", Boolean.class))) {
+            throw new IllegalStateException("diccionario.bd.replicas.urls necesita spring.jpa.open-in-view=false");
+        }
+        String[] urls = environment.getRequiredProperty("diccionario.bd.replicas.urls", String[].class);
+        String usuario = environment.getProperty("diccionario.bd.replicas.usuario", environment.getProperty("spring.datasource.username"));
+        String clave = environment.getProperty("diccionario.bd.replicas.clave", environment.getProperty("spring.datasource.password"));
+        int tamanoPool = environment.getProperty("diccionario.bd.replicas.tamano-pool", Integer.class, 10);
+        long espera = environment.getProperty("diccionario.bd.espera-maxima-ms", Long.class, 5000L);
+        List<ReplicasBd.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            String nombre = "replica-" + (i + 1);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls[i].trim())
+                    .username(usuario)
+                    .password(clave)
+                    .driverClassName(environment.getProperty("spring.datasource.driver-class-name"))
+                    .build();
+            pool.setPoolName(nombre);
+            pool.setMaximumPoolSize(tamanoPool);
+            pool.setReadOnly(true);
+            replicas.add(new ReplicasBd.Replica(nombre, pool, new DataSourceLimitado(pool, tamanoPool, espera)));
+        }
+        return new ReplicasBd(replicas, new JdbcTemplate(dataSource), registroCambios::ultimoConfirmado,
+                environment.getProperty("diccionario.bd.replicas.retraso-maximo-ms", Long.class, 5000L));
+    }
+
+    @Bean
+    public LecturaPropiaFilter lecturaPropiaFilter(Environment environment) {
+        return new LecturaPropiaFilter(environment.getProperty("diccionario.bd.replicas.ventana-lectura-propia-s", Integer.class, 60));
+    }
+
+    @Bean
+    public static BeanPostProcessor enrutadorLecturas(ObjectProvider<ReplicasBd> replicasBd) {
+        return new EnrutadorLecturas(replicasBd);
+    }
+
+    // Después de ConcurrenciaBdConfig: envuelve la primaria ya limitada
+    private static final class EnrutadorLecturas implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicasBd> replicasBd;
+
+        EnrutadorLecturas(ObjectProvider<ReplicasBd> replicasBd) {
+            this.replicasBd = replicasBd;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!(bean instanceof DataSourceLimitado primaria)) {
+                return bean;
+            }
+            LazyConnectionDataSourceProxy enrutado = new LazyConnectionDataSourceProxy(primaria);
+            enrutado.setReadOnlyDataSource(new AbstractDataSource() {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return replicasBd.getObject().conexion(primaria);
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return getConnection();
+                }
+            });
+            return enrutado;
+        }
+
+        @Override
+        public int getOrder() {
+            return ConcurrenciaBdConfig.ORDEN + 1;
+        }
+    }
+}
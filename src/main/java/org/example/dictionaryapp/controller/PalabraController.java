@@ -4,81 +4,189 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dictionaryapp.configs.ConsistenciaLecturas;
+import org.example.dictionaryapp.dto.EscrituraDiferidaDTO;
+import org.example.dictionaryapp.dto.InformeImportacionDTO;
 import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.RespuestaCambiosDTO;
+import org.example.dictionaryapp.dto.RespuestaLoteDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
+import org.example.dictionaryapp.dto.SolicitudLoteDTO;
 import org.example.dictionaryapp.exception.RecordNotFoundException;
 import org.example.dictionaryapp.model.Palabra;
 import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.service.DefinicionesDiferidas;
+import org.example.dictionaryapp.service.DifusionCambios;
+import org.example.dictionaryapp.service.ImportacionService;
 import org.example.dictionaryapp.service.PalabraService;
+import org.example.dictionaryapp.service.RegistroCambios;
+import org.example.dictionaryapp.service.VersionDiccionario;
+import org.example.dictionaryapp.util.FormatoBinario;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/palabras")
 @Tag(name = "Palabras", description = "API para gestionar palabras y definiciones en el diccionario.")
 public class PalabraController {
 
+    private static final long VERSION_IMPOSIBLE = -1;
+
     @Autowired
     private PalabraService palabraService;
 
-    @Operation(summary = "Listar todas las palabras", description = "Devuelve una lista de todas las palabras registradas en el diccionario, sin incluir definiciones.")
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private VersionDiccionario versionDiccionario;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private DifusionCambios difusionCambios;
+
+    @Autowired
+    private DefinicionesDiferidas definicionesDiferidas;
+
+    @Operation(summary = "Listar todas las palabras", description = "Devuelve una lista de todas las palabras registradas en el diccionario, sin incluir definiciones. Admite paginación por clave con 'after' (último id recibido) y 'limit' (por defecto " + PalabraService.LIMITE_POR_DEFECTO + "); la cabecera Link indica la página siguiente.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de palabras obtenida exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping
-    public ResponseEntity<List<PalabraDTO>> getAllPalabras() {
-        List<Palabra> list = palabraService.getAllPalabras();
-        List<PalabraDTO> terminos = list.stream()
-                .map(palabra -> new PalabraDTO(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical()))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(terminos, new HttpHeaders(), HttpStatus.OK);
+    public ResponseEntity<List<PalabraDTO>> getAllPalabras(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           WebRequest request) {
+        if (diccionarioSinCambios(request)) {
+            return null;
+        }
+        List<PalabraDTO> terminos = palabraService.getPaginaPalabras(after, limit);
+        return new ResponseEntity<>(terminos, cabecerasPagina(terminos, PalabraDTO::getId, limit), HttpStatus.OK);
     }
 
-    @Operation(summary = "Listar todas las palabras con definiciones", description = "Obtiene todas las palabras junto con sus respectivas definiciones.")
+    @Operation(summary = "Listar todas las palabras con definiciones", description = "Obtiene las palabras junto con sus respectivas definiciones. Admite paginación por clave con 'after' y 'limit' (por defecto " + PalabraService.LIMITE_POR_DEFECTO + "); la cabecera Link indica la página siguiente.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de palabras con definiciones obtenida exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping("/condefiniciones")
-    public ResponseEntity<List<Palabra>> getAllDiccionario() {
-        List<Palabra> list = palabraService.getAllPalabras();
-        return new ResponseEntity<>(list, new HttpHeaders(), HttpStatus.OK);
+    public ResponseEntity<List<Palabra>> getAllDiccionario(@RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           WebRequest request) {
+        if (diccionarioSinCambios(request)) {
+            return null;
+        }
+        List<Palabra> list = palabraService.getPaginaPalabrasConDefiniciones(after, limit);
+        HttpHeaders headers = cabecerasPagina(list, Palabra::getId, limit);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return new ResponseEntity<>(list, headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Descargar el diccionario en formato binario", description = "Misma respuesta que la versión JSON en un formato binario compacto (" + FormatoBinario.MEDIA_TYPE + "): enteros de longitud variable, ids como diferencias con el anterior y cada categoría gramatical escrita una sola vez. Se elige con la cabecera Accept. Sin 'limit' se transmite por partes directamente desde la base de datos. Se comprime con gzip si el cliente lo acepta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Diccionario descargado exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping(value = "/condefiniciones", produces = FormatoBinario.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getAllDiccionarioBinario(@RequestParam(required = false) Long after,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                          WebRequest request) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        if (diccionarioSinCambios(request, versionDiccionario.etag(gzip ? "-bin-gz" : "-bin"))) {
+            return null;
+        }
+        HttpHeaders headers;
+        StreamingResponseBody body;
+        if (limit == null) {
+            headers = cabecerasRevalidar();
+            body = outputStream -> palabraService.exportarDiccionarioBinario(after, outputStream);
+        } else {
+            List<Palabra> list = palabraService.getPaginaPalabrasConDefiniciones(after, limit);
+            headers = cabecerasPagina(list, Palabra::getId, limit);
+            body = outputStream -> FormatoBinario.escribir(list, outputStream);
+        }
+        headers.setContentType(MediaType.parseMediaType(FormatoBinario.MEDIA_TYPE));
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(conGzip(gzip, body), headers, HttpStatus.OK);
     }
 
     @Operation(summary = "Buscar una palabra por ID", description = "Obtiene los detalles de una palabra específica a partir de su ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Palabra encontrada exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
             @ApiResponse(responseCode = "404", description = "Palabra no encontrada para el ID proporcionado."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping("/{id}")
-    public ResponseEntity<PalabraDTO> getPalabraById(@PathVariable Long id) throws RecordNotFoundException {
-        Palabra palabra = palabraService.getPalabraById(id);
-        PalabraDTO termino = new PalabraDTO(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical());
-        return new ResponseEntity<>(termino, new HttpHeaders(), HttpStatus.OK);
+    public ResponseEntity<PalabraDTO> getPalabraById(@PathVariable Long id, WebRequest request) throws RecordNotFoundException {
+        PalabraDTO termino = palabraService.getPalabraById(id);
+        if (palabraSinCambios(request, "p", id, termino.getVersion())) {
+            return null;
+        }
+        return new ResponseEntity<>(termino, cabecerasRevalidar(), HttpStatus.OK);
     }
 
     @Operation(summary = "Buscar una palabra por ID con definiciones", description = "Obtiene una palabra específica junto con todas sus definiciones utilizando su ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Palabra con definiciones encontrada exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
             @ApiResponse(responseCode = "404", description = "Palabra no encontrada para el ID proporcionado."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping("/{id}/condefiniciones")
-    public ResponseEntity<Palabra> getPalabraByIdConDefiniciones(@PathVariable Long id) throws RecordNotFoundException {
-        Palabra palabra = palabraService.getPalabraById(id);
-        return new ResponseEntity<>(palabra, new HttpHeaders(), HttpStatus.OK);
+    public ResponseEntity<Palabra> getPalabraByIdConDefiniciones(@PathVariable Long id, WebRequest request) throws RecordNotFoundException {
+        Palabra palabra = palabraService.getPalabraConDefinicionesById(id);
+        if (palabraSinCambios(request, "pd", id, palabra.getVersion())) {
+            return null;
+        }
+        return new ResponseEntity<>(palabra, cabecerasRevalidar(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Buscar varias palabras con definiciones", description = "Devuelve en una sola petición las palabras pedidas por id o por término, con sus definiciones y en el orden solicitado. Los ids y términos que no existen se devuelven en 'idsNoEncontrados' y 'terminosNoEncontrados'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Palabras obtenidas exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida (ej: lista vacía o demasiado grande)."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @PostMapping("/lote")
+    public ResponseEntity<RespuestaLoteDTO> getPalabrasEnLote(@RequestBody SolicitudLoteDTO solicitud) {
+        RespuestaLoteDTO respuesta = palabraService.getPalabrasEnLote(solicitud.getIds(), solicitud.getTerminos());
+        return new ResponseEntity<>(respuesta, new HttpHeaders(), HttpStatus.OK);
     }
 
     @Operation(summary = "Registrar una nueva palabra", description = "Agrega una nueva palabra al diccionario con su categoría gramatical.")
@@ -94,18 +202,28 @@ public class PalabraController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPalabra);
     }
 
-    @Operation(summary = "Actualizar una palabra existente", description = "Modifica los datos de una palabra registrada utilizando su ID.")
+    @Operation(summary = "Actualizar una palabra existente", description = "Modifica los datos de una palabra registrada utilizando su ID. Con If-Match y el ETag de /palabras/{id} o /palabras/{id}/condefiniciones solo se actualiza si la palabra sigue en esa versión. Sin If-Match, si otro editor la cambia a la vez se reintenta conservando los campos que solo ha cambiado el otro. La respuesta lleva el ETag de la nueva versión.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Palabra actualizada exitosamente."),
             @ApiResponse(responseCode = "400", description = "Solicitud inválida (ej: término o categoría vacía)."),
             @ApiResponse(responseCode = "404", description = "Palabra no encontrada para el ID proporcionado."),
+            @ApiResponse(responseCode = "409", description = "Otro editor ha cambiado a la vez el mismo campo."),
+            @ApiResponse(responseCode = "412", description = "La palabra ya no está en la versión indicada en If-Match."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @PutMapping("/{id}")
-    public ResponseEntity<Palabra> updatePalabra(@PathVariable Long id, @RequestBody Palabra palabra) throws RecordNotFoundException {
-        Palabra updatedPalabra = palabraService.updatePalabra(id, palabra);
-        return ResponseEntity.status(HttpStatus.OK).body(updatedPalabra);
+    public ResponseEntity<Palabra> updatePalabra(@PathVariable Long id, @RequestBody Palabra palabra,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws RecordNotFoundException {
+        Long versionEsperada = versionIfMatch(ifMatch, id);
+        Palabra updatedPalabra;
+        try {
+            updatedPalabra = palabraService.updatePalabra(id, palabra, versionEsperada);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(versionEsperada != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
+        // El cuerpo es la palabra con sus definiciones: su ETag es el de /palabras/{id}/condefiniciones
+        return ResponseEntity.status(HttpStatus.OK).eTag(etagPalabra("pd", id, updatedPalabra.getVersion())).body(updatedPalabra);
     }
 
     @Operation(summary = "Eliminar una palabra", description = "Borra una palabra del diccionario mediante su ID.")
@@ -121,7 +239,7 @@ public class PalabraController {
         return HttpStatus.ACCEPTED;
     }
 
-    @Operation(summary = "Buscar palabras por categoría gramatical", description = "Busca palabras que pertenecen a una categoría gramatical específica.")
+    @Operation(summary = "Buscar palabras por categoría gramatical", description = "Busca palabras que pertenecen a una categoría gramatical específica. Admite paginación por clave con 'after' y 'limit'.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de palabras obtenida exitosamente."),
             @ApiResponse(responseCode = "400", description = "Categoría gramatical no proporcionada o inválida."),
@@ -129,15 +247,41 @@ public class PalabraController {
     })
     @CrossOrigin
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<List<PalabraDTO>> findByCategoriaGramatical(@PathVariable String categoria) {
-        List<Palabra> palabras = palabraService.findByCategoriaGramatical(categoria);
-        List<PalabraDTO> result = palabras.stream()
-                .map(palabra -> new PalabraDTO(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical()))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(result, new HttpHeaders(), HttpStatus.OK);
+    public ResponseEntity<List<PalabraDTO>> findByCategoriaGramatical(@PathVariable String categoria,
+                                                                      @RequestParam(required = false) Long after,
+                                                                      @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.findByCategoriaGramatical(categoria, after, limit);
+        return new ResponseEntity<>(result, cabecerasPagina(result, PalabraDTO::getId, limit), HttpStatus.OK);
     }
 
-    @Operation(summary = "Buscar palabras que empiezan con un término", description = "Busca palabras cuyo término empiece con una letra específica.")
+    @Operation(summary = "Buscar palabras de varias categorías gramaticales", description = "Busca palabras que pertenecen a cualquiera de las categorías indicadas y, opcionalmente, cuyo término empieza por una letra. Admite paginación por clave con 'after' y 'limit'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de palabras obtenida exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Categorías o letra inicial no proporcionadas o inválidas."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/categoria")
+    public ResponseEntity<List<PalabraDTO>> buscarPorCategorias(@RequestParam List<String> categorias,
+                                                                @RequestParam(required = false) Character inicial,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.buscarPorCategorias(categorias, inicial, after, limit);
+        return new ResponseEntity<>(result, cabecerasPagina(result, PalabraDTO::getId, limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Contar palabras por categoría gramatical", description = "Devuelve el número de palabras de cada categoría gramatical.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Conteos obtenidos exitosamente."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/categorias")
+    public ResponseEntity<Map<String, Integer>> contarPorCategoria() {
+        return new ResponseEntity<>(palabraService.contarPorCategoria(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Buscar palabras que empiezan con un término", description = "Busca palabras cuyo término empiece con una letra específica. Admite paginación por clave con 'after' y 'limit'.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de palabras obtenida exitosamente."),
             @ApiResponse(responseCode = "400", description = "Letra inicial no proporcionada o inválida."),
@@ -145,14 +289,72 @@ public class PalabraController {
     })
     @CrossOrigin
     @GetMapping("/inicio/{inicial}")
-    public ResponseEntity<List<PalabraDTO>> findByTerminoStartingWith(@PathVariable char inicial) {
-        List<Palabra> palabras = palabraService.findByTerminoStartingWith(inicial);
-        List<PalabraDTO> result = palabras.stream()
-                .map(palabra -> new PalabraDTO(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<PalabraDTO>> findByTerminoStartingWith(@PathVariable char inicial,
+                                                                      @RequestParam(required = false) Long after,
+                                                                      @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.findByTerminoStartingWith(inicial, after, limit);
+        return new ResponseEntity<>(result, cabecerasPagina(result, PalabraDTO::getId, limit), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Autocompletar términos", description = "Devuelve las palabras cuyo término empieza por el prefijo indicado, sin distinguir mayúsculas. Se resuelve con un índice en memoria, sin consultar la base de datos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Prefijo no proporcionado o inválido."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/autocompletar")
+    public ResponseEntity<List<PalabraDTO>> autocompletar(@RequestParam String prefijo,
+                                                          @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.autocompletar(prefijo, limit);
+        return new ResponseEntity<>(result, new HttpHeaders(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Buscar palabras por el texto de sus definiciones", description = "Búsqueda de texto completo sobre la descripción y el ejemplo de las definiciones, sin distinguir tildes, mayúsculas, singular/plural ni género, ordenada por relevancia (BM25). Devuelve como mucho un resultado por palabra, con la definición que mejor encaja.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados obtenidos exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Consulta no proporcionada o inválida."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/buscar-en-definiciones")
+    public ResponseEntity<List<ResultadoBusquedaDTO>> buscarEnDefiniciones(@RequestParam String q,
+                                                                           @RequestParam(required = false) Integer limit) {
+        List<ResultadoBusquedaDTO> result = palabraService.buscarEnDefiniciones(q, limit);
         return new ResponseEntity<>(result, new HttpHeaders(), HttpStatus.OK);
     }
 
+    @Operation(summary = "Sugerir palabras parecidas", description = "Devuelve las palabras cuyo término está a una distancia de edición (Levenshtein) no mayor que 'distancia' del indicado, de la más parecida a la menos. Útil para ofrecer \"quizás quiso decir\" cuando una búsqueda no encuentra nada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugerencias obtenidas exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Término o distancia inválidos."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/sugerencias/{termino}")
+    public ResponseEntity<List<PalabraDTO>> sugerencias(@PathVariable String termino,
+                                                        @RequestParam(required = false) Integer distancia,
+                                                        @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.sugerencias(termino, distancia, limit);
+        return new ResponseEntity<>(result, new HttpHeaders(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Buscar palabras por término sin distinguir tildes ni mayúsculas", description = "Devuelve las palabras cuyo término coincide con el indicado ignorando tildes y mayúsculas (la ñ se conserva). Con prefijo=true devuelve las que empiezan por él, paginadas con 'after' y 'limit'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de palabras obtenida exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Término no proporcionado o inválido."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/buscar")
+    public ResponseEntity<List<PalabraDTO>> buscarPorTermino(@RequestParam String termino,
+                                                             @RequestParam(defaultValue = "false") boolean prefijo,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(required = false) Integer limit) {
+        List<PalabraDTO> result = palabraService.buscarPorTermino(termino, prefijo, after, limit);
+        return new ResponseEntity<>(result, cabecerasPagina(result, PalabraDTO::getId, limit), HttpStatus.OK);
+    }
+
     @Operation(summary = "Verificar existencia de una palabra por término", description = "Verifica si una palabra existe en el diccionario usando su término.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Existencia de la palabra verificada exitosamente."),
@@ -166,30 +368,66 @@ public class PalabraController {
         return new ResponseEntity<>(exists, new HttpHeaders(), HttpStatus.OK);
     }
 
-    @Operation(summary = "Exportar diccionario a CSV", description = "Exporta todas las palabras y sus definiciones a un formato CSV.")
+    @Operation(summary = "Exportar diccionario a CSV", description = "Exporta todas las palabras y sus definiciones a un formato CSV (RFC 4180). La respuesta se transmite por partes y se comprime con gzip si el cliente lo acepta.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Diccionario exportado exitosamente."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping("/exportar")
-    public ResponseEntity<String> exportarDiccionario() {
-        String csvContent = palabraService.exportarDiccionario();
+    public ResponseEntity<StreamingResponseBody> exportarDiccionario(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = aceptaGzip(acceptEncoding);
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "attachment; filename=diccionario.csv");
-        return new ResponseEntity<>(csvContent, headers, HttpStatus.OK);
+        headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 8192);
+            palabraService.exportarDiccionario(writer);
+        };
+        return new ResponseEntity<>(conGzip(gzip, body), headers, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Importar un diccionario", description = "Carga masiva de palabras desde CSV con el mismo formato que la exportación (text/csv) o desde NDJSON con una palabra en JSON por línea (application/x-ndjson). Admite cuerpo comprimido con Content-Encoding: gzip. Los términos que ya existen se omiten; 'lote' fija cuántas palabras se escriben por transacción. Devuelve un informe con los registros leídos, creados, omitidos y los errores por línea.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación terminada; el informe indica el resultado de cada registro."),
+            @ApiResponse(responseCode = "415", description = "Formato no admitido."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @PostMapping(value = "/importar", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<InformeImportacionDTO> importarDiccionario(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                     @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                                     @RequestParam(required = false) Integer lote,
+                                                                     InputStream cuerpo) throws IOException {
+        InputStream origen = contentEncoding != null && contentEncoding.toLowerCase().contains("gzip") ? new GZIPInputStream(cuerpo, 8192) : cuerpo;
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        Reader reader = new BufferedReader(new InputStreamReader(origen, charset), 8192);
+        InformeImportacionDTO informe = contentType.getSubtype().equalsIgnoreCase("csv")
+                ? importacionService.importarCsv(reader, lote)
+                : importacionService.importarNdjson(reader, lote);
+        return new ResponseEntity<>(informe, new HttpHeaders(), HttpStatus.OK);
     }
 
     @Operation(summary = "Obtener estadísticas del diccionario", description = "Obtiene estadísticas sobre el total de palabras, definiciones y categorías gramaticales en el diccionario.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas exitosamente."),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match."),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
     })
     @CrossOrigin
     @GetMapping("/estadisticas")
-    public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticas(WebRequest request) {
+        // Con la versión de las estadísticas, no la del diccionario, que puede ir por delante.
+        // Se lee antes que las estadísticas: estas pueden ser más nuevas, nunca más antiguas
+        if (request.checkNotModified(VersionDiccionario.etag(palabraService.getVersionEstadisticas(), "-est"))) {
+            return null;
+        }
         Map<String, Object> estadisticas = palabraService.obtenerEstadisticas();
-        return new ResponseEntity<>(estadisticas, new HttpHeaders(), HttpStatus.OK);
+        return new ResponseEntity<>(estadisticas, cabecerasRevalidar(), HttpStatus.OK);
     }
 
     @Operation(summary = "Registrar una nueva palabra con definiciones", description = "Agrega una nueva palabra al diccionario junto con sus definiciones.")
@@ -232,6 +470,22 @@ public class PalabraController {
         return ResponseEntity.status(HttpStatus.OK).body(updatedPalabra);
     }
 
+    @Operation(summary = "Agregar una definición con escritura diferida", description = "Encola la definición para escribirla por lotes junto con otras, sin cargar la palabra (diccionario.definiciones.diferidas.activa). Por defecto responde 202 en cuanto la definición está en cola: todavía no es duradera, se perdería si el servidor se detiene de forma abrupta y aparecerá en /palabras/cambios al escribirse. Con 'confirmar' espera a que se confirme su lote y responde 201 con el id de la definición, o 202 si no se confirma a tiempo. Si la escritura diferida no está activada se escribe en el momento y se responde 201.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Definición escrita."),
+            @ApiResponse(responseCode = "202", description = "Definición en cola, pendiente de escribir."),
+            @ApiResponse(responseCode = "400", description = "Solicitud inválida (ej: descripción vacía)."),
+            @ApiResponse(responseCode = "404", description = "Palabra no encontrada para el ID proporcionado."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor o cola de definiciones llena.")
+    })
+    @CrossOrigin
+    @PostMapping("/{id}/definiciones/diferidas")
+    public ResponseEntity<EscrituraDiferidaDTO> addDefinicionDiferida(@PathVariable Long id, @RequestBody Definicion definicion,
+                                                                      @RequestParam(defaultValue = "false") boolean confirmar) throws RecordNotFoundException {
+        EscrituraDiferidaDTO escritura = definicionesDiferidas.agregar(id, definicion, confirmar);
+        return ResponseEntity.status(escritura.isConfirmada() ? HttpStatus.CREATED : HttpStatus.ACCEPTED).body(escritura);
+    }
+
     @Operation(summary = "Obtener todas las definiciones de una palabra", description = "Devuelve una lista de todas las definiciones asociadas a una palabra específica a partir de su ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de definiciones obtenida exitosamente."),
@@ -244,4 +498,138 @@ public class PalabraController {
         List<Definicion> definiciones = palabraService.getDefinicionesByPalabraId(id);
         return new ResponseEntity<>(definiciones, new HttpHeaders(), HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Obtener los cambios del diccionario", description = "Devuelve, en orden, los cambios confirmados con seq mayor que 'desde': altas, modificaciones y bajas de palabras (con su término y categoría, para aplicarlos como alta o sustitución) y definiciones agregadas o eliminadas. 'hasta' es el valor de 'desde' para la siguiente petición y 'hayMas' indica que hay más cambios pendientes. Sin 'desde' solo devuelve 'hasta', para empezar a sincronizar antes de descargar el diccionario completo. Con compactar=true (por defecto) se omiten los cambios que otros posteriores de la misma página dejan sin efecto.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cambios obtenidos exitosamente."),
+            @ApiResponse(responseCode = "400", description = "Valor de 'desde' o 'limit' inválido."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping("/cambios")
+    public ResponseEntity<RespuestaCambiosDTO> getCambios(@RequestParam(required = false) Long desde,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(defaultValue = "true") boolean compactar) {
+        RespuestaCambiosDTO cambios = registroCambios.getCambios(desde, limit, compactar);
+        return new ResponseEntity<>(cambios, new HttpHeaders(), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Recibir los cambios del diccionario en tiempo real", description = "Flujo Server-Sent Events con un evento 'cambio' por cada cambio confirmado, con su seq como id. Empieza después de 'desde' o de la cabecera Last-Event-ID al reconectar; sin ninguno de los dos, con los cambios que se produzcan a partir de ahora.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de cambios abierto."),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor.")
+    })
+    @CrossOrigin
+    @GetMapping(value = "/cambios/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCambios(@RequestParam(required = false) Long desde,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        return difusionCambios.suscribir(ultimoEvento != null ? ultimoEvento : desde);
+    }
+
+    // Accept-Encoding con sus pesos: "gzip;q=0" lo rechaza y "*" vale para gzip si no aparece por su nombre
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double comodin = null;
+        for (String parte : acceptEncoding.split(",")) {
+            String[] campos = parte.split(";");
+            String codificacion = campos[0].trim().toLowerCase();
+            double peso = 1;
+            for (int i = 1; i < campos.length; i++) {
+                String parametro = campos[i].trim();
+                if (parametro.length() > 2 && parametro.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        peso = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        peso = 0;
+                    }
+                }
+            }
+            if (codificacion.equals("gzip") || codificacion.equals("x-gzip")) {
+                return peso > 0;
+            }
+            if (codificacion.equals("*")) {
+                comodin = peso;
+            }
+        }
+        return comodin != null && comodin > 0;
+    }
+
+    private static StreamingResponseBody conGzip(boolean gzip, StreamingResponseBody body) {
+        if (!gzip) {
+            return body;
+        }
+        return outputStream -> {
+            GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+            body.writeTo(gzipOutputStream);
+            gzipOutputStream.finish();
+        };
+    }
+
+    // Responde 304 sin consultar nada si el cliente ya tiene la versión actual del diccionario.
+    // Si no, deja puesto el ETag para la respuesta completa, que con réplicas
+    // solo puede leerse en una al día: una retrasada daría datos antiguos con la versión nueva.
+    private boolean diccionarioSinCambios(WebRequest request) {
+        return diccionarioSinCambios(request, versionDiccionario.etag());
+    }
+
+    private boolean diccionarioSinCambios(WebRequest request, String etag) {
+        if (request.checkNotModified(etag)) {
+            return true;
+        }
+        ConsistenciaLecturas.exigir(ConsistenciaLecturas.AL_DIA);
+        return false;
+    }
+
+    // La palabra viene de la caché, así que el 304 tampoco llega al repositorio
+    private static boolean palabraSinCambios(WebRequest request, String prefijo, Long id, Long version) {
+        return version != null && request.checkNotModified(etagPalabra(prefijo, id, version));
+    }
+
+    private static String etagPalabra(String prefijo, Long id, Long version) {
+        return "\"" + prefijo + id + "-" + version + "\"";
+    }
+
+    // Versión que exige If-Match: la de un ETag de esta palabra con o sin definiciones, que dependen de la
+    // misma versión. Sin cabecera o con '*' no se exige ninguna; si ninguna etiqueta es de esta palabra,
+    // una que no puede cumplirse. Las etiquetas débiles no valen: If-Match usa la comparación fuerte.
+    private static Long versionIfMatch(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        for (String etiqueta : ifMatch.split(",")) {
+            etiqueta = etiqueta.trim();
+            for (String prefijo : List.of("\"p" + id + "-", "\"pd" + id + "-")) {
+                if (etiqueta.startsWith(prefijo) && etiqueta.endsWith("\"") && etiqueta.length() > prefijo.length() + 1) {
+                    try {
+                        return Long.parseLong(etiqueta.substring(prefijo.length(), etiqueta.length() - 1));
+                    } catch (NumberFormatException e) {
+                        // No es una de nuestras etiquetas
+                    }
+                }
+            }
+        }
+        return VERSION_IMPOSIBLE;
+    }
+
+    // El cliente puede guardar la respuesta, pero debe revalidarla con el ETag antes de usarla
+    private static HttpHeaders cabecerasRevalidar() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache());
+        return headers;
+    }
+
+    // Si la página está completa se anuncia la siguiente con una cabecera Link (RFC 8288)
+    private static <T> HttpHeaders cabecerasPagina(List<T> pagina, Function<T, Long> id, Integer limit) {
+        HttpHeaders headers = cabecerasRevalidar();
+        if (!pagina.isEmpty() && pagina.size() >= PalabraService.tamanoPagina(limit)) {
+            Long ultimoId = id.apply(pagina.get(pagina.size() - 1));
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", ultimoId)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
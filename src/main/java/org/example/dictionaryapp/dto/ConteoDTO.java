@@ -0,0 +1,19 @@
+package org.example.dictionaryapp.dto;
+
+public class ConteoDTO<K> {
+    private K clave;
+    private Long total;
+
+    public ConteoDTO(K clave, Long total) {
+        this.clave = clave;
+        this.total = total;
+    }
+
+    public K getClave() {
+        return clave;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
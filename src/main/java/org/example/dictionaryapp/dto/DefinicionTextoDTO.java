@@ -0,0 +1,31 @@
+package org.example.dictionaryapp.dto;
+
+public class DefinicionTextoDTO {
+    private Long id;
+    private Long palabraId;
+    private String descripcion;
+    private String ejemplo;
+
+    public DefinicionTextoDTO(Long id, Long palabraId, String descripcion, String ejemplo) {
+        this.id = id;
+        this.palabraId = palabraId;
+        this.descripcion = descripcion;
+        this.ejemplo = ejemplo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.dictionaryapp.dto;
+
+// Respuesta al agregar una definición con escritura diferida. Mientras no está confirmada no tiene id
+// y solo está en memoria; pendientes es el número de definiciones en cola al responder.
+public class EscrituraDiferidaDTO {
+    private final Long palabraId;
+    private final Long definicionId;
+    private final String descripcion;
+    private final String ejemplo;
+    private final boolean confirmada;
+    private final int pendientes;
+
+    public EscrituraDiferidaDTO(Long palabraId, Long definicionId, String descripcion, String ejemplo,
+                                boolean confirmada, int pendientes) {
+        this.palabraId = palabraId;
+        this.definicionId = definicionId;
+        this.descripcion = descripcion;
+        this.ejemplo = ejemplo;
+        this.confirmada = confirmada;
+        this.pendientes = pendientes;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public Long getDefinicionId() {
+        return definicionId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+
+    public boolean isConfirmada() {
+        return confirmada;
+    }
+
+    public int getPendientes() {
+        return pendientes;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.dictionaryapp.dto;
+
+// Fila de la descarga binaria: una por definición, o una sin definición para las palabras que no tienen
+public class FilaDiccionarioDTO {
+    private Long palabraId;
+    private String termino;
+    private String categoriaGramatical;
+    private Long version;
+    private Long definicionId;
+    private String descripcion;
+    private String ejemplo;
+
+    public FilaDiccionarioDTO(Long palabraId, String termino, String categoriaGramatical, Long version,
+                              Long definicionId, String descripcion, String ejemplo) {
+        this.palabraId = palabraId;
+        this.termino = termino;
+        this.categoriaGramatical = categoriaGramatical;
+        this.version = version;
+        this.definicionId = definicionId;
+        this.descripcion = descripcion;
+        this.ejemplo = ejemplo;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getTermino() {
+        return termino;
+    }
+
+    public String getCategoriaGramatical() {
+        return categoriaGramatical;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getDefinicionId() {
+        return definicionId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+}
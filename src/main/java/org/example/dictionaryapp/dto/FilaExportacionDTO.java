@@ -0,0 +1,31 @@
+package org.example.dictionaryapp.dto;
+
+public class FilaExportacionDTO {
+    private Long palabraId;
+    private String termino;
+    private String categoriaGramatical;
+    private String descripcion;
+
+    public FilaExportacionDTO(Long palabraId, String termino, String categoriaGramatical, String descripcion) {
+        this.palabraId = palabraId;
+        this.termino = termino;
+        this.categoriaGramatical = categoriaGramatical;
+        this.descripcion = descripcion;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getTermino() {
+        return termino;
+    }
+
+    public String getCategoriaGramatical() {
+        return categoriaGramatical;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.dictionaryapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InformeImportacionDTO {
+
+    public static final int MAXIMO_ERRORES_DETALLADOS = 100;
+
+    private long registrosLeidos;
+    private long palabrasCreadas;
+    private long definicionesCreadas;
+    private long palabrasOmitidas;
+    private long totalErrores;
+    private int lotes;
+    private long duracionMs;
+    private final List<String> errores = new ArrayList<>();
+
+    public void registroLeido() {
+        registrosLeidos++;
+    }
+
+    public void palabraCreada(int definiciones) {
+        palabrasCreadas++;
+        definicionesCreadas += definiciones;
+    }
+
+    public void palabraOmitida() {
+        palabrasOmitidas++;
+    }
+
+    // Solo se detallan los primeros errores; el resto se cuenta
+    public void error(long linea, String mensaje) {
+        totalErrores++;
+        if (errores.size() < MAXIMO_ERRORES_DETALLADOS) {
+            errores.add("Línea " + linea + ": " + mensaje);
+        }
+    }
+
+    public void loteEscrito() {
+        lotes++;
+    }
+
+    public long getRegistrosLeidos() {
+        return registrosLeidos;
+    }
+
+    public long getPalabrasCreadas() {
+        return palabrasCreadas;
+    }
+
+    public long getDefinicionesCreadas() {
+        return definicionesCreadas;
+    }
+
+    public long getPalabrasOmitidas() {
+        return palabrasOmitidas;
+    }
+
+    public long getTotalErrores() {
+        return totalErrores;
+    }
+
+    public int getLotes() {
+        return lotes;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public List<String> getErrores() {
+        return errores;
+    }
+}
@@ -1,16 +1,29 @@
 package org.example.dictionaryapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.dictionaryapp.model.Palabra;
+
 public class PalabraDTO {
     private Long id;
     private String termino;
     private String categoriaGramatical;
 
+    // Solo para el ETag de /palabras/{id}; las consultas de listados no la cargan
+    @JsonIgnore
+    private Long version;
+
     public PalabraDTO(Long id, String termino, String categoriaGramatical) {
         this.id = id;
         this.termino = termino;
         this.categoriaGramatical = categoriaGramatical;
     }
 
+    public static PalabraDTO de(Palabra palabra) {
+        PalabraDTO dto = new PalabraDTO(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical());
+        dto.version = palabra.getVersion();
+        return dto;
+    }
+
     public Long getId() {
         return id;
     }
@@ -23,6 +36,10 @@ public class PalabraDTO {
         return categoriaGramatical;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
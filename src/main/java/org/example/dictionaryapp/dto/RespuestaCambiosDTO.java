@@ -0,0 +1,30 @@
+package org.example.dictionaryapp.dto;
+
+import org.example.dictionaryapp.model.Cambio;
+
+import java.util.List;
+
+// hasta es el seq que el cliente debe enviar como 'desde' en la siguiente petición
+public class RespuestaCambiosDTO {
+    private final List<Cambio> cambios;
+    private final long hasta;
+    private final boolean hayMas;
+
+    public RespuestaCambiosDTO(List<Cambio> cambios, long hasta, boolean hayMas) {
+        this.cambios = cambios;
+        this.hasta = hasta;
+        this.hayMas = hayMas;
+    }
+
+    public List<Cambio> getCambios() {
+        return cambios;
+    }
+
+    public long getHasta() {
+        return hasta;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+}
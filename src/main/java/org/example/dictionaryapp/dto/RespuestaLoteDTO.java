@@ -0,0 +1,24 @@
+package org.example.dictionaryapp.dto;
+
+import org.example.dictionaryapp.model.Palabra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RespuestaLoteDTO {
+    private final List<Palabra> palabras = new ArrayList<>();
+    private final List<Long> idsNoEncontrados = new ArrayList<>();
+    private final List<String> terminosNoEncontrados = new ArrayList<>();
+
+    public List<Palabra> getPalabras() {
+        return palabras;
+    }
+
+    public List<Long> getIdsNoEncontrados() {
+        return idsNoEncontrados;
+    }
+
+    public List<String> getTerminosNoEncontrados() {
+        return terminosNoEncontrados;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.dictionaryapp.dto;
+
+public class ResultadoBusquedaDTO {
+    private Long palabraId;
+    private String termino;
+    private String categoriaGramatical;
+    private Long definicionId;
+    private String descripcion;
+    private String ejemplo;
+    private double puntuacion;
+
+    public ResultadoBusquedaDTO(Long palabraId, String termino, String categoriaGramatical, Long definicionId, String descripcion, String ejemplo) {
+        this.palabraId = palabraId;
+        this.termino = termino;
+        this.categoriaGramatical = categoriaGramatical;
+        this.definicionId = definicionId;
+        this.descripcion = descripcion;
+        this.ejemplo = ejemplo;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getTermino() {
+        return termino;
+    }
+
+    public String getCategoriaGramatical() {
+        return categoriaGramatical;
+    }
+
+    public Long getDefinicionId() {
+        return definicionId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+
+    public double getPuntuacion() {
+        return puntuacion;
+    }
+
+    public void setPuntuacion(double puntuacion) {
+        this.puntuacion = puntuacion;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.dictionaryapp.dto;
+
+import java.util.List;
+
+public class SolicitudLoteDTO {
+    private List<Long> ids;
+    private List<String> terminos;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getTerminos() {
+        return terminos;
+    }
+
+    public void setTerminos(List<String> terminos) {
+        this.terminos = terminos;
+    }
+}
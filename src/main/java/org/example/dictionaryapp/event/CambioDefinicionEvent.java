@@ -0,0 +1,48 @@
+package org.example.dictionaryapp.event;
+
+// Se publica al agregar o eliminar una Definicion de una Palabra existente.
+// numeroDefiniciones es el total de definiciones de la palabra después del cambio.
+public class CambioDefinicionEvent {
+
+    public enum Tipo { AGREGADA, ELIMINADA }
+
+    private final Tipo tipo;
+    private final Long definicionId;
+    private final Long palabraId;
+    private final String descripcion;
+    private final String ejemplo;
+    private final int numeroDefiniciones;
+
+    public CambioDefinicionEvent(Tipo tipo, Long definicionId, Long palabraId, String descripcion, String ejemplo, int numeroDefiniciones) {
+        this.tipo = tipo;
+        this.definicionId = definicionId;
+        this.palabraId = palabraId;
+        this.descripcion = descripcion;
+        this.ejemplo = ejemplo;
+        this.numeroDefiniciones = numeroDefiniciones;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getDefinicionId() {
+        return definicionId;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+
+    public int getNumeroDefiniciones() {
+        return numeroDefiniciones;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.dictionaryapp.event;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+
+// Se publica tras cada alta, modificación o baja de una Palabra.
+// anterior es null en las altas y actual es null en las bajas.
+public class CambioPalabraEvent {
+
+    public enum Tipo { CREADA, ACTUALIZADA, ELIMINADA }
+
+    private final Tipo tipo;
+    private final PalabraDTO anterior;
+    private final PalabraDTO actual;
+    private final int numeroDefiniciones;
+
+    public CambioPalabraEvent(Tipo tipo, PalabraDTO anterior, PalabraDTO actual, int numeroDefiniciones) {
+        this.tipo = tipo;
+        this.anterior = anterior;
+        this.actual = actual;
+        this.numeroDefiniciones = numeroDefiniciones;
+    }
+
+    public static CambioPalabraEvent creada(PalabraDTO actual, int numeroDefiniciones) {
+        return new CambioPalabraEvent(Tipo.CREADA, null, actual, numeroDefiniciones);
+    }
+
+    public static CambioPalabraEvent actualizada(PalabraDTO anterior, PalabraDTO actual, int numeroDefiniciones) {
+        return new CambioPalabraEvent(Tipo.ACTUALIZADA, anterior, actual, numeroDefiniciones);
+    }
+
+    public static CambioPalabraEvent eliminada(PalabraDTO anterior, int numeroDefiniciones) {
+        return new CambioPalabraEvent(Tipo.ELIMINADA, anterior, null, numeroDefiniciones);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getPalabraId() {
+        return actual != null ? actual.getId() : anterior.getId();
+    }
+
+    public PalabraDTO getAnterior() {
+        return anterior;
+    }
+
+    public PalabraDTO getActual() {
+        return actual;
+    }
+
+    public int getNumeroDefiniciones() {
+        return numeroDefiniciones;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.dictionaryapp.event;
+
+// Transacción confirmada que escribió en el registro de cambios, propia u otra instancia. seq es su mayor seq;
+// primero, el menor si es propia y si no 0.
+public class CambiosConfirmadosEvent {
+
+    private final long seq;
+    private final long primero;
+
+    public CambiosConfirmadosEvent(long seq) {
+        this(seq, 0);
+    }
+
+    public CambiosConfirmadosEvent(long seq, long primero) {
+        this.seq = seq;
+        this.primero = primero;
+    }
+
+    public static CambiosConfirmadosEvent propios(long primero, long ultimo) {
+        return new CambiosConfirmadosEvent(ultimo, primero);
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getPrimero() {
+        return primero;
+    }
+
+    public boolean isPropio() {
+        return primero > 0;
+    }
+}
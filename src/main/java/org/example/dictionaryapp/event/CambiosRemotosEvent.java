@@ -0,0 +1,29 @@
+package org.example.dictionaryapp.event;
+
+import org.example.dictionaryapp.model.Cambio;
+
+import java.util.List;
+
+// Cambios confirmados por otras instancias, en orden de seq y sin los que dejan sin efecto otros
+// posteriores (CambiosRemotos). Las cachés e índices en memoria los aplican como los eventos de sus
+// propios cambios. Si son demasiados para aplicarlos uno a uno, cambios es null y hay que recargarlos.
+public class CambiosRemotosEvent {
+
+    private final List<Cambio> cambios;
+
+    public CambiosRemotosEvent(List<Cambio> cambios) {
+        this.cambios = cambios;
+    }
+
+    public static CambiosRemotosEvent recargar() {
+        return new CambiosRemotosEvent(null);
+    }
+
+    public List<Cambio> getCambios() {
+        return cambios;
+    }
+
+    public boolean isRecargar() {
+        return cambios == null;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.dictionaryapp.event;
+
+// Se publica al terminar una importación masiva que ha creado palabras. En lugar de un evento
+// por palabra, los índices en memoria se reconstruyen una sola vez al recibirlo.
+public class ImportacionCompletadaEvent {
+
+    private final long palabrasCreadas;
+    private final long definicionesCreadas;
+
+    public ImportacionCompletadaEvent(long palabrasCreadas, long definicionesCreadas) {
+        this.palabrasCreadas = palabrasCreadas;
+        this.definicionesCreadas = definicionesCreadas;
+    }
+
+    public long getPalabrasCreadas() {
+        return palabrasCreadas;
+    }
+
+    public long getDefinicionesCreadas() {
+        return definicionesCreadas;
+    }
+}
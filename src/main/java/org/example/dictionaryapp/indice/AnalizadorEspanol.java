@@ -0,0 +1,81 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.util.Normalizador;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Convierte un texto en los términos que se indexan: normaliza (minúsculas, sin tildes, con ñ),
+// parte por todo lo que no sea letra o dígito, descarta palabras vacías y aplica un stemming
+// ligero que solo quita plural y género, para no mezclar palabras con significados distintos.
+final class AnalizadorEspanol {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "algo", "ante", "antes", "aqui", "asi", "aun", "bajo", "bien", "cada", "como", "con",
+            "contra", "cual", "cuando", "de", "del", "desde", "donde", "durante", "e", "el", "ella", "ellas",
+            "ellos", "en", "entre", "era", "es", "esa", "esas", "ese", "eso", "esos", "esta", "estan", "estas",
+            "este", "esto", "estos", "fue", "ha", "hace", "hacia", "han", "hasta", "hay", "la", "las", "le",
+            "les", "lo", "los", "mas", "me", "mi", "muy", "ni", "no", "nos", "o", "otra", "otro", "para", "pero",
+            "poco", "por", "que", "se", "segun", "ser", "si", "sin", "sobre", "son", "su", "sus", "tambien",
+            "tan", "te", "tiene", "todo", "tras", "tu", "u", "un", "una", "uno", "unos", "unas", "y", "ya", "yo");
+
+    private AnalizadorEspanol() {
+    }
+
+    static List<String> analizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        String normalizado = Normalizador.normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean letra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (letra && inicio < 0) {
+                inicio = i;
+            } else if (!letra && inicio >= 0) {
+                String token = normalizado.substring(inicio, i);
+                if (!PALABRAS_VACIAS.contains(token)) {
+                    terminos.add(raiz(token));
+                }
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+
+    // Stemming ligero para español: quita el plural y después la -o/-a/-e final, de modo que
+    // singular y plural dan la misma raíz ("gato", "gatos" y "gata" -> "gat"). Los umbrales dejan
+    // enteras las palabras cortas ("mes", "ojo", "pie").
+    static String raiz(String token) {
+        String singular = singular(token);
+        int n = singular.length();
+        if (n < 4) {
+            return singular;
+        }
+        char ultima = singular.charAt(n - 1);
+        if (ultima == 'o' || ultima == 'a' || ultima == 'e') {
+            return singular.substring(0, n - 1);
+        }
+        return singular;
+    }
+
+    private static String singular(String token) {
+        int n = token.length();
+        if (n < 4 || token.charAt(n - 1) != 's') {
+            return token;
+        }
+        if (token.endsWith("eses")) {
+            return token.substring(0, n - 2);
+        }
+        if (token.endsWith("ces")) {
+            return token.substring(0, n - 3) + "z";
+        }
+        char penultima = token.charAt(n - 2);
+        if (penultima == 'o' || penultima == 'a' || penultima == 'e') {
+            return token.substring(0, n - 1);
+        }
+        return token;
+    }
+}
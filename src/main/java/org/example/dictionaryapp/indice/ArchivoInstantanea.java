@@ -0,0 +1,542 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.FilaDiccionarioDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.util.Normalizador;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Copia inmutable del diccionario en un fichero proyectado en memoria; solo lecturas absolutas, así que admite varios hilos.
+//   cabecera (64 bytes) | registros de palabra con sus definiciones | categorías | palabras (16 bytes, por id)
+//   | términos y normalizados (número de palabra, por orden de bytes UTF-8) | definiciones (16 bytes, por id)
+// Textos: int con la longitud en bytes (-1 = nulo) y los bytes UTF-8. Máximo 2 GB, lo que admite un MappedByteBuffer.
+public final class ArchivoInstantanea {
+
+    private static final int MAGIA = 0x44494349;
+    private static final int FORMATO = 1;
+    private static final int TAMANO_CABECERA = 64;
+    private static final int TAMANO_ENTRADA = 16;
+
+    private final ByteBuffer datos;
+    private final long seq;
+    private final int palabras;
+    private final int definiciones;
+    private final String[] categorias;
+    private final int posPalabras;
+    private final int posTerminos;
+    private final int posNormalizados;
+    private final int posDefiniciones;
+
+    private ArchivoInstantanea(ByteBuffer datos) throws IOException {
+        this.datos = datos;
+        if (datos.capacity() < TAMANO_CABECERA || datos.getInt(0) != MAGIA || datos.getInt(4) != FORMATO) {
+            throw new IOException("No es una instantánea del diccionario o el formato no es compatible");
+        }
+        seq = datos.getLong(8);
+        palabras = datos.getInt(16);
+        definiciones = datos.getInt(20);
+        categorias = new String[datos.getInt(24)];
+        int posicion = datos.getInt(28);
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = texto(posicion);
+            posicion += longitudTexto(posicion);
+        }
+        posPalabras = datos.getInt(32);
+        posTerminos = datos.getInt(36);
+        posNormalizados = datos.getInt(40);
+        posDefiniciones = datos.getInt(44);
+    }
+
+    public static ArchivoInstantanea abrir(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            // La proyección sigue siendo válida después de cerrar el canal
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new ArchivoInstantanea(datos);
+        }
+    }
+
+    // Las filas deben llegar en orden de id de palabra y, dentro de cada una, de definición
+    public static void escribir(Path ruta, Iterator<FilaDiccionarioDTO> filas, long seq) throws IOException {
+        Constructor constructor;
+        try (Contador contador = new Contador(new BufferedOutputStream(Files.newOutputStream(ruta), 65536));
+             DataOutputStream out = new DataOutputStream(contador)) {
+            constructor = new Constructor(contador);
+            out.write(new byte[TAMANO_CABECERA]);
+            constructor.escribirRegistros(out, filas);
+            constructor.escribirIndices(out);
+            constructor.posicion();
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.write(constructor.cabecera(seq), 0);
+            canal.force(false);
+        }
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public int getPalabras() {
+        return palabras;
+    }
+
+    public int getDefiniciones() {
+        return definiciones;
+    }
+
+    public List<PalabraDTO> pagina(long after, int limit) {
+        List<PalabraDTO> resultado = new ArrayList<>();
+        for (int i = siguiente(after); i < palabras && resultado.size() < limit; i++) {
+            resultado.add(dto(i));
+        }
+        return resultado;
+    }
+
+    public List<Palabra> paginaConDefiniciones(long after, int limit) {
+        List<Palabra> resultado = new ArrayList<>();
+        for (int i = siguiente(after); i < palabras && resultado.size() < limit; i++) {
+            resultado.add(palabra(i));
+        }
+        return resultado;
+    }
+
+    // Para recorrer el diccionario entero sin tenerlo todo a la vez en memoria
+    public Iterator<Palabra> palabrasDesde(long after) {
+        return new Iterator<>() {
+            private int i = siguiente(after);
+
+            @Override
+            public boolean hasNext() {
+                return i < palabras;
+            }
+
+            @Override
+            public Palabra next() {
+                if (i >= palabras) {
+                    throw new NoSuchElementException();
+                }
+                return palabra(i++);
+            }
+        };
+    }
+
+    public Palabra palabraConDefiniciones(long id) {
+        int i = buscar(posPalabras, palabras, id);
+        return i < 0 ? null : palabra(i);
+    }
+
+    public PalabraDTO palabra(long id) {
+        int i = buscar(posPalabras, palabras, id);
+        if (i < 0) {
+            return null;
+        }
+        Palabra palabra = new Palabra();
+        int registro = registro(i);
+        palabra.setId(id);
+        palabra.setVersion(version(registro));
+        palabra.setTermino(texto(registro + 8));
+        palabra.setCategoriaGramatical(categoria(i));
+        return PalabraDTO.de(palabra);
+    }
+
+    public boolean existe(String termino) {
+        byte[] clave = termino.getBytes(StandardCharsets.UTF_8);
+        int i = limiteInferior(posTerminos, 8, clave);
+        return i < palabras && comparar(textoDe(posTerminos, 8, i), clave, false) == 0;
+    }
+
+    // Con prefijo, las palabras cuyo término normalizado empieza por la clave; sin él, las que la
+    // tienen exactamente. En orden de id, como las consultas equivalentes.
+    public List<PalabraDTO> porNormalizado(String clave, boolean prefijo, long after, int limit) {
+        byte[] bytes = clave.getBytes(StandardCharsets.UTF_8);
+        List<Integer> encontradas = new ArrayList<>();
+        for (int i = limiteInferior(posNormalizados, -1, bytes); i < palabras; i++) {
+            if (comparar(textoDe(posNormalizados, -1, i), bytes, prefijo) != 0) {
+                break;
+            }
+            encontradas.add(datos.getInt(posNormalizados + 4 * i));
+        }
+        Collections.sort(encontradas);
+        List<PalabraDTO> resultado = new ArrayList<>();
+        for (int palabra : encontradas) {
+            if (resultado.size() >= limit) {
+                break;
+            }
+            if (id(palabra) > after) {
+                resultado.add(dto(palabra));
+            }
+        }
+        return resultado;
+    }
+
+    public List<ResultadoBusquedaDTO> resultados(Collection<Long> definicionIds) {
+        List<ResultadoBusquedaDTO> resultado = new ArrayList<>();
+        for (long definicionId : definicionIds) {
+            int d = buscar(posDefiniciones, definiciones, definicionId);
+            if (d < 0) {
+                continue;
+            }
+            int entrada = posDefiniciones + d * TAMANO_ENTRADA;
+            int palabra = datos.getInt(entrada + 8);
+            int posicion = datos.getInt(entrada + 12);
+            String descripcion = texto(posicion + 8);
+            String ejemplo = texto(posicion + 8 + longitudTexto(posicion + 8));
+            resultado.add(new ResultadoBusquedaDTO(id(palabra), texto(registro(palabra) + 8), categoria(palabra),
+                    definicionId, descripcion, ejemplo));
+        }
+        return resultado;
+    }
+
+    private PalabraDTO dto(int i) {
+        return new PalabraDTO(id(i), texto(registro(i) + 8), categoria(i));
+    }
+
+    private Palabra palabra(int i) {
+        int posicion = registro(i);
+        Palabra palabra = new Palabra();
+        palabra.setId(id(i));
+        palabra.setVersion(version(posicion));
+        posicion += 8;
+        palabra.setTermino(texto(posicion));
+        posicion += longitudTexto(posicion);
+        posicion += longitudTexto(posicion);
+        palabra.setCategoriaGramatical(categoria(i));
+        int total = datos.getInt(posicion);
+        posicion += 4;
+        List<Definicion> lista = new ArrayList<>(total);
+        for (int d = 0; d < total; d++) {
+            Definicion definicion = new Definicion();
+            definicion.setId(datos.getLong(posicion));
+            posicion += 8;
+            definicion.setDescripcion(texto(posicion));
+            posicion += longitudTexto(posicion);
+            definicion.setEjemplo(texto(posicion));
+            posicion += longitudTexto(posicion);
+            lista.add(definicion);
+        }
+        palabra.setDefiniciones(lista);
+        return palabra;
+    }
+
+    private int entrada(int i) {
+        return posPalabras + i * TAMANO_ENTRADA;
+    }
+
+    private long id(int i) {
+        return datos.getLong(entrada(i));
+    }
+
+    private int registro(int i) {
+        return datos.getInt(entrada(i) + 8);
+    }
+
+    private String categoria(int i) {
+        int categoria = datos.getInt(entrada(i) + 12);
+        return categoria < 0 ? null : categorias[categoria];
+    }
+
+    private Long version(int registro) {
+        long version = datos.getLong(registro);
+        return version < 0 ? null : version;
+    }
+
+    // Primera palabra con id mayor que 'after'
+    private int siguiente(long after) {
+        int desde = 0;
+        int hasta = palabras;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (id(medio) <= after) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    // Búsqueda binaria en una tabla de entradas de 16 bytes que empiezan por el id
+    private int buscar(int tabla, int tamano, long id) {
+        int desde = 0;
+        int hasta = tamano - 1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            long actual = datos.getLong(tabla + medio * TAMANO_ENTRADA);
+            if (actual < id) {
+                desde = medio + 1;
+            } else if (actual > id) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    // Posición del texto por el que está ordenada la i-ésima entrada de una tabla de términos: el
+    // término (a 8 bytes del registro, tras la versión) o, con desplazamiento -1, el normalizado
+    private int textoDe(int tabla, int desplazamiento, int i) {
+        int posicion = registro(datos.getInt(tabla + 4 * i)) + 8;
+        return desplazamiento < 0 ? posicion + longitudTexto(posicion) : posicion;
+    }
+
+    private int limiteInferior(int tabla, int desplazamiento, byte[] clave) {
+        int desde = 0;
+        int hasta = palabras;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (comparar(textoDe(tabla, desplazamiento, medio), clave, false) < 0) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    // Compara el texto guardado en 'posicion' con la clave byte a byte, sin copiarlo. Con prefijo,
+    // un texto que empieza por la clave cuenta como igual.
+    private int comparar(int posicion, byte[] clave, boolean prefijo) {
+        int longitud = datos.getInt(posicion);
+        if (longitud < 0) {
+            return -1;
+        }
+        int comunes = Math.min(longitud, clave.length);
+        for (int i = 0; i < comunes; i++) {
+            int diferencia = Byte.toUnsignedInt(datos.get(posicion + 4 + i)) - Byte.toUnsignedInt(clave[i]);
+            if (diferencia != 0) {
+                return diferencia;
+            }
+        }
+        if (prefijo && longitud >= clave.length) {
+            return 0;
+        }
+        return Integer.compare(longitud, clave.length);
+    }
+
+    private String texto(int posicion) {
+        int longitud = datos.getInt(posicion);
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        datos.get(posicion + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int longitudTexto(int posicion) {
+        return 4 + Math.max(datos.getInt(posicion), 0);
+    }
+
+    // Estado de la escritura: los registros se escriben según llegan las filas y de cada palabra
+    // solo se guarda lo necesario para construir las tablas del final
+    private static final class Constructor {
+
+        private final Map<String, Integer> numeroCategoria = new HashMap<>();
+        private final List<String> categorias = new ArrayList<>();
+        private long[] ids = new long[1024];
+        private int[] registros = new int[1024];
+        private int[] categoriasPalabra = new int[1024];
+        private byte[][] terminos = new byte[1024][];
+        private byte[][] normalizados = new byte[1024][];
+        private int palabras;
+        private long[] definicionIds = new long[1024];
+        private int[] definicionPalabras = new int[1024];
+        private int[] definicionPosiciones = new int[1024];
+        private int definiciones;
+        private int posCategorias;
+        private int posPalabras;
+        private int posTerminos;
+        private int posNormalizados;
+        private int posDefiniciones;
+        private final Contador contador;
+
+        Constructor(Contador contador) {
+            this.contador = contador;
+        }
+
+        // Posición actual en el fichero. Las posiciones se guardan en un int y el fichero se proyecta
+        // en un solo MappedByteBuffer, así que no puede pasar de Integer.MAX_VALUE bytes.
+        int posicion() throws IOException {
+            if (contador.escritos > Integer.MAX_VALUE) {
+                throw new IOException("La instantánea del diccionario supera los 2 GB (" + contador.escritos + " bytes)");
+            }
+            return (int) contador.escritos;
+        }
+
+        void escribirRegistros(DataOutputStream out, Iterator<FilaDiccionarioDTO> filas) throws IOException {
+            List<FilaDiccionarioDTO> actual = new ArrayList<>();
+            while (filas.hasNext()) {
+                FilaDiccionarioDTO fila = filas.next();
+                if (!actual.isEmpty() && !actual.get(0).getPalabraId().equals(fila.getPalabraId())) {
+                    escribirPalabra(out, actual);
+                    actual.clear();
+                }
+                actual.add(fila);
+            }
+            if (!actual.isEmpty()) {
+                escribirPalabra(out, actual);
+            }
+        }
+
+        private void escribirPalabra(DataOutputStream out, List<FilaDiccionarioDTO> filas) throws IOException {
+            FilaDiccionarioDTO primera = filas.get(0);
+            if (palabras > 0 && primera.getPalabraId() <= ids[palabras - 1]) {
+                throw new IllegalArgumentException("Las palabras deben llegar por id creciente");
+            }
+            if (palabras == ids.length) {
+                int capacidad = palabras * 2;
+                ids = Arrays.copyOf(ids, capacidad);
+                registros = Arrays.copyOf(registros, capacidad);
+                categoriasPalabra = Arrays.copyOf(categoriasPalabra, capacidad);
+                terminos = Arrays.copyOf(terminos, capacidad);
+                normalizados = Arrays.copyOf(normalizados, capacidad);
+            }
+            int palabra = palabras++;
+            ids[palabra] = primera.getPalabraId();
+            registros[palabra] = posicion();
+            String categoria = primera.getCategoriaGramatical();
+            if (categoria == null) {
+                categoriasPalabra[palabra] = -1;
+            } else {
+                categoriasPalabra[palabra] = numeroCategoria.computeIfAbsent(categoria, c -> {
+                    categorias.add(c);
+                    return categorias.size() - 1;
+                });
+            }
+            terminos[palabra] = bytes(primera.getTermino());
+            normalizados[palabra] = bytes(Normalizador.normalizar(primera.getTermino()));
+
+            out.writeLong(primera.getVersion() == null ? -1 : primera.getVersion());
+            escribirTexto(out, terminos[palabra]);
+            escribirTexto(out, normalizados[palabra]);
+            int total = primera.getDefinicionId() == null ? 0 : filas.size();
+            out.writeInt(total);
+            for (int i = 0; i < total; i++) {
+                FilaDiccionarioDTO fila = filas.get(i);
+                if (definiciones == definicionIds.length) {
+                    int capacidad = definiciones * 2;
+                    definicionIds = Arrays.copyOf(definicionIds, capacidad);
+                    definicionPalabras = Arrays.copyOf(definicionPalabras, capacidad);
+                    definicionPosiciones = Arrays.copyOf(definicionPosiciones, capacidad);
+                }
+                definicionIds[definiciones] = fila.getDefinicionId();
+                definicionPalabras[definiciones] = palabra;
+                definicionPosiciones[definiciones] = posicion();
+                definiciones++;
+                out.writeLong(fila.getDefinicionId());
+                escribirTexto(out, bytes(fila.getDescripcion()));
+                escribirTexto(out, bytes(fila.getEjemplo()));
+            }
+            // Falla en cuanto se pasa del límite, sin esperar a escribir el resto
+            posicion();
+        }
+
+        void escribirIndices(DataOutputStream out) throws IOException {
+            posCategorias = posicion();
+            for (String categoria : categorias) {
+                escribirTexto(out, bytes(categoria));
+            }
+            posPalabras = posicion();
+            for (int i = 0; i < palabras; i++) {
+                out.writeLong(ids[i]);
+                out.writeInt(registros[i]);
+                out.writeInt(categoriasPalabra[i]);
+            }
+            posTerminos = posicion();
+            escribirOrden(out, terminos);
+            posNormalizados = posicion();
+            escribirOrden(out, normalizados);
+            // Las definiciones de palabras distintas pueden no llegar en orden de id
+            Integer[] orden = new Integer[definiciones];
+            for (int i = 0; i < definiciones; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, Comparator.comparingLong(i -> definicionIds[i]));
+            posDefiniciones = posicion();
+            for (int i : orden) {
+                out.writeLong(definicionIds[i]);
+                out.writeInt(definicionPalabras[i]);
+                out.writeInt(definicionPosiciones[i]);
+            }
+        }
+
+        ByteBuffer cabecera(long seq) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+            cabecera.putInt(MAGIA).putInt(FORMATO).putLong(seq)
+                    .putInt(palabras).putInt(definiciones).putInt(categorias.size())
+                    .putInt(posCategorias).putInt(posPalabras).putInt(posTerminos)
+                    .putInt(posNormalizados).putInt(posDefiniciones);
+            return cabecera.clear();
+        }
+
+        private void escribirOrden(DataOutputStream out, byte[][] claves) throws IOException {
+            Integer[] orden = new Integer[palabras];
+            for (int i = 0; i < palabras; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> compararBytes(claves[a], claves[b]));
+            for (int i : orden) {
+                out.writeInt(i);
+            }
+        }
+
+        private static int compararBytes(byte[] a, byte[] b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            return Arrays.compareUnsigned(a, b);
+        }
+
+        private static byte[] bytes(String texto) {
+            return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static void escribirTexto(DataOutputStream out, byte[] bytes) throws IOException {
+            if (bytes == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    // Cuenta los bytes escritos en un long: DataOutputStream.size() se queda en Integer.MAX_VALUE
+    // al llegar a él y no sirve para saber si el fichero ha pasado de 2 GB
+    private static final class Contador extends FilterOutputStream {
+
+        private long escritos;
+
+        Contador(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            escritos++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            escritos += len;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package org.example.dictionaryapp.indice;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dictionaryapp.dto.RespuestaCambiosDTO;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.example.dictionaryapp.service.RegistroCambios;
+import org.example.dictionaryapp.service.VersionDiccionario;
+import org.example.dictionaryapp.util.Normalizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom sobre la clave normalizada de los términos: si dice que no está, no se consulta la base de datos.
+// Mientras no tenga las altas de otras instancias hasta el último seq confirmado, no descarta nada.
+@Component
+public class FiltroTerminos {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroTerminos.class);
+
+    private static final int TAMANO_LOTE = 10000;
+
+    private static final int TAMANO_PAGINA_CAMBIOS = 500;
+
+    private static final int CAPACIDAD_MINIMA = 1024;
+
+    private static final double PROBABILIDAD_FALSO_POSITIVO = 0.01;
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private InstantaneaDiccionario instantaneaDiccionario;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private VersionDiccionario versionDiccionario;
+
+    private volatile Filtro filtro;
+
+    // Último seq del registro de cambios cuyas altas ya están en el filtro; se escribe con this
+    private volatile long aplicado;
+
+    private final AtomicBoolean actualizacionPendiente = new AtomicBoolean();
+
+    private final ExecutorService actualizaciones = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "filtro-terminos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Términos añadidos mientras se reconstruye el filtro, para no perderlos al sustituirlo
+    private List<String> pendientes;
+
+    public void inicializar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.warn("No se pudo construir el filtro de términos al arrancar: {}", e.getMessage());
+        }
+    }
+
+    // Se reconstruye con el doble de capacidad cuando se han añadido más términos de los previstos
+    // o cuando las bajas acumuladas ya pesan demasiado en la tasa de falsos positivos
+    @Scheduled(fixedDelayString = "${diccionario.filtro-terminos.revision-ms:300000}",
+            initialDelayString = "${diccionario.filtro-terminos.revision-ms:300000}")
+    public void reconstruirSiEstaSaturado() {
+        Filtro actual = filtro;
+        if (actual != null && !actual.saturado()) {
+            return;
+        }
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.warn("No se pudo reconstruir el filtro de términos: {}", e.getMessage());
+        }
+    }
+
+    public void reconstruir() {
+        synchronized (this) {
+            if (pendientes != null) {
+                return;
+            }
+            pendientes = new ArrayList<>();
+        }
+        try {
+            // Se lee antes que los términos: la instantánea o la base de datos tienen al menos hasta aquí
+            long base = versionDiccionario.getVersion();
+            ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+            long total = instantanea != null ? instantanea.getPalabras() : palabraRepository.count();
+            Filtro nuevo = new Filtro(Math.max(CAPACIDAD_MINIMA, total * 2));
+            instantaneaDiccionario.recorrerPorLotes(TAMANO_LOTE, lote -> lote.forEach(palabra -> nuevo.agregar(clave(palabra.getTermino()))));
+            synchronized (this) {
+                pendientes.forEach(nuevo::agregar);
+                filtro = nuevo;
+                aplicado = base;
+            }
+            if (registroCambios.ultimoConfirmado() > base) {
+                programarActualizacion();
+            }
+            log.info("Filtro de términos construido con {} términos ({} KB)", total, nuevo.bits.length() / 128);
+        } finally {
+            synchronized (this) {
+                pendientes = null;
+            }
+        }
+    }
+
+    // Sin filtro cargado, o con altas confirmadas que aún no tiene, no se puede descartar nada
+    public boolean puedeContener(String termino) {
+        Filtro actual = filtro;
+        return actual == null || aplicado < registroCambios.ultimoConfirmado() || actual.puedeContener(clave(termino));
+    }
+
+    public void agregar(String termino) {
+        String clave = clave(termino);
+        synchronized (this) {
+            if (pendientes != null) {
+                pendientes.add(clave);
+            }
+            Filtro actual = filtro;
+            if (actual != null) {
+                actual.agregar(clave);
+            }
+        }
+    }
+
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        synchronized (this) {
+            if (filtro == null || evento.getSeq() <= aplicado) {
+                return;
+            }
+            // Los términos propios se añaden antes de guardar: si no hay nada ajeno antes, ya está al día
+            if (evento.isPropio() && evento.getPrimero() <= aplicado + 1) {
+                aplicado = evento.getSeq();
+                return;
+            }
+        }
+        programarActualizacion();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        actualizaciones.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCambioPalabra(CambioPalabraEvent evento) {
+        Filtro actual = filtro;
+        if (actual == null || evento.getAnterior() == null) {
+            return;
+        }
+        if (evento.getActual() == null || !clave(evento.getActual().getTermino()).equals(clave(evento.getAnterior().getTermino()))) {
+            actual.eliminados.incrementAndGet();
+        }
+    }
+
+    private void programarActualizacion() {
+        if (actualizacionPendiente.compareAndSet(false, true)) {
+            actualizaciones.execute(this::actualizar);
+        }
+    }
+
+    // Añade los términos de las altas y cambios registrados desde la última vez. Los de esta
+    // instancia ya están en el filtro y no se vuelven a contar.
+    private void actualizar() {
+        actualizacionPendiente.set(false);
+        Filtro actual;
+        long desde;
+        synchronized (this) {
+            actual = filtro;
+            desde = aplicado;
+        }
+        if (actual == null) {
+            return;
+        }
+        try {
+            RespuestaCambiosDTO pagina;
+            do {
+                pagina = registroCambios.leer(desde, TAMANO_PAGINA_CAMBIOS, false);
+                for (Cambio cambio : pagina.getCambios()) {
+                    if ((cambio.getTipo() == Cambio.Tipo.PALABRA_CREADA || cambio.getTipo() == Cambio.Tipo.PALABRA_ACTUALIZADA)
+                            && cambio.getTermino() != null && !actual.puedeContener(clave(cambio.getTermino()))) {
+                        agregar(cambio.getTermino());
+                    }
+                }
+                desde = pagina.getHasta();
+                synchronized (this) {
+                    // Si entre tanto se ha reconstruido, el nuevo filtro lleva su propia cuenta
+                    if (filtro != actual) {
+                        return;
+                    }
+                    aplicado = Math.max(aplicado, desde);
+                }
+            } while (pagina.isHayMas());
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron leer los cambios para el filtro de términos: {}", e.getMessage());
+        }
+    }
+
+    private static String clave(String termino) {
+        return Normalizador.normalizar(termino);
+    }
+
+    private static final class Filtro {
+
+        final long capacidad;
+        final AtomicLongArray bits;
+        final long numeroBits;
+        final int numeroHashes;
+        final AtomicLong agregados = new AtomicLong();
+        final AtomicLong eliminados = new AtomicLong();
+
+        Filtro(long capacidad) {
+            this.capacidad = capacidad;
+            long m = (long) Math.ceil(-capacidad * Math.log(PROBABILIDAD_FALSO_POSITIVO) / (Math.log(2) * Math.log(2)));
+            int palabras = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+            this.bits = new AtomicLongArray(palabras);
+            this.numeroBits = (long) palabras << 6;
+            this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / capacidad * Math.log(2)));
+        }
+
+        // Doble hash (Kirsch-Mitzenmacher): las k posiciones salen de dos mitades de un hash de 64 bits
+        void agregar(String clave) {
+            long hash = hash(clave);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < numeroHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numeroBits);
+                long mascara = 1L << bit;
+                int posicion = (int) (bit >>> 6);
+                if ((bits.get(posicion) & mascara) == 0) {
+                    bits.getAndAccumulate(posicion, mascara, (a, b) -> a | b);
+                }
+            }
+            agregados.incrementAndGet();
+        }
+
+        boolean puedeContener(String clave) {
+            long hash = hash(clave);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < numeroHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numeroBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean saturado() {
+            return agregados.get() > capacidad || eliminados.get() > capacidad / 4;
+        }
+
+        // FNV-1a de 64 bits con una mezcla final para repartir bien los bits altos
+        private static long hash(String clave) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < clave.length(); i++) {
+                h ^= clave.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.util.Normalizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+// Índice de categorías en memoria: un mapa de bits con los ids por categoría y por inicial del término normalizado.
+// Cada cambio publica un índice nuevo que copia solo el tramo tocado de cada mapa.
+@Component
+public class IndiceCategorias {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceCategorias.class);
+
+    private static final int TAMANO_LOTE = 10000;
+
+    // Con más cambios que estos sale más barato reconstruir el índice
+    private static final int MAXIMO_CAMBIOS_SUELTOS = 256;
+
+    @Autowired
+    private InstantaneaDiccionario instantaneaDiccionario;
+
+    private volatile Indice indice;
+
+    public void inicializar() {
+        try {
+            cargar();
+        } catch (Exception e) {
+            log.warn("No se pudo construir el índice de categorías al arrancar: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void cargar() {
+        Indice.Constructor constructor = new Indice.Constructor();
+        instantaneaDiccionario.recorrerPorLotes(TAMANO_LOTE, lote -> lote.forEach(constructor::agregar));
+        indice = constructor.construir();
+        log.info("Índice de categorías construido con {} categorías gramaticales", indice.categorias.size());
+    }
+
+    // Ids mayores que 'after', en orden, de las palabras de alguna de las categorías y, si se indica,
+    // cuyo término empieza por la inicial
+    public List<Long> buscar(Collection<String> categorias, Character inicial, long after, int limit) {
+        Indice actual = obtenerIndice();
+        List<MapaBits> union = new ArrayList<>();
+        long totalUnion = 0;
+        for (String categoria : new HashSet<>(categorias)) {
+            Integer numero = actual.numeros.get(categoria);
+            if (numero != null) {
+                union.add(actual.categorias.get(numero).bits);
+                totalUnion += actual.categorias.get(numero).total;
+            }
+        }
+        Miembros conInicial = inicial == null ? null : actual.iniciales.get(inicial);
+        if (union.isEmpty() || (inicial != null && conInicial == null)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, 1024));
+        int desde = after < 0 ? 0 : (int) Math.min(after + 1, Integer.MAX_VALUE);
+        // Se recorre el conjunto más pequeño y se comprueba la pertenencia al otro, sin combinar los mapas
+        if (conInicial != null && conInicial.total < totalUnion) {
+            for (int id = conInicial.bits.nextSetBit(desde); id >= 0 && ids.size() < limit; id = conInicial.bits.nextSetBit(id + 1)) {
+                for (MapaBits bits : union) {
+                    if (bits.get(id)) {
+                        ids.add((long) id);
+                        break;
+                    }
+                }
+            }
+            return ids;
+        }
+        for (int id = siguiente(union, desde); id >= 0 && ids.size() < limit; id = siguiente(union, id + 1)) {
+            if (conInicial == null || conInicial.bits.get(id)) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+
+    // Número de palabras de cada categoría, por orden alfabético
+    public Map<String, Integer> conteos() {
+        Indice actual = obtenerIndice();
+        Map<String, Integer> conteos = new TreeMap<>();
+        actual.numeros.forEach((categoria, numero) -> {
+            int total = actual.categorias.get(numero).total;
+            if (total > 0) {
+                conteos.put(categoria, total);
+            }
+        });
+        return conteos;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCambioPalabra(CambioPalabraEvent evento) {
+        if (indice == null) {
+            return;
+        }
+        Indice nuevo = indice.sin(evento.getPalabraId());
+        if (evento.getActual() != null) {
+            nuevo = nuevo.con(evento.getActual());
+        }
+        indice = nuevo;
+    }
+
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        cargar();
+    }
+
+    @EventListener
+    public synchronized void onCambiosRemotos(CambiosRemotosEvent evento) {
+        if (indice == null) {
+            return;
+        }
+        List<Cambio> cambios = evento.isRecargar() ? null : evento.getCambios().stream().filter(Cambio::esDePalabra).toList();
+        if (cambios == null || cambios.size() > MAXIMO_CAMBIOS_SUELTOS) {
+            cargar();
+            return;
+        }
+        Indice nuevo = indice;
+        for (Cambio cambio : cambios) {
+            nuevo = nuevo.sin(cambio.getPalabraId());
+            if (cambio.getTipo() != Cambio.Tipo.PALABRA_ELIMINADA) {
+                nuevo = nuevo.con(cambio.palabra());
+            }
+        }
+        indice = nuevo;
+    }
+
+    // Siguiente id de la unión a partir de 'desde', o -1
+    private static int siguiente(List<MapaBits> union, int desde) {
+        int minimo = -1;
+        for (MapaBits bits : union) {
+            int id = bits.nextSetBit(desde);
+            if (id >= 0 && (minimo < 0 || id < minimo)) {
+                minimo = id;
+            }
+        }
+        return minimo;
+    }
+
+    // Primera letra del término normalizado, o null si no queda nada al normalizarlo
+    public static Character inicial(String termino) {
+        String clave = Normalizador.normalizar(termino);
+        return clave == null || clave.isEmpty() ? null : clave.charAt(0);
+    }
+
+    private Indice obtenerIndice() {
+        Indice actual = indice;
+        return actual != null ? actual : cargarSiFalta();
+    }
+
+    // Varias lecturas que lleguen a la vez antes de la primera carga solo construyen el índice una vez
+    private synchronized Indice cargarSiFalta() {
+        if (indice == null) {
+            cargar();
+        }
+        return indice;
+    }
+
+    // Mapa de bits por id y número de bits a uno
+    private record Miembros(MapaBits bits, int total) {
+
+        Miembros con(int id) {
+            return new Miembros(bits.con(id), total + 1);
+        }
+
+        Miembros sin(int id) {
+            return new Miembros(bits.sin(id), total - 1);
+        }
+    }
+
+    // Mapa de bits inmutable en tramos de 2^16 ids: un cambio copia el tramo que toca y la lista de tramos,
+    // no el mapa entero
+    static final class MapaBits {
+
+        private static final int BITS_TRAMO = 16;
+        private static final int PALABRAS_TRAMO = 1 << (BITS_TRAMO - 6);
+
+        static final MapaBits VACIO = new MapaBits(new long[0][]);
+
+        // null: tramo sin ningún bit
+        private final long[][] tramos;
+
+        private MapaBits(long[][] tramos) {
+            this.tramos = tramos;
+        }
+
+        static MapaBits de(BitSet bits) {
+            long[] palabras = bits.toLongArray();
+            long[][] tramos = new long[(palabras.length + PALABRAS_TRAMO - 1) / PALABRAS_TRAMO][];
+            for (int t = 0; t < tramos.length; t++) {
+                int desde = t * PALABRAS_TRAMO;
+                long[] tramo = Arrays.copyOfRange(palabras, desde, desde + PALABRAS_TRAMO);
+                for (long palabra : tramo) {
+                    if (palabra != 0) {
+                        tramos[t] = tramo;
+                        break;
+                    }
+                }
+            }
+            return new MapaBits(tramos);
+        }
+
+        boolean get(int bit) {
+            int t = bit >>> BITS_TRAMO;
+            return t < tramos.length && tramos[t] != null && (tramos[t][(bit >>> 6) & (PALABRAS_TRAMO - 1)] & (1L << bit)) != 0;
+        }
+
+        // Primer bit a uno desde 'desde' (incluido), o -1
+        int nextSetBit(int desde) {
+            for (int t = desde >>> BITS_TRAMO; t < tramos.length; t++) {
+                long[] tramo = tramos[t];
+                if (tramo == null) {
+                    continue;
+                }
+                int base = t << BITS_TRAMO;
+                int inicio = Math.max(0, desde - base);
+                for (int p = inicio >>> 6; p < PALABRAS_TRAMO; p++) {
+                    long palabra = p == inicio >>> 6 ? tramo[p] & (-1L << inicio) : tramo[p];
+                    if (palabra != 0) {
+                        return base + (p << 6) + Long.numberOfTrailingZeros(palabra);
+                    }
+                }
+            }
+            return -1;
+        }
+
+        MapaBits con(int bit) {
+            int t = bit >>> BITS_TRAMO;
+            long[][] copia = Arrays.copyOf(tramos, Math.max(tramos.length, t + 1));
+            long[] tramo = copia[t] == null ? new long[PALABRAS_TRAMO] : copia[t].clone();
+            tramo[(bit >>> 6) & (PALABRAS_TRAMO - 1)] |= 1L << bit;
+            copia[t] = tramo;
+            return new MapaBits(copia);
+        }
+
+        MapaBits sin(int bit) {
+            if (!get(bit)) {
+                return this;
+            }
+            int t = bit >>> BITS_TRAMO;
+            long[][] copia = tramos.clone();
+            long[] tramo = copia[t].clone();
+            tramo[(bit >>> 6) & (PALABRAS_TRAMO - 1)] &= ~(1L << bit);
+            copia[t] = tramo;
+            return new MapaBits(copia);
+        }
+    }
+
+    static final class Indice {
+
+        // El número de una categoría es su posición en la lista; no se reutilizan mientras dure el índice
+        final Map<String, Integer> numeros;
+        final List<Miembros> categorias;
+        final Map<Character, Miembros> iniciales;
+
+        private Indice(Map<String, Integer> numeros, List<Miembros> categorias, Map<Character, Miembros> iniciales) {
+            this.numeros = numeros;
+            this.categorias = categorias;
+            this.iniciales = iniciales;
+        }
+
+        // Se quita de cualquier categoría en la que esté, no solo de la anterior del evento: si dos cambios
+        // de la misma palabra llegan en otro orden, no queda en dos categorías a la vez
+        Indice sin(Long id) {
+            int bit = bit(id);
+            List<Miembros> nuevasCategorias = null;
+            for (int i = 0; i < categorias.size(); i++) {
+                if (categorias.get(i).bits.get(bit)) {
+                    if (nuevasCategorias == null) {
+                        nuevasCategorias = new ArrayList<>(categorias);
+                    }
+                    nuevasCategorias.set(i, categorias.get(i).sin(bit));
+                }
+            }
+            Map<Character, Miembros> nuevasIniciales = null;
+            for (Map.Entry<Character, Miembros> entrada : iniciales.entrySet()) {
+                if (entrada.getValue().bits.get(bit)) {
+                    if (nuevasIniciales == null) {
+                        nuevasIniciales = new HashMap<>(iniciales);
+                    }
+                    nuevasIniciales.put(entrada.getKey(), entrada.getValue().sin(bit));
+                }
+            }
+            if (nuevasCategorias == null && nuevasIniciales == null) {
+                return this;
+            }
+            return new Indice(numeros, nuevasCategorias == null ? categorias : nuevasCategorias,
+                    nuevasIniciales == null ? iniciales : nuevasIniciales);
+        }
+
+        Indice con(PalabraDTO palabra) {
+            int bit = bit(palabra.getId());
+            Map<String, Integer> nuevosNumeros = numeros;
+            List<Miembros> nuevasCategorias = new ArrayList<>(categorias);
+            Integer numero = numeros.get(palabra.getCategoriaGramatical());
+            if (numero == null) {
+                nuevosNumeros = new HashMap<>(numeros);
+                numero = nuevasCategorias.size();
+                nuevosNumeros.put(palabra.getCategoriaGramatical(), numero);
+                nuevasCategorias.add(new Miembros(MapaBits.VACIO, 0));
+            }
+            if (!nuevasCategorias.get(numero).bits.get(bit)) {
+                nuevasCategorias.set(numero, nuevasCategorias.get(numero).con(bit));
+            }
+            Map<Character, Miembros> nuevasIniciales = iniciales;
+            Character inicial = inicial(palabra.getTermino());
+            if (inicial != null) {
+                Miembros conInicial = iniciales.getOrDefault(inicial, new Miembros(MapaBits.VACIO, 0));
+                if (!conInicial.bits.get(bit)) {
+                    nuevasIniciales = new HashMap<>(iniciales);
+                    nuevasIniciales.put(inicial, conInicial.con(bit));
+                }
+            }
+            return new Indice(nuevosNumeros, nuevasCategorias, nuevasIniciales);
+        }
+
+        private static int bit(Long id) {
+            if (id < 0 || id > Integer.MAX_VALUE) {
+                throw new IllegalStateException("El id " + id + " no cabe en el índice de categorías.");
+            }
+            return id.intValue();
+        }
+
+        // Para la carga inicial: mapas de bits mutables que se publican al terminar
+        static final class Constructor {
+
+            private final Map<String, Integer> numeros = new HashMap<>();
+            private final List<BitSet> categorias = new ArrayList<>();
+            private final Map<Character, BitSet> iniciales = new HashMap<>();
+
+            void agregar(PalabraDTO palabra) {
+                int bit = bit(palabra.getId());
+                int numero = numeros.computeIfAbsent(palabra.getCategoriaGramatical(), c -> {
+                    categorias.add(new BitSet());
+                    return categorias.size() - 1;
+                });
+                categorias.get(numero).set(bit);
+                Character inicial = inicial(palabra.getTermino());
+                if (inicial != null) {
+                    iniciales.computeIfAbsent(inicial, c -> new BitSet()).set(bit);
+                }
+            }
+
+            Indice construir() {
+                List<Miembros> miembros = new ArrayList<>(categorias.size());
+                for (BitSet bits : categorias) {
+                    miembros.add(new Miembros(MapaBits.de(bits), bits.cardinality()));
+                }
+                Map<Character, Miembros> porInicial = new HashMap<>();
+                iniciales.forEach((inicial, bits) -> porInicial.put(inicial, new Miembros(MapaBits.de(bits), bits.cardinality())));
+                return new Indice(numeros, miembros, porInicial);
+            }
+        }
+    }
+}
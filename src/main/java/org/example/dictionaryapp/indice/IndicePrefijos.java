@@ -0,0 +1,457 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.util.Normalizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+// Índice de prefijos en memoria sobre la clave normalizada, en arenas de char[] ordenadas.
+// Inmutable: cada escritura publica una copia, O(n), y las lecturas no se bloquean.
+@Component
+public class IndicePrefijos {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicePrefijos.class);
+
+    private static final int TAMANO_LOTE = 10000;
+
+    // Cada cambio copia la tabla: con más de estos sale más barato reconstruirla
+    private static final int MAXIMO_CAMBIOS_SUELTOS = 64;
+
+    @Autowired
+    private InstantaneaDiccionario instantaneaDiccionario;
+
+    private volatile Tabla tabla;
+
+    public void inicializar() {
+        try {
+            cargar();
+        } catch (Exception e) {
+            log.warn("No se pudo construir el índice de prefijos al arrancar: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void cargar() {
+        List<PalabraDTO> palabras = new ArrayList<>();
+        instantaneaDiccionario.recorrerPorLotes(TAMANO_LOTE, palabras::addAll);
+        tabla = Tabla.construir(palabras);
+        log.info("Índice de prefijos construido con {} términos", tabla.tamano());
+    }
+
+    public List<PalabraDTO> autocompletar(String prefijo, int limit) {
+        Tabla actual = obtenerTabla();
+        String clave = clave(prefijo);
+        List<PalabraDTO> resultado = new ArrayList<>(Math.min(limit, 64));
+        for (int i = actual.limiteInferior(clave); i < actual.tamano() && resultado.size() < limit && actual.empiezaPor(i, clave); i++) {
+            resultado.add(actual.dto(i));
+        }
+        return resultado;
+    }
+
+    // Equivale a "termino LIKE 'x%' AND id > :after ORDER BY id" sobre el rango de la inicial
+    public List<PalabraDTO> buscarPorInicial(char inicial, long after, int limit) {
+        Tabla actual = obtenerTabla();
+        String clave = clave(String.valueOf(inicial));
+        PriorityQueue<Integer> seleccion = new PriorityQueue<>(Comparator.comparingLong((Integer i) -> actual.ids[i]).reversed());
+        for (int i = actual.limiteInferior(clave); i < actual.tamano() && actual.empiezaPor(i, clave); i++) {
+            if (actual.ids[i] <= after || actual.terminos[actual.inicioTermino[i]] != inicial) {
+                continue;
+            }
+            seleccion.add(i);
+            if (seleccion.size() > limit) {
+                seleccion.poll();
+            }
+        }
+        List<PalabraDTO> resultado = new ArrayList<>(seleccion.size());
+        for (Integer i : seleccion) {
+            resultado.add(actual.dto(i));
+        }
+        resultado.sort(Comparator.comparing(PalabraDTO::getId));
+        return resultado;
+    }
+
+    // Palabras a distancia de Levenshtein no mayor que distanciaMaxima. Las claves ordenadas se recorren
+    // como un trie implícito: las filas de la matriz de distancias se comparten entre claves con prefijo
+    // común y, en cuanto una fila supera la distancia máxima, se salta todo el rango con ese prefijo.
+    public List<PalabraDTO> sugerir(String termino, int distanciaMaxima, int limit) {
+        Tabla actual = obtenerTabla();
+        String consulta = clave(termino);
+        int m = consulta.length();
+        int[][] filas = new int[1][];
+        filas[0] = new int[m + 1];
+        for (int x = 0; x <= m; x++) {
+            filas[0][x] = x;
+        }
+        List<Candidato> candidatos = new ArrayList<>();
+        int filasValidas = 0;
+        int anterior = -1;
+        int i = 0;
+        while (i < actual.tamano()) {
+            int longitud = actual.longitudClave(i);
+            int desde = anterior < 0 ? 0 : Math.min(filasValidas, actual.prefijoComun(anterior, i));
+            if (filas.length < longitud + 1) {
+                filas = Arrays.copyOf(filas, Math.max(longitud + 1, filas.length * 2));
+            }
+            int poda = -1;
+            for (int j = desde + 1; j <= longitud; j++) {
+                if (filas[j] == null) {
+                    filas[j] = new int[m + 1];
+                }
+                int[] previa = filas[j - 1];
+                int[] fila = filas[j];
+                char c = actual.claves[actual.inicioClave[i] + j - 1];
+                fila[0] = j;
+                int minimo = j;
+                for (int x = 1; x <= m; x++) {
+                    int coste = consulta.charAt(x - 1) == c ? 0 : 1;
+                    fila[x] = Math.min(Math.min(fila[x - 1] + 1, previa[x] + 1), previa[x - 1] + coste);
+                    minimo = Math.min(minimo, fila[x]);
+                }
+                if (minimo > distanciaMaxima) {
+                    poda = j;
+                    break;
+                }
+            }
+            anterior = i;
+            if (poda > 0) {
+                filasValidas = poda - 1;
+                i = actual.siguientePrefijo(i, poda);
+                continue;
+            }
+            filasValidas = longitud;
+            if (filas[longitud][m] <= distanciaMaxima) {
+                candidatos.add(new Candidato(i, filas[longitud][m]));
+            }
+            i++;
+        }
+        candidatos.sort(Comparator.comparingInt((Candidato c) -> c.distancia).thenComparingInt(c -> c.posicion));
+        List<PalabraDTO> resultado = new ArrayList<>(Math.min(limit, candidatos.size()));
+        for (int k = 0; k < candidatos.size() && k < limit; k++) {
+            resultado.add(actual.dto(candidatos.get(k).posicion));
+        }
+        return resultado;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCambioPalabra(CambioPalabraEvent evento) {
+        if (tabla == null) {
+            return;
+        }
+        Tabla nueva = tabla.sin(evento.getPalabraId());
+        if (evento.getActual() != null) {
+            nueva = nueva.con(evento.getActual());
+        }
+        tabla = nueva;
+    }
+
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        cargar();
+    }
+
+    @EventListener
+    public synchronized void onCambiosRemotos(CambiosRemotosEvent evento) {
+        if (tabla == null) {
+            return;
+        }
+        List<Cambio> cambios = evento.isRecargar() ? null : evento.getCambios().stream().filter(Cambio::esDePalabra).toList();
+        if (cambios == null || cambios.size() > MAXIMO_CAMBIOS_SUELTOS) {
+            cargar();
+            return;
+        }
+        Tabla nueva = tabla;
+        for (Cambio cambio : cambios) {
+            nueva = nueva.sin(cambio.getPalabraId());
+            if (cambio.getTipo() != Cambio.Tipo.PALABRA_ELIMINADA) {
+                nueva = nueva.con(cambio.palabra());
+            }
+        }
+        tabla = nueva;
+    }
+
+    private Tabla obtenerTabla() {
+        Tabla actual = tabla;
+        if (actual == null) {
+            cargar();
+            actual = tabla;
+        }
+        return actual;
+    }
+
+    static String clave(String termino) {
+        return Normalizador.normalizar(termino);
+    }
+
+    private static final class Candidato {
+
+        final int posicion;
+        final int distancia;
+
+        Candidato(int posicion, int distancia) {
+            this.posicion = posicion;
+            this.distancia = distancia;
+        }
+    }
+
+    static final class Tabla {
+
+        final char[] claves;
+        final int[] inicioClave;
+        final char[] terminos;
+        final int[] inicioTermino;
+        final long[] ids;
+        final short[] categorias;
+        final String[] nombresCategorias;
+
+        private Tabla(char[] claves, int[] inicioClave, char[] terminos, int[] inicioTermino,
+                      long[] ids, short[] categorias, String[] nombresCategorias) {
+            this.claves = claves;
+            this.inicioClave = inicioClave;
+            this.terminos = terminos;
+            this.inicioTermino = inicioTermino;
+            this.ids = ids;
+            this.categorias = categorias;
+            this.nombresCategorias = nombresCategorias;
+        }
+
+        static Tabla construir(List<PalabraDTO> palabras) {
+            List<PalabraDTO> ordenadas = new ArrayList<>(palabras.size());
+            for (PalabraDTO palabra : palabras) {
+                if (indexable(palabra)) {
+                    ordenadas.add(palabra);
+                }
+            }
+            ordenadas.sort(Comparator.comparing((PalabraDTO p) -> clave(p.getTermino())).thenComparing(PalabraDTO::getId));
+            int n = ordenadas.size();
+            int longitudClaves = 0;
+            int longitudTerminos = 0;
+            for (PalabraDTO palabra : ordenadas) {
+                longitudClaves += clave(palabra.getTermino()).length();
+                longitudTerminos += palabra.getTermino().length();
+            }
+            char[] claves = new char[longitudClaves];
+            int[] inicioClave = new int[n + 1];
+            char[] terminos = new char[longitudTerminos];
+            int[] inicioTermino = new int[n + 1];
+            long[] ids = new long[n];
+            short[] categorias = new short[n];
+            Map<String, Short> idsCategoria = new HashMap<>();
+            List<String> nombresCategorias = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                PalabraDTO palabra = ordenadas.get(i);
+                String clave = clave(palabra.getTermino());
+                clave.getChars(0, clave.length(), claves, inicioClave[i]);
+                inicioClave[i + 1] = inicioClave[i] + clave.length();
+                palabra.getTermino().getChars(0, palabra.getTermino().length(), terminos, inicioTermino[i]);
+                inicioTermino[i + 1] = inicioTermino[i] + palabra.getTermino().length();
+                ids[i] = palabra.getId();
+                categorias[i] = idsCategoria.computeIfAbsent(palabra.getCategoriaGramatical(), c -> {
+                    nombresCategorias.add(c);
+                    return idCategoria(nombresCategorias.size() - 1);
+                });
+            }
+            return new Tabla(claves, inicioClave, terminos, inicioTermino, ids, categorias, nombresCategorias.toArray(new String[0]));
+        }
+
+        int tamano() {
+            return ids.length;
+        }
+
+        // Como en IndiceCategorias, las filas sin término (o que se normaliza a vacío) no se indexan
+        private static boolean indexable(PalabraDTO palabra) {
+            String clave = clave(palabra.getTermino());
+            return clave != null && !clave.isEmpty();
+        }
+
+        PalabraDTO dto(int i) {
+            String termino = new String(terminos, inicioTermino[i], inicioTermino[i + 1] - inicioTermino[i]);
+            return new PalabraDTO(ids[i], termino, nombresCategorias[categorias[i]]);
+        }
+
+        int longitudClave(int i) {
+            return inicioClave[i + 1] - inicioClave[i];
+        }
+
+        int prefijoComun(int a, int b) {
+            int minimo = Math.min(longitudClave(a), longitudClave(b));
+            int k = 0;
+            while (k < minimo && claves[inicioClave[a] + k] == claves[inicioClave[b] + k]) {
+                k++;
+            }
+            return k;
+        }
+
+        // Primera posición posterior a todas las claves que comparten los primeros 'longitud' caracteres con la clave i
+        int siguientePrefijo(int i, int longitud) {
+            char[] sucesor = Arrays.copyOfRange(claves, inicioClave[i], inicioClave[i] + longitud);
+            if (sucesor[longitud - 1] == Character.MAX_VALUE) {
+                return i + 1;
+            }
+            sucesor[longitud - 1]++;
+            return Math.max(i + 1, limiteInferior(new String(sucesor)));
+        }
+
+        // Primera posición cuya clave es mayor o igual que la dada
+        int limiteInferior(String clave) {
+            int bajo = 0;
+            int alto = tamano();
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (comparar(medio, clave) < 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        boolean empiezaPor(int i, String prefijo) {
+            int inicio = inicioClave[i];
+            if (inicioClave[i + 1] - inicio < prefijo.length()) {
+                return false;
+            }
+            for (int k = 0; k < prefijo.length(); k++) {
+                if (claves[inicio + k] != prefijo.charAt(k)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int comparar(int i, String clave) {
+            int inicio = inicioClave[i];
+            int longitud = inicioClave[i + 1] - inicio;
+            int minimo = Math.min(longitud, clave.length());
+            for (int k = 0; k < minimo; k++) {
+                int diferencia = claves[inicio + k] - clave.charAt(k);
+                if (diferencia != 0) {
+                    return diferencia;
+                }
+            }
+            return longitud - clave.length();
+        }
+
+        Tabla sin(Long id) {
+            int posicion = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    posicion = i;
+                    break;
+                }
+            }
+            if (posicion < 0) {
+                return this;
+            }
+            int n = tamano();
+            int longitudClave = inicioClave[posicion + 1] - inicioClave[posicion];
+            int longitudTermino = inicioTermino[posicion + 1] - inicioTermino[posicion];
+            return new Tabla(
+                    quitar(claves, inicioClave[posicion], longitudClave),
+                    quitarDesplazamiento(inicioClave, posicion, longitudClave),
+                    quitar(terminos, inicioTermino[posicion], longitudTermino),
+                    quitarDesplazamiento(inicioTermino, posicion, longitudTermino),
+                    quitar(ids, posicion, n),
+                    quitar(categorias, posicion, n),
+                    nombresCategorias);
+        }
+
+        Tabla con(PalabraDTO palabra) {
+            if (!indexable(palabra)) {
+                return this;
+            }
+            String clave = clave(palabra.getTermino());
+            int posicion = limiteInferior(clave);
+            while (posicion < tamano() && comparar(posicion, clave) == 0 && ids[posicion] < palabra.getId()) {
+                posicion++;
+            }
+            String[] nombres = nombresCategorias;
+            int categoria = Arrays.asList(nombres).indexOf(palabra.getCategoriaGramatical());
+            if (categoria < 0) {
+                nombres = Arrays.copyOf(nombres, nombres.length + 1);
+                nombres[nombres.length - 1] = palabra.getCategoriaGramatical();
+                categoria = nombres.length - 1;
+            }
+            int n = tamano();
+            long[] nuevosIds = new long[n + 1];
+            System.arraycopy(ids, 0, nuevosIds, 0, posicion);
+            nuevosIds[posicion] = palabra.getId();
+            System.arraycopy(ids, posicion, nuevosIds, posicion + 1, n - posicion);
+            short[] nuevasCategorias = new short[n + 1];
+            System.arraycopy(categorias, 0, nuevasCategorias, 0, posicion);
+            nuevasCategorias[posicion] = idCategoria(categoria);
+            System.arraycopy(categorias, posicion, nuevasCategorias, posicion + 1, n - posicion);
+            return new Tabla(
+                    insertar(claves, inicioClave[posicion], clave),
+                    insertarDesplazamiento(inicioClave, posicion, clave.length()),
+                    insertar(terminos, inicioTermino[posicion], palabra.getTermino()),
+                    insertarDesplazamiento(inicioTermino, posicion, palabra.getTermino().length()),
+                    nuevosIds,
+                    nuevasCategorias,
+                    nombres);
+        }
+
+        private static short idCategoria(int indice) {
+            if (indice > Short.MAX_VALUE) {
+                throw new IllegalStateException("Demasiadas categorías gramaticales distintas para el índice de prefijos.");
+            }
+            return (short) indice;
+        }
+
+        private static char[] quitar(char[] arena, int desde, int longitud) {
+            char[] nueva = new char[arena.length - longitud];
+            System.arraycopy(arena, 0, nueva, 0, desde);
+            System.arraycopy(arena, desde + longitud, nueva, desde, arena.length - desde - longitud);
+            return nueva;
+        }
+
+        private static char[] insertar(char[] arena, int desde, String valor) {
+            char[] nueva = new char[arena.length + valor.length()];
+            System.arraycopy(arena, 0, nueva, 0, desde);
+            valor.getChars(0, valor.length(), nueva, desde);
+            System.arraycopy(arena, desde, nueva, desde + valor.length(), arena.length - desde);
+            return nueva;
+        }
+
+        private static int[] quitarDesplazamiento(int[] inicios, int posicion, int longitud) {
+            int[] nuevos = new int[inicios.length - 1];
+            System.arraycopy(inicios, 0, nuevos, 0, posicion + 1);
+            for (int i = posicion + 1; i < nuevos.length; i++) {
+                nuevos[i] = inicios[i + 1] - longitud;
+            }
+            return nuevos;
+        }
+
+        private static int[] insertarDesplazamiento(int[] inicios, int posicion, int longitud) {
+            int[] nuevos = new int[inicios.length + 1];
+            System.arraycopy(inicios, 0, nuevos, 0, posicion + 1);
+            for (int i = posicion + 1; i < nuevos.length; i++) {
+                nuevos[i] = inicios[i - 1] + longitud;
+            }
+            return nuevos;
+        }
+
+        private static long[] quitar(long[] valores, int posicion, int n) {
+            long[] nuevos = new long[n - 1];
+            System.arraycopy(valores, 0, nuevos, 0, posicion);
+            System.arraycopy(valores, posicion + 1, nuevos, posicion, n - posicion - 1);
+            return nuevos;
+        }
+
+        private static short[] quitar(short[] valores, int posicion, int n) {
+            short[] nuevos = new short[n - 1];
+            System.arraycopy(valores, 0, nuevos, 0, posicion);
+            System.arraycopy(valores, posicion + 1, nuevos, posicion, n - posicion - 1);
+            return nuevos;
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package org.example.dictionaryapp.indice;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dictionaryapp.dto.DefinicionTextoDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.repository.DefinicionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido en memoria sobre descripción y ejemplo de las definiciones, con ranking BM25.
+// Se guarda en disco para no reconstruirlo desde la base de datos en cada arranque.
+@Component
+public class IndiceTextual {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceTextual.class);
+
+    private static final int TAMANO_LOTE = 5000;
+    // Cambia con el formato y con AnalizadorEspanol: una instantánea con raíces distintas no vale
+    private static final int FORMATO = 0x44494332;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    @Autowired
+    private DefinicionRepository definicionRepository;
+
+    @Value("${diccionario.busqueda.instantanea:}")
+    private String rutaInstantanea;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int numeroDocumentos;
+    private long[] definicionIds = new long[1024];
+    private long[] palabraIds = new long[1024];
+    private int[] longitudes = new int[1024];
+    private final BitSet eliminados = new BitSet();
+    private int documentosVivos;
+    private long longitudTotal;
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documentoPorDefinicion = new HashMap<>();
+    private volatile boolean cargado;
+    private volatile boolean modificado;
+
+    public void inicializar() {
+        try {
+            if (!cargarInstantanea()) {
+                reconstruir();
+                guardarInstantanea();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo preparar el índice de texto al arrancar: {}", e.getMessage());
+        }
+    }
+
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            vaciar();
+            long after = 0;
+            List<DefinicionTextoDTO> lote;
+            do {
+                lote = definicionRepository.findTextos(after, Limit.of(TAMANO_LOTE));
+                for (DefinicionTextoDTO definicion : lote) {
+                    agregar(definicion);
+                    after = definicion.getId();
+                }
+            } while (lote.size() == TAMANO_LOTE);
+            cargado = true;
+            modificado = true;
+            log.info("Índice de texto construido con {} definiciones y {} términos", documentosVivos, postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Devuelve los ids de definición mejor puntuados, como mucho uno por palabra, de mayor a menor puntuación
+    public LinkedHashMap<Long, Double> buscar(String consulta, int limit) {
+        if (!cargado) {
+            reconstruir();
+        }
+        Set<String> terminos = new LinkedHashSet<>(AnalizadorEspanol.analizar(consulta));
+        Map<Integer, Double> puntuaciones = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (documentosVivos == 0) {
+                return new LinkedHashMap<>();
+            }
+            double longitudMedia = (double) longitudTotal / documentosVivos;
+            for (String termino : terminos) {
+                Postings lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentosVivos - lista.tamano + 0.5) / (lista.tamano + 0.5));
+                for (int i = 0; i < lista.tamano; i++) {
+                    int documento = lista.documentos[i];
+                    if (eliminados.get(documento)) {
+                        continue;
+                    }
+                    int tf = lista.frecuencias[i];
+                    double norma = K1 * (1 - B + B * longitudes[documento] / longitudMedia);
+                    puntuaciones.merge(documento, idf * tf * (K1 + 1) / (tf + norma), Double::sum);
+                }
+            }
+            List<Map.Entry<Integer, Double>> ordenados = new ArrayList<>(puntuaciones.entrySet());
+            ordenados.sort(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            LinkedHashMap<Long, Double> resultado = new LinkedHashMap<>();
+            Set<Long> palabrasVistas = new HashSet<>();
+            for (Map.Entry<Integer, Double> entrada : ordenados) {
+                if (resultado.size() >= limit) {
+                    break;
+                }
+                int documento = entrada.getKey();
+                if (palabrasVistas.add(palabraIds[documento])) {
+                    resultado.put(definicionIds[documento], entrada.getValue());
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCambioDefinicion(CambioDefinicionEvent evento) {
+        if (evento.getPalabraId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!cargado) {
+                return;
+            }
+            if (evento.getTipo() == CambioDefinicionEvent.Tipo.AGREGADA) {
+                agregar(new DefinicionTextoDTO(evento.getDefinicionId(), evento.getPalabraId(), evento.getDescripcion(), evento.getEjemplo()));
+            } else {
+                quitar(evento.getDefinicionId());
+            }
+            modificado = true;
+            compactarSiHaceFalta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCambioPalabra(CambioPalabraEvent evento) {
+        if (evento.getTipo() == CambioPalabraEvent.Tipo.ACTUALIZADA || evento.getNumeroDefiniciones() == 0) {
+            return;
+        }
+        // Las definiciones creadas junto con la palabra no viajan en el evento; se leen ya confirmadas
+        List<DefinicionTextoDTO> nuevas = evento.getTipo() == CambioPalabraEvent.Tipo.CREADA
+                ? definicionRepository.findTextosByPalabraId(evento.getPalabraId())
+                : Collections.emptyList();
+        lock.writeLock().lock();
+        try {
+            if (!cargado) {
+                return;
+            }
+            if (evento.getTipo() == CambioPalabraEvent.Tipo.ELIMINADA) {
+                quitarPalabra(evento.getPalabraId());
+            } else {
+                for (DefinicionTextoDTO definicion : nuevas) {
+                    agregar(definicion);
+                }
+            }
+            modificado = true;
+            compactarSiHaceFalta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        reconstruir();
+    }
+
+    // Las definiciones de una palabra creada en otra instancia llegan como DEFINICION_AGREGADA
+    @EventListener
+    public void onCambiosRemotos(CambiosRemotosEvent evento) {
+        if (evento.isRecargar()) {
+            if (cargado) {
+                reconstruir();
+            }
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!cargado) {
+                return;
+            }
+            for (Cambio cambio : evento.getCambios()) {
+                switch (cambio.getTipo()) {
+                    case DEFINICION_AGREGADA -> agregar(new DefinicionTextoDTO(cambio.getDefinicionId(), cambio.getPalabraId(), cambio.getDescripcion(), cambio.getEjemplo()));
+                    case DEFINICION_ELIMINADA -> quitar(cambio.getDefinicionId());
+                    case PALABRA_ELIMINADA -> quitarPalabra(cambio.getPalabraId());
+                    default -> {
+                        continue;
+                    }
+                }
+                modificado = true;
+            }
+            compactarSiHaceFalta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${diccionario.busqueda.guardado-ms:600000}",
+            initialDelayString = "${diccionario.busqueda.guardado-ms:600000}")
+    public void guardarSiHaCambiado() {
+        if (modificado) {
+            guardarInstantanea();
+        }
+    }
+
+    @PreDestroy
+    public void alCerrar() {
+        guardarSiHaCambiado();
+    }
+
+    private void agregar(DefinicionTextoDTO definicion) {
+        if (documentoPorDefinicion.containsKey(definicion.getId())) {
+            return;
+        }
+        List<String> terminos = AnalizadorEspanol.analizar(definicion.getDescripcion());
+        terminos.addAll(AnalizadorEspanol.analizar(definicion.getEjemplo()));
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : terminos) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+        int documento = nuevoDocumento(definicion.getId(), definicion.getPalabraId(), terminos.size());
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            postings.computeIfAbsent(entrada.getKey(), t -> new Postings()).agregar(documento, entrada.getValue());
+        }
+    }
+
+    private int nuevoDocumento(long definicionId, long palabraId, int longitud) {
+        if (numeroDocumentos == definicionIds.length) {
+            int capacidad = definicionIds.length * 2;
+            definicionIds = Arrays.copyOf(definicionIds, capacidad);
+            palabraIds = Arrays.copyOf(palabraIds, capacidad);
+            longitudes = Arrays.copyOf(longitudes, capacidad);
+        }
+        int documento = numeroDocumentos++;
+        definicionIds[documento] = definicionId;
+        palabraIds[documento] = palabraId;
+        longitudes[documento] = longitud;
+        documentoPorDefinicion.put(definicionId, documento);
+        documentosVivos++;
+        longitudTotal += longitud;
+        return documento;
+    }
+
+    private void quitar(Long definicionId) {
+        Integer documento = documentoPorDefinicion.remove(definicionId);
+        if (documento == null) {
+            return;
+        }
+        eliminados.set(documento);
+        documentosVivos--;
+        longitudTotal -= longitudes[documento];
+    }
+
+    private void quitarPalabra(long palabraId) {
+        for (int documento = 0; documento < numeroDocumentos; documento++) {
+            if (!eliminados.get(documento) && palabraIds[documento] == palabraId) {
+                quitar(definicionIds[documento]);
+            }
+        }
+    }
+
+    private void compactarSiHaceFalta() {
+        if (numeroDocumentos - documentosVivos > numeroDocumentos / 4) {
+            compactar();
+        }
+    }
+
+    // Renumera los documentos vivos; como la renumeración conserva el orden, las listas siguen ordenadas
+    private void compactar() {
+        int[] nuevoNumero = new int[numeroDocumentos];
+        int vivos = 0;
+        for (int documento = 0; documento < numeroDocumentos; documento++) {
+            if (eliminados.get(documento)) {
+                nuevoNumero[documento] = -1;
+            } else {
+                nuevoNumero[documento] = vivos;
+                definicionIds[vivos] = definicionIds[documento];
+                palabraIds[vivos] = palabraIds[documento];
+                longitudes[vivos] = longitudes[documento];
+                vivos++;
+            }
+        }
+        Iterator<Postings> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            Postings lista = iterator.next();
+            int tamano = 0;
+            for (int i = 0; i < lista.tamano; i++) {
+                int documento = nuevoNumero[lista.documentos[i]];
+                if (documento >= 0) {
+                    lista.documentos[tamano] = documento;
+                    lista.frecuencias[tamano] = lista.frecuencias[i];
+                    tamano++;
+                }
+            }
+            lista.tamano = tamano;
+            if (tamano == 0) {
+                iterator.remove();
+            }
+        }
+        numeroDocumentos = vivos;
+        eliminados.clear();
+        documentoPorDefinicion.clear();
+        for (int documento = 0; documento < vivos; documento++) {
+            documentoPorDefinicion.put(definicionIds[documento], documento);
+        }
+    }
+
+    private void vaciar() {
+        numeroDocumentos = 0;
+        documentosVivos = 0;
+        longitudTotal = 0;
+        eliminados.clear();
+        postings.clear();
+        documentoPorDefinicion.clear();
+    }
+
+    private boolean cargarInstantanea() {
+        if (rutaInstantanea == null || rutaInstantanea.isBlank() || !Files.exists(Paths.get(rutaInstantanea))) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(rutaInstantanea))))) {
+            if (in.readInt() != FORMATO) {
+                return false;
+            }
+            long maxDefinicionId = in.readLong();
+            vaciar();
+            int documentos = in.readInt();
+            for (int i = 0; i < documentos; i++) {
+                nuevoDocumento(in.readLong(), in.readLong(), in.readInt());
+            }
+            int terminos = in.readInt();
+            for (int t = 0; t < terminos; t++) {
+                String termino = in.readUTF();
+                int tamano = leerVarint(in);
+                Postings lista = new Postings(tamano);
+                int documento = 0;
+                for (int i = 0; i < tamano; i++) {
+                    documento += leerVarint(in);
+                    lista.agregar(documento, leerVarint(in));
+                }
+                postings.put(termino, lista);
+            }
+            // La instantánea solo vale si la base de datos no ha cambiado desde que se escribió
+            Long maxEnBase = definicionRepository.maxIdAsignada();
+            if (documentosVivos != definicionRepository.countAsignadas() || maxDefinicionId != (maxEnBase == null ? 0 : maxEnBase)) {
+                log.info("La instantánea del índice de texto no coincide con la base de datos; se reconstruye");
+                vaciar();
+                return false;
+            }
+            cargado = true;
+            modificado = false;
+            log.info("Índice de texto cargado desde {} con {} definiciones", rutaInstantanea, documentosVivos);
+            return true;
+        } catch (IOException e) {
+            log.warn("No se pudo leer la instantánea del índice de texto: {}", e.getMessage());
+            vaciar();
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void guardarInstantanea() {
+        if (rutaInstantanea == null || rutaInstantanea.isBlank()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!cargado) {
+                return;
+            }
+            compactar();
+            Path destino = Paths.get(rutaInstantanea).toAbsolutePath();
+            Files.createDirectories(destino.getParent());
+            Path temporal = Files.createTempFile(destino.getParent(), "indice-textual", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                out.writeInt(FORMATO);
+                long maxDefinicionId = 0;
+                for (int documento = 0; documento < numeroDocumentos; documento++) {
+                    maxDefinicionId = Math.max(maxDefinicionId, definicionIds[documento]);
+                }
+                out.writeLong(maxDefinicionId);
+                out.writeInt(numeroDocumentos);
+                for (int documento = 0; documento < numeroDocumentos; documento++) {
+                    out.writeLong(definicionIds[documento]);
+                    out.writeLong(palabraIds[documento]);
+                    out.writeInt(longitudes[documento]);
+                }
+                out.writeInt(postings.size());
+                for (Map.Entry<String, Postings> entrada : postings.entrySet()) {
+                    Postings lista = entrada.getValue();
+                    out.writeUTF(entrada.getKey());
+                    escribirVarint(out, lista.tamano);
+                    int anterior = 0;
+                    for (int i = 0; i < lista.tamano; i++) {
+                        escribirVarint(out, lista.documentos[i] - anterior);
+                        escribirVarint(out, lista.frecuencias[i]);
+                        anterior = lista.documentos[i];
+                    }
+                }
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modificado = false;
+        } catch (IOException e) {
+            log.warn("No se pudo guardar la instantánea del índice de texto: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void escribirVarint(DataOutputStream out, int valor) throws IOException {
+        while ((valor & ~0x7F) != 0) {
+            out.writeByte((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        out.writeByte(valor);
+    }
+
+    private static int leerVarint(DataInputStream in) throws IOException {
+        int valor = 0;
+        int desplazamiento = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            valor |= (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    private static final class Postings {
+
+        int[] documentos;
+        int[] frecuencias;
+        int tamano;
+
+        Postings() {
+            this(2);
+        }
+
+        Postings(int capacidad) {
+            documentos = new int[Math.max(capacidad, 1)];
+            frecuencias = new int[Math.max(capacidad, 1)];
+        }
+
+        void agregar(int documento, int frecuencia) {
+            if (tamano == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamano * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamano * 2);
+            }
+            documentos[tamano] = documento;
+            frecuencias[tamano] = frecuencia;
+            tamano++;
+        }
+    }
+}
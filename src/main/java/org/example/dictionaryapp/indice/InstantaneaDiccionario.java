@@ -0,0 +1,186 @@
+package org.example.dictionaryapp.indice;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dictionaryapp.dto.FilaDiccionarioDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.example.dictionaryapp.service.RegistroCambios;
+import org.example.dictionaryapp.service.VersionDiccionario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Lecturas desde una instantánea en disco (diccionario.instantanea.ruta) mientras la versión del diccionario
+// no cambie; tras una escritura se reconstruye pasado espera-ms, y al arrancar se reutiliza si su seq coincide.
+@Component
+public class InstantaneaDiccionario {
+
+    private static final Logger log = LoggerFactory.getLogger(InstantaneaDiccionario.class);
+
+    private static final long REINTENTO_MS = 60000;
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private VersionDiccionario versionDiccionario;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${diccionario.instantanea.ruta:}")
+    private String ruta;
+
+    @Value("${diccionario.instantanea.espera-ms:2000}")
+    private long esperaMs;
+
+    private volatile Cargada actual;
+
+    private final AtomicBoolean pendiente = new AtomicBoolean();
+
+    private final ScheduledExecutorService construcciones = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "instantanea-diccionario");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @PostConstruct
+    public void inicializar() {
+        if (!activa()) {
+            return;
+        }
+        Path destino = Paths.get(ruta);
+        if (Files.exists(destino)) {
+            try {
+                ArchivoInstantanea archivo = ArchivoInstantanea.abrir(destino);
+                if (archivo.getSeq() == registroCambios.ultimoConfirmado()) {
+                    actual = new Cargada(archivo, versionDiccionario.getVersion());
+                    log.info("Instantánea del diccionario cargada desde {} con {} palabras", ruta, archivo.getPalabras());
+                    return;
+                }
+                log.info("La instantánea del diccionario no coincide con el registro de cambios; se reconstruye");
+            } catch (IOException e) {
+                log.warn("No se pudo leer la instantánea del diccionario: {}", e.getMessage());
+            }
+        }
+        programar(0);
+    }
+
+    public boolean activa() {
+        return ruta != null && !ruta.isBlank();
+    }
+
+    // La instantánea si está al día; si no, null y la lectura debe ir a la base de datos
+    public ArchivoInstantanea vigente() {
+        Cargada cargada = actual;
+        return cargada != null && cargada.version == versionDiccionario.getVersion() ? cargada.archivo : null;
+    }
+
+    // Para construir índices en memoria: desde la instantánea si está al día y si no desde la base de datos
+    public void recorrerPorLotes(int tamanoLote, Consumer<List<PalabraDTO>> consumidor) {
+        ArchivoInstantanea archivo = vigente();
+        if (archivo == null) {
+            palabraRepository.recorrerPorLotes(tamanoLote, consumidor);
+            return;
+        }
+        long after = 0;
+        List<PalabraDTO> lote;
+        do {
+            lote = archivo.pagina(after, tamanoLote);
+            if (!lote.isEmpty()) {
+                consumidor.accept(lote);
+                after = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == tamanoLote);
+    }
+
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        if (activa()) {
+            programar(esperaMs);
+        }
+    }
+
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        if (activa()) {
+            programar(esperaMs);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        construcciones.shutdownNow();
+    }
+
+    // Los cambios que llegan con una construcción ya programada van en ella: con escrituras continuas
+    // se sigue construyendo cada espera-ms en lugar de esperar a que paren
+    private void programar(long retrasoMs) {
+        if (pendiente.compareAndSet(false, true)) {
+            construcciones.schedule(this::construir, retrasoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void construir() {
+        pendiente.set(false);
+        long inicio = System.currentTimeMillis();
+        // La versión y el seq se leen antes que los datos: la instantánea tiene al menos lo que indican
+        long version = versionDiccionario.getVersion();
+        long seq = registroCambios.ultimoConfirmado();
+        try {
+            Path destino = Paths.get(ruta).toAbsolutePath();
+            Files.createDirectories(destino.getParent());
+            Path temporal = Files.createTempFile(destino.getParent(), "diccionario", ".tmp");
+            try {
+                TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+                lectura.setReadOnly(true);
+                lectura.executeWithoutResult(estado -> {
+                    try (Stream<FilaDiccionarioDTO> filas = palabraRepository.streamFilasDiccionario(0)) {
+                        ArchivoInstantanea.escribir(temporal, filas.iterator(), seq);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+            ArchivoInstantanea archivo = ArchivoInstantanea.abrir(destino);
+            actual = new Cargada(archivo, version);
+            log.info("Instantánea del diccionario construida con {} palabras y {} definiciones en {} ms",
+                    archivo.getPalabras(), archivo.getDefiniciones(), System.currentTimeMillis() - inicio);
+        } catch (IOException | RuntimeException e) {
+            // Mientras tanto las lecturas van a la base de datos
+            log.warn("No se pudo construir la instantánea del diccionario, se reintentará: {}", e.getMessage());
+            programar(Math.max(esperaMs, REINTENTO_MS));
+        }
+    }
+
+    private record Cargada(ArchivoInstantanea archivo, long version) {
+    }
+}
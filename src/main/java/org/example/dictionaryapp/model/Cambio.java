@@ -0,0 +1,125 @@
+package org.example.dictionaryapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.*;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+
+import java.time.Instant;
+
+// Entrada del registro de cambios (/palabras/cambios). Solo se añaden filas, nunca se modifican.
+// Los cambios de palabra llevan su estado completo (término y categoría) y se aplican como
+// alta o sustitución; los de definición, la definición agregada o el id de la eliminada.
+@Entity
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Cambio {
+
+    public enum Tipo { PALABRA_CREADA, PALABRA_ACTUALIZADA, PALABRA_ELIMINADA, DEFINICION_AGREGADA, DEFINICION_ELIMINADA }
+
+    // Número de secuencia del cambio: los clientes piden los posteriores al último que recibieron.
+    // Lo asigna RegistroCambios con ContadorCambios, no una secuencia: tiene que seguir el orden de confirmación.
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(nullable = false)
+    private Long palabraId;
+
+    private String termino;
+
+    private String categoriaGramatical;
+
+    private Long definicionId;
+
+    private String descripcion;
+
+    private String ejemplo;
+
+    @JsonIgnore
+    private Instant instante;
+
+    protected Cambio() {
+    }
+
+    private Cambio(Tipo tipo, Long palabraId) {
+        this.tipo = tipo;
+        this.palabraId = palabraId;
+        this.instante = Instant.now();
+    }
+
+    public static Cambio dePalabra(Tipo tipo, Palabra palabra) {
+        Cambio cambio = new Cambio(tipo, palabra.getId());
+        cambio.termino = palabra.getTermino();
+        if (tipo != Tipo.PALABRA_ELIMINADA) {
+            cambio.categoriaGramatical = palabra.getCategoriaGramatical();
+        }
+        return cambio;
+    }
+
+    public static Cambio definicionAgregada(Long palabraId, Definicion definicion) {
+        Cambio cambio = new Cambio(Tipo.DEFINICION_AGREGADA, palabraId);
+        cambio.definicionId = definicion.getId();
+        cambio.descripcion = definicion.getDescripcion();
+        cambio.ejemplo = definicion.getEjemplo();
+        return cambio;
+    }
+
+    public static Cambio definicionEliminada(Long palabraId, Long definicionId) {
+        Cambio cambio = new Cambio(Tipo.DEFINICION_ELIMINADA, palabraId);
+        cambio.definicionId = definicionId;
+        return cambio;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getPalabraId() {
+        return palabraId;
+    }
+
+    public String getTermino() {
+        return termino;
+    }
+
+    public String getCategoriaGramatical() {
+        return categoriaGramatical;
+    }
+
+    public Long getDefinicionId() {
+        return definicionId;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public String getEjemplo() {
+        return ejemplo;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public boolean esDePalabra() {
+        return tipo == Tipo.PALABRA_CREADA || tipo == Tipo.PALABRA_ACTUALIZADA || tipo == Tipo.PALABRA_ELIMINADA;
+    }
+
+    // Estado de la palabra tras un cambio de palabra que no es de eliminación
+    public PalabraDTO palabra() {
+        return new PalabraDTO(palabraId, termino, categoriaGramatical);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.dictionaryapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Fila única con el último seq asignado en el registro de cambios (RegistroCambios). Cada escritura
+// la actualiza para obtener sus seq y la mantiene bloqueada hasta que termina la transacción.
+@Entity
+@Table(name = "cambio_contador")
+public class ContadorCambios {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long ultimo;
+
+    protected ContadorCambios() {
+    }
+
+    public ContadorCambios(long ultimo) {
+        this.id = ID;
+        this.ultimo = ultimo;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Long getUltimo() {
+        return ultimo;
+    }
+}
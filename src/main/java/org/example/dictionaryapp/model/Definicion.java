@@ -7,7 +7,8 @@ import jakarta.persistence.*;
 public class Definicion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "definicion_seq")
+    @SequenceGenerator(name = "definicion_seq", sequenceName = "definicion_seq", allocationSize = 50)
     private Long id;
 
     private String descripcion;
@@ -15,7 +16,7 @@ public class Definicion {
     private String ejemplo;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "palabra_id")
     private Palabra palabra;
 
@@ -1,20 +1,38 @@
 package org.example.dictionaryapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.example.dictionaryapp.util.Normalizador;
 
 import java.util.List;
 
 @Entity
+@Table(indexes = {@Index(name = "idx_palabra_termino_normalizado", columnList = "terminoNormalizado, id"),
+        @Index(name = "idx_palabra_categoria", columnList = "categoriaGramatical, id")},
+        uniqueConstraints = @UniqueConstraint(name = "uk_palabra_termino", columnNames = "termino"))
 public class Palabra {
 
+    // Secuencia con asignación por bloques: permite agrupar las inserciones en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "palabra_seq")
+    @SequenceGenerator(name = "palabra_seq", sequenceName = "palabra_seq", allocationSize = 50)
     private Long id;
 
     private String termino;
 
+    // Clave sin tildes ni mayúsculas para búsquedas; se recalcula en cada escritura
+    @JsonIgnore
+    private String terminoNormalizado;
+
     private String categoriaGramatical;
 
+    // Versión de la fila: la incrementa Hibernate en cada cambio de la palabra o de sus definiciones
+    // y sirve de ETag en /palabras/{id}. Solo se expone; la que envíe el cliente se ignora.
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @OneToMany(mappedBy = "palabra", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Definicion> definiciones;
 
@@ -35,6 +53,16 @@ public class Palabra {
         this.termino = termino;
     }
 
+    public String getTerminoNormalizado() {
+        return terminoNormalizado;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizarTermino() {
+        this.terminoNormalizado = Normalizador.normalizar(termino);
+    }
+
     public String getCategoriaGramatical() {
         return categoriaGramatical;
     }
@@ -43,6 +71,14 @@ public class Palabra {
         this.categoriaGramatical = categoriaGramatical;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Definicion> getDefiniciones() {
         return definiciones;
     }
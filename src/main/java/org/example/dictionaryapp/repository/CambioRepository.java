@@ -0,0 +1,37 @@
+package org.example.dictionaryapp.repository;
+
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.model.ContadorCambios;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface CambioRepository extends JpaRepository<Cambio, Long> {
+
+    // Cambios con seq en (desde, hasta), ordenados por seq
+    @Query("SELECT c FROM Cambio c WHERE c.seq > :desde AND c.seq < :hasta ORDER BY c.seq")
+    List<Cambio> findPagina(@Param("desde") long desde, @Param("hasta") long hasta, Limit limit);
+
+    @Transactional
+    @Query("SELECT MAX(c.seq) FROM Cambio c")
+    Long maxSeq();
+
+    // Contador de seq (ContadorCambios), siempre en la primaria. Reservar deja la fila bloqueada
+    // hasta el final de la transacción; después, ultimoSeq devuelve el último de los reservados.
+    @Transactional
+    @Modifying
+    @Query("UPDATE ContadorCambios c SET c.ultimo = c.ultimo + :cantidad WHERE c.id = " + ContadorCambios.ID)
+    int reservarSeqs(@Param("cantidad") long cantidad);
+
+    @Transactional
+    @Query("SELECT c.ultimo FROM ContadorCambios c WHERE c.id = " + ContadorCambios.ID)
+    Long ultimoSeq();
+}
@@ -1,10 +1,43 @@
 package org.example.dictionaryapp.repository;
 
 
+import org.example.dictionaryapp.dto.ConteoDTO;
+import org.example.dictionaryapp.dto.DefinicionTextoDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
 import org.example.dictionaryapp.model.Definicion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface DefinicionRepository extends JpaRepository<Definicion, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT COUNT(d) FROM Definicion d WHERE d.palabra IS NOT NULL")
+    long countAsignadas();
+
+    @Query("SELECT MAX(d.id) FROM Definicion d WHERE d.palabra IS NOT NULL")
+    Long maxIdAsignada();
+
+    @Query("SELECT new org.example.dictionaryapp.dto.DefinicionTextoDTO(d.id, d.palabra.id, d.descripcion, d.ejemplo) " +
+            "FROM Definicion d WHERE d.palabra IS NOT NULL AND d.id > :after ORDER BY d.id")
+    List<DefinicionTextoDTO> findTextos(@Param("after") long after, Limit limit);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.DefinicionTextoDTO(d.id, d.palabra.id, d.descripcion, d.ejemplo) " +
+            "FROM Definicion d WHERE d.palabra.id = :palabraId ORDER BY d.id")
+    List<DefinicionTextoDTO> findTextosByPalabraId(@Param("palabraId") Long palabraId);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.ConteoDTO(d.palabra.id, COUNT(d)) " +
+            "FROM Definicion d WHERE d.palabra.id IN :ids GROUP BY d.palabra.id")
+    List<ConteoDTO<Long>> contarPorPalabra(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.ResultadoBusquedaDTO(p.id, p.termino, p.categoriaGramatical, d.id, d.descripcion, d.ejemplo) " +
+            "FROM Definicion d JOIN d.palabra p WHERE d.id IN :ids")
+    List<ResultadoBusquedaDTO> findResultadosByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,22 +1,142 @@
 package org.example.dictionaryapp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dictionaryapp.dto.ConteoDTO;
+import org.example.dictionaryapp.dto.FilaDiccionarioDTO;
+import org.example.dictionaryapp.dto.FilaExportacionDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
 import org.example.dictionaryapp.model.Palabra;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface PalabraRepository extends JpaRepository<Palabra, Long> {
 
-    @Query("SELECT p FROM Palabra p WHERE p.categoriaGramatical = :categoria")
-    List<Palabra> findByCategoriaGramatical(@Param("categoria") String categoria);
+    // Consultas paginadas por clave: devuelven las palabras con id mayor que :after, ordenadas por id
+    @Query("SELECT new org.example.dictionaryapp.dto.PalabraDTO(p.id, p.termino, p.categoriaGramatical) " +
+            "FROM Palabra p WHERE p.id > :after ORDER BY p.id")
+    List<PalabraDTO> findPagina(@Param("after") long after, Limit limit);
 
-    @Query("SELECT p FROM Palabra p WHERE p.termino LIKE :inicial%")
-    List<Palabra> findByTerminoStartingWith(@Param("inicial") char inicial);
+    // Recorre todo el diccionario por lotes usando la paginación por clave, para construir índices en memoria
+    default void recorrerPorLotes(int tamanoLote, Consumer<List<PalabraDTO>> consumidor) {
+        long after = 0;
+        List<PalabraDTO> lote;
+        do {
+            lote = findPagina(after, Limit.of(tamanoLote));
+            if (!lote.isEmpty()) {
+                consumidor.accept(lote);
+                after = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == tamanoLote);
+    }
+
+    @Query("SELECT p.id FROM Palabra p WHERE p.id > :after ORDER BY p.id")
+    List<Long> findPaginaIds(@Param("after") long after, Limit limit);
+
+    // Palabras con sus definiciones en una sola sentencia
+    @Query("SELECT DISTINCT p FROM Palabra p LEFT JOIN FETCH p.definiciones WHERE p.id IN :ids ORDER BY p.id")
+    List<Palabra> findConDefinicionesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT p FROM Palabra p LEFT JOIN FETCH p.definiciones WHERE p.termino IN :terminos")
+    List<Palabra> findConDefinicionesByTerminoIn(@Param("terminos") Collection<String> terminos);
+
+    @EntityGraph(attributePaths = "definiciones")
+    @Query("SELECT p FROM Palabra p WHERE p.id = :id")
+    Optional<Palabra> findConDefinicionesById(@Param("id") Long id);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.PalabraDTO(p.id, p.termino, p.categoriaGramatical) " +
+            "FROM Palabra p WHERE p.id IN :ids ORDER BY p.id")
+    List<PalabraDTO> findByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.PalabraDTO(p.id, p.termino, p.categoriaGramatical) " +
+            "FROM Palabra p WHERE p.terminoNormalizado = :clave ORDER BY p.id")
+    List<PalabraDTO> findByTerminoNormalizado(@Param("clave") String clave);
+
+    // El rango [desde, hasta) permite recorrer el índice sea cual sea la collation de la base;
+    // el LIKE descarta lo que una collation no binaria pudiera colar dentro del rango
+    @Query("SELECT new org.example.dictionaryapp.dto.PalabraDTO(p.id, p.termino, p.categoriaGramatical) " +
+            "FROM Palabra p WHERE p.terminoNormalizado >= :desde AND p.terminoNormalizado < :hasta " +
+            "AND p.terminoNormalizado LIKE :prefijo% AND p.id > :after ORDER BY p.id")
+    List<PalabraDTO> findByPrefijoNormalizado(@Param("desde") String desde, @Param("hasta") String hasta,
+                                              @Param("prefijo") String prefijo, @Param("after") long after, Limit limit);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.PalabraDTO(p.id, p.termino, p.categoriaGramatical) " +
+            "FROM Palabra p WHERE p.terminoNormalizado IS NULL AND p.id > :after ORDER BY p.id")
+    List<PalabraDTO> findSinNormalizar(@Param("after") long after, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Palabra p SET p.terminoNormalizado = :clave WHERE p.id = :id")
+    int actualizarTerminoNormalizado(@Param("id") Long id, @Param("clave") String clave);
+
+    // Bloqueo optimista en una sola sentencia: solo actualiza si la palabra sigue en la versión leída
+    @Transactional
+    @Modifying
+    @Query("UPDATE Palabra p SET p.termino = :termino, p.terminoNormalizado = :normalizado, p.categoriaGramatical = :categoria, " +
+            "p.version = p.version + 1 WHERE p.id = :id AND p.version = :version")
+    int actualizarSiVersion(@Param("id") Long id, @Param("version") Long version, @Param("termino") String termino,
+                            @Param("normalizado") String normalizado, @Param("categoria") String categoria);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.FilaDiccionarioDTO(p.id, p.termino, p.categoriaGramatical, p.version, d.id, d.descripcion, d.ejemplo) " +
+            "FROM Palabra p LEFT JOIN p.definiciones d WHERE p.id = :id ORDER BY d.id")
+    List<FilaDiccionarioDTO> findFilasById(@Param("id") Long id);
 
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Palabra p WHERE p.termino = :termino")
     boolean existsByTermino(@Param("termino") String termino);
-}
\ No newline at end of file
+
+    // Comprobación de duplicados por lotes en la importación masiva
+    @Query("SELECT p.termino FROM Palabra p WHERE p.termino IN :terminos")
+    List<String> findTerminosExistentes(@Param("terminos") Collection<String> terminos);
+
+    // Escritura diferida de definiciones: qué palabras siguen existiendo, y subida de la versión
+    // de las que reciben definiciones sin cargarlas
+    @Query("SELECT p.id FROM Palabra p WHERE p.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Palabra p SET p.version = p.version + 1 WHERE p.id IN :ids")
+    int incrementarVersiones(@Param("ids") Collection<Long> ids);
+
+    // Cursor de solo avance: debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.example.dictionaryapp.dto.FilaExportacionDTO(p.id, p.termino, p.categoriaGramatical, d.descripcion) " +
+            "FROM Palabra p JOIN p.definiciones d ORDER BY p.id, d.id")
+    Stream<FilaExportacionDTO> streamFilasExportacion();
+
+    // Igual, para la descarga binaria: también las palabras sin definiciones y todos los campos
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.example.dictionaryapp.dto.FilaDiccionarioDTO(p.id, p.termino, p.categoriaGramatical, p.version, d.id, d.descripcion, d.ejemplo) " +
+            "FROM Palabra p LEFT JOIN p.definiciones d WHERE p.id > :after ORDER BY p.id, d.id")
+    Stream<FilaDiccionarioDTO> streamFilasDiccionario(@Param("after") long after);
+
+    @Query("SELECT new org.example.dictionaryapp.dto.ConteoDTO(p.categoriaGramatical, COUNT(p)) FROM Palabra p GROUP BY p.categoriaGramatical")
+    List<ConteoDTO<String>> contarPorCategoriaGramatical();
+
+    // Número de palabras por cada cantidad de definiciones (0, 1, 2, ...)
+    @Query("SELECT new org.example.dictionaryapp.dto.ConteoDTO(t.numero, COUNT(t.numero)) " +
+            "FROM (SELECT COUNT(d.id) AS numero FROM Palabra p LEFT JOIN p.definiciones d GROUP BY p.id) t " +
+            "GROUP BY t.numero")
+    List<ConteoDTO<Long>> contarPorNumeroDeDefiniciones();
+}
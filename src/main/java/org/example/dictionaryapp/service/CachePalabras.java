@@ -0,0 +1,219 @@
+package org.example.dictionaryapp.service;
+
+import org.example.dictionaryapp.configs.CacheConfig;
+import org.example.dictionaryapp.configs.ConsistenciaLecturas;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Caché de las lecturas por id y de existencia, invalidada con los eventos de cambio propios y remotos.
+// Una carga no se guarda si su clave se ha invalidado mientras tanto.
+@Component
+public class CachePalabras {
+
+    private static final int FRANJAS = 4096;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLongArray invalidaciones = new AtomicLongArray(FRANJAS);
+
+    // Cuántas veces se han vaciado las cachés enteras
+    private final AtomicLong vaciados = new AtomicLong();
+
+    public PalabraDTO palabra(Long id, Callable<PalabraDTO> cargar) {
+        return leer(CacheConfig.PALABRAS, id, cargar);
+    }
+
+    public Palabra palabraConDefiniciones(Long id, Callable<Palabra> cargar) {
+        PalabraGuardada guardada = leer(CacheConfig.PALABRAS_CON_DEFINICIONES, id, () -> PalabraGuardada.de(cargar.call()));
+        return guardada == null ? null : guardada.palabra();
+    }
+
+    public boolean existe(String termino, Callable<Boolean> cargar) {
+        return Boolean.TRUE.equals(leer(CacheConfig.EXISTENCIAS, termino, cargar));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCambioPalabra(CambioPalabraEvent evento) {
+        invalidarPalabra(evento.getPalabraId());
+        if (evento.getAnterior() != null) {
+            invalidar(CacheConfig.EXISTENCIAS, evento.getAnterior().getTermino());
+        }
+        if (evento.getActual() != null) {
+            invalidar(CacheConfig.EXISTENCIAS, evento.getActual().getTermino());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCambioDefinicion(CambioDefinicionEvent evento) {
+        if (evento.getPalabraId() != null) {
+            // También la palabra sin definiciones: su versión cambia con cada definición
+            invalidarPalabra(evento.getPalabraId());
+        }
+    }
+
+    // Tras una importación puede haber fallos cacheados de términos o ids que ahora existen
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        vaciar();
+    }
+
+    @EventListener
+    public void onCambiosRemotos(CambiosRemotosEvent evento) {
+        if (evento.isRecargar()) {
+            vaciar();
+            return;
+        }
+        boolean vaciarExistencias = false;
+        for (Cambio cambio : evento.getCambios()) {
+            Long id = cambio.getPalabraId();
+            if (cambio.getTipo() == Cambio.Tipo.PALABRA_ACTUALIZADA) {
+                // El registro no trae el término anterior: se toma de la palabra en caché si está
+                String anterior = terminoEnCache(id);
+                if (anterior != null) {
+                    invalidar(CacheConfig.EXISTENCIAS, anterior);
+                } else {
+                    vaciarExistencias = true;
+                }
+            }
+            invalidarPalabra(id);
+            if (cambio.getTermino() != null) {
+                invalidar(CacheConfig.EXISTENCIAS, cambio.getTermino());
+            }
+        }
+        if (vaciarExistencias) {
+            vaciados.incrementAndGet();
+            cache(CacheConfig.EXISTENCIAS).clear();
+        }
+    }
+
+    private void vaciar() {
+        vaciados.incrementAndGet();
+        cache(CacheConfig.PALABRAS).clear();
+        cache(CacheConfig.PALABRAS_CON_DEFINICIONES).clear();
+        cache(CacheConfig.EXISTENCIAS).clear();
+    }
+
+    private void invalidarPalabra(Long id) {
+        invalidar(CacheConfig.PALABRAS, id);
+        invalidar(CacheConfig.PALABRAS_CON_DEFINICIONES, id);
+    }
+
+    // El contador se incrementa antes de quitar la entrada: una carga en curso ya no la guardará
+    private void invalidar(String nombre, Object clave) {
+        invalidaciones.incrementAndGet(franja(nombre, clave));
+        cache(nombre).evict(clave);
+    }
+
+    // Dos claves en la misma franja solo hacen que alguna carga no se guarde
+    private static int franja(String nombre, Object clave) {
+        int hash = 31 * nombre.hashCode() + (clave == null ? 0 : clave.hashCode());
+        return (hash ^ (hash >>> 16)) & (FRANJAS - 1);
+    }
+
+    private String terminoEnCache(Long id) {
+        Cache.ValueWrapper palabra = cache(CacheConfig.PALABRAS).get(id);
+        if (palabra != null && palabra.get() instanceof PalabraDTO dto) {
+            return dto.getTermino();
+        }
+        Cache.ValueWrapper conDefiniciones = cache(CacheConfig.PALABRAS_CON_DEFINICIONES).get(id);
+        if (conDefiniciones != null && conDefiniciones.get() instanceof PalabraGuardada completa) {
+            return completa.termino();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T leer(String nombre, Object clave, Callable<T> cargar) {
+        Cache cache = cache(nombre);
+        Cache.ValueWrapper guardado = cache.get(clave);
+        if (guardado != null) {
+            return (T) guardado.get();
+        }
+        int franja = franja(nombre, clave);
+        long vaciado = vaciados.get();
+        long version = invalidaciones.get(franja);
+        T valor;
+        try {
+            // Lo cargado se sirve a todos los clientes: solo vale una réplica al día
+            valor = ConsistenciaLecturas.alDia(cargar);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new Cache.ValueRetrievalException(clave, cargar, e);
+        }
+        if (vaciados.get() == vaciado && invalidaciones.get(franja) == version) {
+            cache.put(clave, valor);
+            // Una invalidación entre la comprobación y el put podría haber llegado antes que el put
+            if (vaciados.get() != vaciado || invalidaciones.get(franja) != version) {
+                cache.evict(clave);
+            }
+        }
+        return valor;
+    }
+
+    private Cache cache(String nombre) {
+        Cache cache = cacheManager.getCache(nombre);
+        if (cache == null) {
+            throw new IllegalStateException("No está configurada la caché " + nombre);
+        }
+        return cache;
+    }
+
+    private record DefinicionGuardada(Long id, String descripcion, String ejemplo) {
+    }
+
+    private record PalabraGuardada(Long id, String termino, String categoriaGramatical, Long version,
+                                   List<DefinicionGuardada> definiciones) {
+
+        static PalabraGuardada de(Palabra palabra) {
+            if (palabra == null) {
+                return null;
+            }
+            List<DefinicionGuardada> definiciones = palabra.getDefiniciones() == null ? null : palabra.getDefiniciones().stream()
+                    .map(definicion -> new DefinicionGuardada(definicion.getId(), definicion.getDescripcion(), definicion.getEjemplo()))
+                    .toList();
+            return new PalabraGuardada(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical(), palabra.getVersion(), definiciones);
+        }
+
+        // Entidad nueva, sin asociar a ninguna sesión
+        Palabra palabra() {
+            Palabra palabra = new Palabra();
+            palabra.setId(id);
+            palabra.setTermino(termino);
+            palabra.setCategoriaGramatical(categoriaGramatical);
+            palabra.setVersion(version);
+            if (definiciones != null) {
+                List<Definicion> copia = new ArrayList<>(definiciones.size());
+                for (DefinicionGuardada guardada : definiciones) {
+                    Definicion definicion = new Definicion();
+                    definicion.setId(guardada.id());
+                    definicion.setDescripcion(guardada.descripcion());
+                    definicion.setEjemplo(guardada.ejemplo());
+                    definicion.setPalabra(palabra);
+                    copia.add(definicion);
+                }
+                palabra.setDefiniciones(copia);
+            }
+            return palabra;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.dictionaryapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.dictionaryapp.dto.RespuestaCambiosDTO;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lee del registro de cambios los de otras instancias y los publica como CambiosRemotosEvent
+// para las cachés e índices en memoria; si todo lo nuevo es propio no lee nada.
+@Component
+public class CambiosRemotos {
+
+    private static final Logger log = LoggerFactory.getLogger(CambiosRemotos.class);
+
+    private static final int TAMANO_PAGINA = 500;
+
+    // Más cambios que estos (p. ej. una importación en otra instancia) se resuelven recargando
+    static final int MAXIMO_CAMBIOS = 2000;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Último seq ya repartido o propio; protegido por this
+    private long aplicado;
+
+    // Intervalos de seq (primero -> último) escritos por esta instancia por encima de aplicado; protegido por this
+    private final TreeMap<Long, Long> propios = new TreeMap<>();
+
+    private final AtomicBoolean lecturaPendiente = new AtomicBoolean();
+
+    private final ExecutorService lecturas = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "cambios-remotos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Lo anterior ya lo tienen las cachés y los índices, que se cargan después
+    @PostConstruct
+    public synchronized void inicializar() {
+        aplicado = registroCambios.ultimoConfirmado();
+    }
+
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        synchronized (this) {
+            if (evento.isPropio() && evento.getSeq() > aplicado) {
+                propios.put(evento.getPrimero(), evento.getSeq());
+            }
+            avanzarPorPropios();
+            if (evento.getSeq() <= aplicado) {
+                return;
+            }
+        }
+        programarLectura();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        lecturas.shutdownNow();
+    }
+
+    // Varios avisos seguidos dan lugar a una sola lectura del registro
+    private void programarLectura() {
+        if (lecturaPendiente.compareAndSet(false, true)) {
+            lecturas.execute(this::leer);
+        }
+    }
+
+    private void leer() {
+        lecturaPendiente.set(false);
+        long desde;
+        synchronized (this) {
+            desde = aplicado;
+        }
+        List<Cambio> leidos = new ArrayList<>();
+        boolean recargar = false;
+        long hasta = desde;
+        try {
+            RespuestaCambiosDTO pagina;
+            do {
+                pagina = registroCambios.leer(hasta, TAMANO_PAGINA, false);
+                leidos.addAll(pagina.getCambios());
+                hasta = pagina.getHasta();
+                if (leidos.size() > MAXIMO_CAMBIOS) {
+                    // Se anota antes de publicar: lo que se recargue después tiene al menos hasta aquí
+                    recargar = true;
+                    hasta = Math.max(hasta, registroCambios.ultimoConfirmado());
+                    break;
+                }
+            } while (pagina.isHayMas());
+        } catch (RuntimeException e) {
+            // Se reintenta con el siguiente aviso
+            log.warn("No se pudieron leer los cambios de otras instancias: {}", e.getMessage());
+            return;
+        }
+        List<Cambio> remotos = new ArrayList<>();
+        synchronized (this) {
+            if (!recargar) {
+                for (Cambio cambio : RegistroCambios.compactar(leidos)) {
+                    if (!propio(cambio.getSeq())) {
+                        remotos.add(cambio);
+                    }
+                }
+            }
+            aplicado = Math.max(aplicado, hasta);
+            avanzarPorPropios();
+        }
+        if (recargar) {
+            log.info("Demasiados cambios de otras instancias para aplicarlos uno a uno: se recargan cachés e índices");
+            eventPublisher.publishEvent(CambiosRemotosEvent.recargar());
+        } else if (!remotos.isEmpty()) {
+            eventPublisher.publishEvent(new CambiosRemotosEvent(remotos));
+        }
+    }
+
+    // Descarta los intervalos propios ya cubiertos y avanza sobre los que siguen justo a aplicado
+    private void avanzarPorPropios() {
+        Map.Entry<Long, Long> primero;
+        while ((primero = propios.firstEntry()) != null && primero.getKey() <= aplicado + 1) {
+            aplicado = Math.max(aplicado, primero.getValue());
+            propios.pollFirstEntry();
+        }
+    }
+
+    private boolean propio(long seq) {
+        Map.Entry<Long, Long> intervalo = propios.floorEntry(seq);
+        return intervalo != null && intervalo.getValue() >= seq;
+    }
+}
@@ -1,26 +1,55 @@
 package org.example.dictionaryapp.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
 import org.example.dictionaryapp.exception.RecordNotFoundException;
 import org.example.dictionaryapp.model.Definicion;
 import org.example.dictionaryapp.model.Palabra;
 import org.example.dictionaryapp.repository.DefinicionRepository;
 import org.example.dictionaryapp.repository.PalabraRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "diccionario.servicio", description = "Tiempo de los métodos del servicio de definiciones")
 public class DefinicionService {
 
     @Autowired
     private DefinicionRepository definicionRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
     public void deleteDefinicion(Long id) throws RecordNotFoundException {
         Optional<Definicion> definicionOptional = definicionRepository.findById(id);
         if (definicionOptional.isPresent()) {
-            definicionRepository.delete(definicionOptional.get());
+            Definicion definicion = definicionOptional.get();
+            Palabra palabra = definicion.getPalabra();
+            int numeroDefiniciones = 0;
+            if (palabra != null) {
+                palabra.getDefiniciones().remove(definicion);
+                entityManager.lock(palabra, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+                numeroDefiniciones = palabra.getDefiniciones().size();
+                registroCambios.definicionEliminada(palabra.getId(), definicion.getId());
+            }
+            definicionRepository.delete(definicion);
+            eventPublisher.publishEvent(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.ELIMINADA, definicion.getId(),
+                    palabra != null ? palabra.getId() : null, definicion.getDescripcion(), definicion.getEjemplo(), numeroDefiniciones));
         } else {
             throw new RecordNotFoundException("No existe Definicion para el id: ", id);
         }
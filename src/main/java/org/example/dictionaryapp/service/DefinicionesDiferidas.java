@@ -0,0 +1,407 @@
+package org.example.dictionaryapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dictionaryapp.dto.ConteoDTO;
+import org.example.dictionaryapp.dto.EscrituraDiferidaDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.exception.RecordNotFoundException;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.repository.DefinicionRepository;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Escritura diferida de definiciones (diccionario.definiciones.diferidas.activa): una cola acotada que un
+// solo hilo escribe por lotes. Lo encolado y no escrito se pierde si el proceso termina de forma abrupta.
+@Component
+public class DefinicionesDiferidas implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DefinicionesDiferidas.class);
+
+    // Tamaño máximo de las listas IN de cada lote
+    private static final int MAXIMO_PARAMETROS = 1000;
+
+    // Cada cuánto comprueba el hilo de escritura si se está cerrando la aplicación
+    private static final long SONDEO_MS = 1000;
+
+    private static final long CIERRE_MS = 30000;
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private DefinicionRepository definicionRepository;
+
+    @Autowired
+    private PalabraService palabraService;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${diccionario.definiciones.diferidas.activa:false}")
+    private boolean activa;
+
+    @Value("${diccionario.definiciones.diferidas.capacidad:10000}")
+    private int capacidad;
+
+    @Value("${diccionario.definiciones.diferidas.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${diccionario.definiciones.diferidas.intervalo-ms:50}")
+    private long intervaloMs;
+
+    @Value("${diccionario.definiciones.diferidas.espera-cola-ms:5000}")
+    private long esperaColaMs;
+
+    @Value("${diccionario.definiciones.diferidas.espera-confirmacion-ms:10000}")
+    private long esperaConfirmacionMs;
+
+    private BlockingQueue<Pendiente> cola;
+    private Thread escritor;
+    private volatile boolean cerrada;
+
+    // Quien encola comprueba cerrada y encola con la de lectura; cerrar marca cerrada con la de escritura,
+    // así que cuando la obtiene ya no queda ninguna definición a punto de entrar en la cola
+    private final ReadWriteLock cierre = new ReentrantReadWriteLock();
+
+    private volatile Timer escrituras;
+    private volatile Timer retrasos;
+    private volatile DistributionSummary lotes;
+    private volatile Counter rechazadas;
+    private volatile Counter fallidas;
+
+    @PostConstruct
+    public void inicializar() {
+        if (!activa) {
+            return;
+        }
+        if (capacidad < 1 || tamanoLote < 1) {
+            throw new IllegalStateException("La capacidad y el tamaño de lote de la escritura diferida deben ser mayores que cero.");
+        }
+        tamanoLote = Math.min(tamanoLote, MAXIMO_PARAMETROS);
+        cola = new ArrayBlockingQueue<>(capacidad);
+        escritor = new Thread(this::escribirEnBucle, "escritura-definiciones");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    public boolean activa() {
+        return activa;
+    }
+
+    // Con confirmar se espera, hasta espera-confirmacion-ms, a que la definición esté escrita. Sin
+    // escritura diferida se agrega en el momento, como en PalabraService.addDefinicionToPalabra.
+    // No se comprueba aquí que la palabra exista: con open-in-view la consulta retendría una conexión
+    // mientras se espera al lote. Si no existe se sabe al escribir, y solo quien espera lo recibe.
+    public EscrituraDiferidaDTO agregar(Long palabraId, Definicion definicion, boolean confirmar) throws RecordNotFoundException {
+        if (definicion == null) {
+            throw new IllegalArgumentException("El objeto Definicion no puede ser nulo.");
+        }
+        if (definicion.getDescripcion() == null || definicion.getDescripcion().trim().isEmpty()) {
+            throw new IllegalArgumentException("La descripción de la definición no puede estar vacía.");
+        }
+        if (!activa) {
+            List<Definicion> definiciones = palabraService.addDefinicionToPalabra(palabraId, definicion).getDefiniciones();
+            Definicion agregada = definiciones.get(definiciones.size() - 1);
+            return new EscrituraDiferidaDTO(palabraId, agregada.getId(), agregada.getDescripcion(), agregada.getEjemplo(), true, 0);
+        }
+        Definicion nueva = new Definicion();
+        nueva.setDescripcion(definicion.getDescripcion());
+        nueva.setEjemplo(definicion.getEjemplo());
+        Pendiente pendiente = new Pendiente(palabraId, nueva, System.nanoTime(), new CompletableFuture<>());
+        encolar(pendiente);
+        Long definicionId = confirmar ? esperar(pendiente) : null;
+        return new EscrituraDiferidaDTO(palabraId, definicionId, nueva.getDescripcion(), nueva.getEjemplo(), definicionId != null, cola.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("diccionario.definiciones.diferidas.pendientes", this, diferidas -> diferidas.cola == null ? 0 : diferidas.cola.size())
+                .description("Definiciones en cola pendientes de escribir")
+                .register(registry);
+        escrituras = Timer.builder("diccionario.definiciones.diferidas.escritura")
+                .description("Tiempo de escritura de cada lote de definiciones")
+                .register(registry);
+        retrasos = Timer.builder("diccionario.definiciones.diferidas.retraso")
+                .description("Tiempo desde que se encola una definición hasta que se confirma su escritura")
+                .register(registry);
+        lotes = DistributionSummary.builder("diccionario.definiciones.diferidas.lote")
+                .description("Definiciones escritas en cada lote")
+                .register(registry);
+        rechazadas = Counter.builder("diccionario.definiciones.diferidas.rechazadas")
+                .description("Definiciones rechazadas por tener la cola llena")
+                .register(registry);
+        fallidas = Counter.builder("diccionario.definiciones.diferidas.fallidas")
+                .description("Definiciones que no se pudieron escribir")
+                .register(registry);
+    }
+
+    // Se escribe lo que quede en la cola antes de que se cierre la base de datos
+    @PreDestroy
+    public void cerrar() {
+        marcarCerrada();
+        if (escritor == null) {
+            return;
+        }
+        try {
+            escritor.join(CIERRE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive()) {
+            // Lo que el hilo de escritura tenga ya en un lote lo completa él
+            descartar(new ArrayList<>(), "se cierra la aplicación sin haber escrito la definición");
+            return;
+        }
+        // El hilo de escritura ya ha terminado: lo que aún quede se escribe en este
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (cola.drainTo(lote, tamanoLote) > 0) {
+            escribirLote(lote);
+            lote.clear();
+        }
+    }
+
+    private void marcarCerrada() {
+        cierre.writeLock().lock();
+        try {
+            cerrada = true;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+    }
+
+    private void encolar(Pendiente pendiente) {
+        boolean encolada;
+        cierre.readLock().lock();
+        try {
+            if (cerrada) {
+                throw new IllegalStateException("La escritura diferida de definiciones se está cerrando.");
+            }
+            encolada = cola.offer(pendiente, esperaColaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando sitio en la cola de definiciones", e);
+        } finally {
+            cierre.readLock().unlock();
+        }
+        if (!encolada) {
+            if (rechazadas != null) {
+                rechazadas.increment();
+            }
+            throw new IllegalStateException("Hay demasiadas definiciones pendientes de escribir; inténtelo más tarde.");
+        }
+    }
+
+    // El id de la definición, o null si no se ha escrito a tiempo
+    private Long esperar(Pendiente pendiente) throws RecordNotFoundException {
+        try {
+            return pendiente.confirmacion.get(esperaConfirmacionMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la escritura de la definición", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RecordNotFoundException noEncontrada) {
+                throw noEncontrada;
+            }
+            if (e.getCause() instanceof RuntimeException error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void escribirEnBucle() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        try {
+            while (true) {
+                Pendiente primera = cola.poll(SONDEO_MS, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    if (cerrada) {
+                        return;
+                    }
+                    continue;
+                }
+                lote.add(primera);
+                reunir(lote);
+                escribirLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Sin hilo de escritura no se acepta nada más, y lo que ya estaba se completa con error
+            marcarCerrada();
+            descartar(lote, "se ha interrumpido la escritura de definiciones");
+        }
+    }
+
+    // Completa el lote hasta tamano-lote o hasta que pasen intervalo-ms sin llegar a él
+    private void reunir(List<Pendiente> lote) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+        cola.drainTo(lote, tamanoLote - lote.size());
+        while (lote.size() < tamanoLote && !cerrada) {
+            long restante = limite - System.nanoTime();
+            Pendiente siguiente = restante > 0 ? cola.poll(restante, TimeUnit.NANOSECONDS) : null;
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+            cola.drainTo(lote, tamanoLote - lote.size());
+        }
+    }
+
+    private void escribirLote(List<Pendiente> lote) {
+        long inicio = System.nanoTime();
+        Map<Long, List<Pendiente>> porPalabra = new LinkedHashMap<>();
+        for (Pendiente pendiente : lote) {
+            porPalabra.computeIfAbsent(pendiente.palabraId, id -> new ArrayList<>()).add(pendiente);
+        }
+        try {
+            escribir(porPalabra);
+        } catch (RuntimeException e) {
+            log.debug("Lote de definiciones rechazado, se reintenta palabra a palabra: {}", e.getMessage());
+            for (Map.Entry<Long, List<Pendiente>> entrada : porPalabra.entrySet()) {
+                try {
+                    escribir(Map.of(entrada.getKey(), entrada.getValue()));
+                } catch (RuntimeException error) {
+                    fallar(entrada.getValue(), error);
+                }
+            }
+        }
+        if (escrituras != null) {
+            escrituras.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            lotes.record(lote.size());
+        }
+    }
+
+    // Las esperas se completan después de confirmar la transacción
+    private void escribir(Map<Long, List<Pendiente>> porPalabra) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Set<Long> existentes = transaccion.execute(estado -> persistir(porPalabra));
+        long ahora = System.nanoTime();
+        porPalabra.forEach((palabraId, pendientes) -> {
+            if (!existentes.contains(palabraId)) {
+                fallar(pendientes, new RecordNotFoundException("No existe Palabra para el id: ", palabraId));
+                return;
+            }
+            for (Pendiente pendiente : pendientes) {
+                if (retrasos != null) {
+                    retrasos.record(ahora - pendiente.encolada, TimeUnit.NANOSECONDS);
+                }
+                pendiente.confirmacion.complete(pendiente.definicion.getId());
+            }
+        });
+    }
+
+    private Set<Long> persistir(Map<Long, List<Pendiente>> porPalabra) {
+        Set<Long> existentes = new HashSet<>(palabraRepository.findIdsExistentes(porPalabra.keySet()));
+        if (existentes.isEmpty()) {
+            return existentes;
+        }
+        entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+        List<Definicion> agregadas = new ArrayList<>();
+        porPalabra.forEach((palabraId, pendientes) -> {
+            if (!existentes.contains(palabraId)) {
+                return;
+            }
+            // Referencia sin cargar: solo hace falta su id para la clave ajena
+            Palabra palabra = entityManager.getReference(Palabra.class, palabraId);
+            for (Pendiente pendiente : pendientes) {
+                pendiente.definicion.setId(null);
+                pendiente.definicion.setPalabra(palabra);
+                entityManager.persist(pendiente.definicion);
+                agregadas.add(pendiente.definicion);
+            }
+        });
+        entityManager.flush();
+        // Como el bloqueo optimista de addDefinicionToPalabra, pero una vez por palabra y lote
+        palabraRepository.incrementarVersiones(existentes);
+        registroCambios.definicionesAgregadas(agregadas);
+        Map<Long, Long> totales = new HashMap<>();
+        for (ConteoDTO<Long> conteo : definicionRepository.contarPorPalabra(existentes)) {
+            totales.put(conteo.getClave(), conteo.getTotal());
+        }
+        porPalabra.forEach((palabraId, pendientes) -> {
+            if (!existentes.contains(palabraId)) {
+                return;
+            }
+            int numeroDefiniciones = totales.getOrDefault(palabraId, 0L).intValue() - pendientes.size();
+            for (Pendiente pendiente : pendientes) {
+                Definicion definicion = pendiente.definicion;
+                eventPublisher.publishEvent(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.AGREGADA, definicion.getId(), palabraId,
+                        definicion.getDescripcion(), definicion.getEjemplo(), ++numeroDefiniciones));
+            }
+        });
+        return existentes;
+    }
+
+    private void fallar(List<Pendiente> pendientes, Throwable error) {
+        if (!(error instanceof RecordNotFoundException)) {
+            log.warn("No se pudieron escribir {} definiciones de la palabra {}: {}",
+                    pendientes.size(), pendientes.get(0).palabraId, error.getMessage());
+        }
+        if (fallidas != null) {
+            fallidas.increment(pendientes.size());
+        }
+        for (Pendiente pendiente : pendientes) {
+            pendiente.confirmacion.completeExceptionally(error);
+        }
+    }
+
+    // Completa con error las esperas del lote y de la cola, que ya no se van a escribir
+    private void descartar(List<Pendiente> lote, String motivo) {
+        cola.drainTo(lote);
+        if (lote.isEmpty()) {
+            return;
+        }
+        log.warn("Se descartan {} definiciones sin escribir: {}", lote.size(), motivo);
+        if (fallidas != null) {
+            fallidas.increment(lote.size());
+        }
+        IllegalStateException error = new IllegalStateException("No se ha escrito la definición: " + motivo);
+        for (Pendiente pendiente : lote) {
+            pendiente.confirmacion.completeExceptionally(error);
+        }
+        lote.clear();
+    }
+
+    private record Pendiente(Long palabraId, Definicion definicion, long encolada, CompletableFuture<Long> confirmacion) {
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.dictionaryapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.dictionaryapp.dto.RespuestaCambiosDTO;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Envía el registro de cambios por Server-Sent Events (/palabras/cambios/stream) con el seq como id del evento;
+// un solo hilo y una consulta por envío para todos los suscriptores.
+@Component
+public class DifusionCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(DifusionCambios.class);
+
+    private static final int TAMANO_PAGINA = 500;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Value("${diccionario.cambios.sse-timeout-ms:1800000}")
+    private long timeout;
+
+    private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean envioPendiente = new AtomicBoolean();
+
+    private final ExecutorService envios = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "difusion-cambios");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // Sin 'desde' se empieza en el cambio actual y solo se reciben los siguientes
+    public SseEmitter suscribir(Long desde) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Suscripcion suscripcion = new Suscripcion(emitter, desde != null ? desde : registroCambios.ultimoConfirmado());
+        emitter.onCompletion(() -> suscripciones.remove(suscripcion));
+        emitter.onTimeout(() -> suscripciones.remove(suscripcion));
+        emitter.onError(error -> suscripciones.remove(suscripcion));
+        suscripciones.add(suscripcion);
+        programarEnvio();
+        return emitter;
+    }
+
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        programarEnvio();
+    }
+
+    // Un comentario periódico evita que los proxies corten la conexión y descubre los clientes que ya no están
+    @Scheduled(fixedDelayString = "${diccionario.cambios.latido-ms:30000}",
+            initialDelayString = "${diccionario.cambios.latido-ms:30000}")
+    public void latido() {
+        if (!suscripciones.isEmpty()) {
+            envios.execute(() -> {
+                for (Suscripcion suscripcion : suscripciones) {
+                    try {
+                        suscripcion.emitter.send(SseEmitter.event().comment("latido"));
+                    } catch (IOException | IllegalStateException e) {
+                        descartar(suscripcion, e);
+                    }
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        envios.shutdownNow();
+        suscripciones.forEach(suscripcion -> suscripcion.emitter.complete());
+        suscripciones.clear();
+    }
+
+    private void programarEnvio() {
+        if (envioPendiente.compareAndSet(false, true)) {
+            envios.execute(this::enviar);
+        }
+    }
+
+    private void enviar() {
+        envioPendiente.set(false);
+        if (suscripciones.isEmpty()) {
+            return;
+        }
+        long desde = suscripciones.stream().mapToLong(suscripcion -> suscripcion.ultimo).min().orElse(0);
+        try {
+            RespuestaCambiosDTO pagina;
+            do {
+                pagina = registroCambios.leer(desde, TAMANO_PAGINA, false);
+                for (Suscripcion suscripcion : suscripciones) {
+                    enviar(suscripcion, pagina);
+                }
+                desde = pagina.getHasta();
+            } while (pagina.isHayMas());
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron leer los cambios para enviarlos: {}", e.getMessage());
+        }
+    }
+
+    private void enviar(Suscripcion suscripcion, RespuestaCambiosDTO pagina) {
+        try {
+            for (Cambio cambio : pagina.getCambios()) {
+                if (cambio.getSeq() > suscripcion.ultimo) {
+                    suscripcion.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(cambio.getSeq()))
+                            .name("cambio")
+                            .data(cambio, MediaType.APPLICATION_JSON));
+                    suscripcion.ultimo = cambio.getSeq();
+                }
+            }
+            suscripcion.ultimo = Math.max(suscripcion.ultimo, pagina.getHasta());
+        } catch (IOException | IllegalStateException e) {
+            descartar(suscripcion, e);
+        }
+    }
+
+    private void descartar(Suscripcion suscripcion, Exception causa) {
+        suscripciones.remove(suscripcion);
+        suscripcion.emitter.completeWithError(causa);
+    }
+
+    private static final class Suscripcion {
+
+        final SseEmitter emitter;
+
+        // Último seq enviado; solo lo modifica el hilo de envíos
+        volatile long ultimo;
+
+        Suscripcion(SseEmitter emitter, long ultimo) {
+            this.emitter = emitter;
+            this.ultimo = ultimo;
+        }
+    }
+}
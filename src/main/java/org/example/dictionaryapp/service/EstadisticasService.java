@@ -0,0 +1,169 @@
+package org.example.dictionaryapp.service;
+
+import org.example.dictionaryapp.dto.ConteoDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.repository.DefinicionRepository;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Estadísticas del diccionario en memoria, actualizadas con cada cambio propio y recalculadas con los remotos.
+// version es el seq del registro de cambios que reflejan y da su ETag.
+@Service
+public class EstadisticasService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasService.class);
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private DefinicionRepository definicionRepository;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    private boolean cargado;
+    private long version;
+    private long totalPalabras;
+    private long totalDefiniciones;
+    private final Map<String, Long> categorias = new HashMap<>();
+    private final Map<Long, Long> definicionesPorPalabra = new TreeMap<>();
+
+    public void inicializar() {
+        try {
+            recalcular();
+        } catch (Exception e) {
+            log.warn("No se pudieron calcular las estadísticas al arrancar: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${diccionario.estadisticas.recalculo-ms:300000}",
+            initialDelayString = "${diccionario.estadisticas.recalculo-ms:300000}")
+    public void recalcularPeriodicamente() {
+        try {
+            recalcular();
+        } catch (Exception e) {
+            log.warn("No se pudieron recalcular las estadísticas: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void recalcular() {
+        // Se toma antes de consultar: lo que se lea tiene al menos estos cambios
+        long hasta = registroCambios.ultimoConfirmado();
+        totalPalabras = palabraRepository.count();
+        totalDefiniciones = definicionRepository.countAsignadas();
+        categorias.clear();
+        for (ConteoDTO<String> conteo : palabraRepository.contarPorCategoriaGramatical()) {
+            categorias.put(conteo.getClave(), conteo.getTotal());
+        }
+        definicionesPorPalabra.clear();
+        for (ConteoDTO<Long> conteo : palabraRepository.contarPorNumeroDeDefiniciones()) {
+            definicionesPorPalabra.put(conteo.getClave(), conteo.getTotal());
+        }
+        version = Math.max(version, hasta);
+        cargado = true;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized Map<String, Object> obtener() {
+        if (!cargado) {
+            recalcular();
+        }
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("totalPalabras", totalPalabras);
+        estadisticas.put("totalDefiniciones", totalDefiniciones);
+        estadisticas.put("categoriasGramaticales", new HashMap<>(categorias));
+        estadisticas.put("definicionesPorPalabra", new TreeMap<>(definicionesPorPalabra));
+        return estadisticas;
+    }
+
+    public synchronized boolean existeCategoria(String categoria) {
+        return categorias.containsKey(categoria);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCambioPalabra(CambioPalabraEvent evento) {
+        if (!cargado) {
+            return;
+        }
+        switch (evento.getTipo()) {
+            case CREADA -> {
+                totalPalabras++;
+                totalDefiniciones += evento.getNumeroDefiniciones();
+                sumar(categorias, evento.getActual().getCategoriaGramatical(), 1);
+                sumar(definicionesPorPalabra, (long) evento.getNumeroDefiniciones(), 1);
+            }
+            case ACTUALIZADA -> {
+                sumar(categorias, evento.getAnterior().getCategoriaGramatical(), -1);
+                sumar(categorias, evento.getActual().getCategoriaGramatical(), 1);
+            }
+            case ELIMINADA -> {
+                totalPalabras--;
+                totalDefiniciones -= evento.getNumeroDefiniciones();
+                sumar(categorias, evento.getAnterior().getCategoriaGramatical(), -1);
+                sumar(definicionesPorPalabra, (long) evento.getNumeroDefiniciones(), -1);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCambioDefinicion(CambioDefinicionEvent evento) {
+        if (!cargado || evento.getPalabraId() == null) {
+            return;
+        }
+        long despues = evento.getNumeroDefiniciones();
+        long antes = evento.getTipo() == CambioDefinicionEvent.Tipo.AGREGADA ? despues - 1 : despues + 1;
+        totalDefiniciones += despues - antes;
+        sumar(definicionesPorPalabra, antes, -1);
+        sumar(definicionesPorPalabra, despues, 1);
+    }
+
+    @EventListener
+    public void onImportacion(ImportacionCompletadaEvent evento) {
+        recalcular();
+    }
+
+    @EventListener
+    public void onCambiosRemotos(CambiosRemotosEvent evento) {
+        if (cargado()) {
+            recalcularPeriodicamente();
+        }
+    }
+
+    // Los cambios propios ya están aplicados: los eventos de cambio se atienden antes en la misma
+    // confirmación. Si entre medias hay cambios de otra instancia, la versión espera al recálculo.
+    @EventListener
+    public synchronized void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        if (cargado && evento.isPropio() && evento.getPrimero() <= version + 1) {
+            version = Math.max(version, evento.getSeq());
+        }
+    }
+
+    private synchronized boolean cargado() {
+        return cargado;
+    }
+
+    private static <K> void sumar(Map<K, Long> conteos, K clave, long delta) {
+        Long total = conteos.merge(clave, delta, Long::sum);
+        if (total != null && total <= 0) {
+            conteos.remove(clave);
+        }
+    }
+}
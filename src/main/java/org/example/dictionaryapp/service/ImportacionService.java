@@ -0,0 +1,296 @@
+package org.example.dictionaryapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import org.example.dictionaryapp.dto.InformeImportacionDTO;
+import org.example.dictionaryapp.event.ImportacionCompletadaEvent;
+import org.example.dictionaryapp.indice.FiltroTerminos;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.repository.PalabraRepository;
+import org.example.dictionaryapp.util.LectorCsv;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+// Importación masiva desde CSV (el formato de la exportación) o NDJSON, leída registro a registro
+// y escrita por lotes, cada uno en su transacción.
+@Service
+@Timed(value = "diccionario.servicio", description = "Tiempo de las importaciones masivas")
+public class ImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionService.class);
+
+    public static final int LOTE_MAXIMO = 5000;
+
+    // Tamaño máximo de la lista IN al comprobar duplicados
+    private static final int MAXIMO_PARAMETROS = 1000;
+
+    @Autowired
+    private PalabraRepository palabraRepository;
+
+    @Autowired
+    private FiltroTerminos filtroTerminos;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${diccionario.importacion.tamano-lote:500}")
+    private int tamanoLotePorDefecto;
+
+    // Columnas: Id,Termino,Categoria Gramatical,Definiciones. Las filas consecutivas con el mismo
+    // Id (o, si no lo hay, el mismo término) son definiciones de la misma palabra.
+    public InformeImportacionDTO importarCsv(Reader reader, Integer lote) throws IOException {
+        Importacion importacion = new Importacion(tamanoLote(lote));
+        try {
+            LectorCsv lector = new LectorCsv(reader);
+            Palabra actual = null;
+            String claveActual = null;
+            long lineaActual = 0;
+            long linea = lector.getLinea();
+            List<String> fila = lector.siguienteFila();
+            if (fila != null && !fila.isEmpty() && fila.get(0).trim().equalsIgnoreCase("Id")) {
+                linea = lector.getLinea();
+                fila = lector.siguienteFila();
+            }
+            for (; fila != null; linea = lector.getLinea(), fila = lector.siguienteFila()) {
+                if (fila.size() == 1 && fila.get(0).isBlank()) {
+                    continue;
+                }
+                importacion.informe.registroLeido();
+                if (fila.size() < 3) {
+                    importacion.informe.error(linea, "se esperaban las columnas Id, Termino, Categoria Gramatical y Definiciones");
+                    continue;
+                }
+                String clave = fila.get(0).isBlank() ? fila.get(1) : fila.get(0);
+                if (actual == null || !clave.equals(claveActual)) {
+                    if (actual != null) {
+                        importacion.agregar(actual, lineaActual);
+                    }
+                    actual = new Palabra();
+                    actual.setTermino(fila.get(1).trim());
+                    actual.setCategoriaGramatical(fila.get(2).trim());
+                    actual.setDefiniciones(new ArrayList<>());
+                    claveActual = clave;
+                    lineaActual = linea;
+                }
+                if (fila.size() > 3 && !fila.get(3).isBlank()) {
+                    Definicion definicion = new Definicion();
+                    definicion.setDescripcion(fila.get(3));
+                    actual.getDefiniciones().add(definicion);
+                }
+            }
+            if (actual != null) {
+                importacion.agregar(actual, lineaActual);
+            }
+            importacion.escribirPendientes();
+        } finally {
+            importacion.terminar();
+        }
+        return importacion.informe;
+    }
+
+    public InformeImportacionDTO importarNdjson(Reader reader, Integer lote) throws IOException {
+        Importacion importacion = new Importacion(tamanoLote(lote));
+        try {
+            BufferedReader lineas = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader, 8192);
+            long numero = 0;
+            String linea;
+            while ((linea = lineas.readLine()) != null) {
+                numero++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                importacion.informe.registroLeido();
+                Palabra palabra;
+                try {
+                    palabra = objectMapper.readValue(linea, Palabra.class);
+                } catch (JsonProcessingException e) {
+                    importacion.informe.error(numero, "JSON no válido: " + e.getOriginalMessage());
+                    continue;
+                }
+                palabra.setId(null);
+                if (palabra.getDefiniciones() == null) {
+                    palabra.setDefiniciones(new ArrayList<>());
+                }
+                palabra.getDefiniciones().forEach(definicion -> definicion.setId(null));
+                importacion.agregar(palabra, numero);
+            }
+            importacion.escribirPendientes();
+        } finally {
+            importacion.terminar();
+        }
+        return importacion.informe;
+    }
+
+    private int tamanoLote(Integer lote) {
+        if (lote == null) {
+            return tamanoLotePorDefecto;
+        }
+        if (lote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero.");
+        }
+        return Math.min(lote, LOTE_MAXIMO);
+    }
+
+    private static String validar(Palabra palabra) {
+        if (palabra.getTermino() == null || palabra.getTermino().trim().isEmpty()) {
+            return "el término de la palabra no puede estar vacío";
+        }
+        if (palabra.getCategoriaGramatical() == null || palabra.getCategoriaGramatical().trim().isEmpty()) {
+            return "la categoría gramatical no puede estar vacía";
+        }
+        for (Definicion definicion : palabra.getDefiniciones()) {
+            if (definicion.getDescripcion() == null || definicion.getDescripcion().trim().isEmpty()) {
+                return "la descripción de la definición no puede estar vacía";
+            }
+        }
+        return null;
+    }
+
+    // Estado de una importación en curso: el lote pendiente de escribir y el informe
+    private final class Importacion {
+
+        final int tamanoLote;
+        final InformeImportacionDTO informe = new InformeImportacionDTO();
+        final long inicio = System.nanoTime();
+        final Map<String, Palabra> pendientes = new LinkedHashMap<>();
+        final Map<String, Long> lineas = new HashMap<>();
+        final TransactionTemplate transaccion;
+
+        Importacion(int tamanoLote) {
+            this.tamanoLote = tamanoLote;
+            this.transaccion = new TransactionTemplate(transactionManager);
+        }
+
+        void agregar(Palabra palabra, long linea) {
+            String error = validar(palabra);
+            if (error != null) {
+                informe.error(linea, error);
+                return;
+            }
+            palabra.setTermino(palabra.getTermino().trim());
+            if (pendientes.containsKey(palabra.getTermino())) {
+                informe.palabraOmitida();
+                return;
+            }
+            for (Definicion definicion : palabra.getDefiniciones()) {
+                definicion.setPalabra(palabra);
+            }
+            pendientes.put(palabra.getTermino(), palabra);
+            lineas.put(palabra.getTermino(), linea);
+            if (pendientes.size() >= tamanoLote) {
+                escribirPendientes();
+            }
+        }
+
+        void escribirPendientes() {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            descartarExistentes();
+            List<Palabra> nuevas = new ArrayList<>(pendientes.values());
+            if (!nuevas.isEmpty()) {
+                try {
+                    transaccion.executeWithoutResult(estado -> persistir(nuevas));
+                    nuevas.forEach(palabra -> informe.palabraCreada(palabra.getDefiniciones().size()));
+                } catch (RuntimeException e) {
+                    // Algún término se ha dado de alta mientras tanto: se repite el lote de uno en uno
+                    log.debug("Lote de importación rechazado, se reintenta palabra a palabra: {}", e.getMessage());
+                    for (Palabra palabra : nuevas) {
+                        escribirSola(palabra);
+                    }
+                }
+            }
+            pendientes.clear();
+            lineas.clear();
+            informe.loteEscrito();
+            if (informe.getLotes() % 10 == 0) {
+                log.info("Importación en curso: {} registros leídos, {} palabras creadas, {} omitidas, {} errores",
+                        informe.getRegistrosLeidos(), informe.getPalabrasCreadas(), informe.getPalabrasOmitidas(), informe.getTotalErrores());
+            }
+        }
+
+        // Una sola consulta IN por lote, y solo con los términos que el filtro no descarta
+        private void descartarExistentes() {
+            List<String> candidatos = new ArrayList<>();
+            for (String termino : pendientes.keySet()) {
+                if (filtroTerminos.puedeContener(termino)) {
+                    candidatos.add(termino);
+                }
+            }
+            for (int i = 0; i < candidatos.size(); i += MAXIMO_PARAMETROS) {
+                List<String> tramo = candidatos.subList(i, Math.min(candidatos.size(), i + MAXIMO_PARAMETROS));
+                for (String existente : palabraRepository.findTerminosExistentes(tramo)) {
+                    if (pendientes.remove(existente) != null) {
+                        informe.palabraOmitida();
+                    }
+                }
+            }
+        }
+
+        private void persistir(List<Palabra> palabras) {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(tamanoLote);
+            for (Palabra palabra : palabras) {
+                filtroTerminos.agregar(palabra.getTermino());
+                entityManager.persist(palabra);
+            }
+            registroCambios.palabrasImportadas(palabras);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        private void escribirSola(Palabra palabra) {
+            palabra.setId(null);
+            palabra.getDefiniciones().forEach(definicion -> definicion.setId(null));
+            try {
+                transaccion.executeWithoutResult(estado -> persistir(List.of(palabra)));
+                informe.palabraCreada(palabra.getDefiniciones().size());
+            } catch (RuntimeException e) {
+                if (palabraRepository.existsByTermino(palabra.getTermino())) {
+                    informe.palabraOmitida();
+                } else {
+                    informe.error(lineas.getOrDefault(palabra.getTermino(), 0L), "no se pudo guardar: " + e.getMessage());
+                }
+            }
+        }
+
+        // Los lotes ya confirmados se quedan aunque la lectura falle a mitad, así que los índices
+        // se reconstruyen en cualquier caso
+        void terminar() {
+            informe.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+            if (informe.getPalabrasCreadas() > 0) {
+                eventPublisher.publishEvent(new ImportacionCompletadaEvent(informe.getPalabrasCreadas(), informe.getDefinicionesCreadas()));
+            }
+            log.info("Importación terminada en {} ms: {} registros leídos, {} palabras y {} definiciones creadas, {} omitidas, {} errores",
+                    informe.getDuracionMs(), informe.getRegistrosLeidos(), informe.getPalabrasCreadas(),
+                    informe.getDefinicionesCreadas(), informe.getPalabrasOmitidas(), informe.getTotalErrores());
+        }
+    }
+}
@@ -1,22 +1,114 @@
 package org.example.dictionaryapp.service;
 
-import jakarta.persistence.NoResultException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import org.example.dictionaryapp.dto.FilaDiccionarioDTO;
+import org.example.dictionaryapp.dto.FilaExportacionDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.RespuestaLoteDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
 import org.example.dictionaryapp.exception.RecordNotFoundException;
+import org.example.dictionaryapp.indice.ArchivoInstantanea;
+import org.example.dictionaryapp.indice.FiltroTerminos;
+import org.example.dictionaryapp.indice.IndiceCategorias;
+import org.example.dictionaryapp.indice.IndicePrefijos;
+import org.example.dictionaryapp.indice.IndiceTextual;
+import org.example.dictionaryapp.indice.InstantaneaDiccionario;
 import org.example.dictionaryapp.model.Palabra;
 import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.repository.DefinicionRepository;
 import org.example.dictionaryapp.repository.PalabraRepository;
+import org.example.dictionaryapp.util.FormatoBinario;
+import org.example.dictionaryapp.util.Normalizador;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
+@Timed(value = "diccionario.servicio", description = "Tiempo de los métodos del servicio de palabras")
 public class PalabraService {
 
+    private static final Logger log = LoggerFactory.getLogger(PalabraService.class);
+
+    public static final int LIMITE_MAXIMO = 1000;
+
+    // Sin 'limit' los listados devuelven una página de este tamaño; el diccionario completo sale de /exportar
+    public static final int LIMITE_POR_DEFECTO = 100;
+
+    public static final int LIMITE_AUTOCOMPLETAR = 10;
+
+    public static final int DISTANCIA_SUGERENCIAS = 2;
+
+    public static final int DISTANCIA_MAXIMA_SUGERENCIAS = 3;
+
+    public static final int LIMITE_LOTE = 10000;
+
+    // Tamaño máximo de la lista IN en las consultas por lote
+    private static final int TAMANO_TRAMO = 500;
+
+    // Reintentos de una actualización sin If-Match cuando otro editor cambia la palabra a la vez
+    static final int REINTENTOS_ACTUALIZACION = 3;
+
     @Autowired
     private PalabraRepository palabraRepository;
 
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private IndicePrefijos indicePrefijos;
+
+    @Autowired
+    private IndiceTextual indiceTextual;
+
+    @Autowired
+    private IndiceCategorias indiceCategorias;
+
+    @Autowired
+    private DefinicionRepository definicionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CachePalabras cachePalabras;
+
+    @Autowired
+    private FiltroTerminos filtroTerminos;
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    @Autowired
+    private InstantaneaDiccionario instantaneaDiccionario;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Palabra> getAllPalabras() {
         List<Palabra> palabrasList = palabraRepository.findAll();
         if (palabrasList.size() > 0) {
@@ -26,15 +118,102 @@ public class PalabraService {
         }
     }
 
-    public Palabra getPalabraById(Long id) throws RecordNotFoundException {
-        Optional<Palabra> palabra = palabraRepository.findById(id);
-        if (palabra.isPresent()) {
-            return palabra.get();
+    public List<PalabraDTO> getPaginaPalabras(Long after, Integer limit) {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            return instantanea.pagina(cursor(after), maximo(limit));
+        }
+        return palabraRepository.findPagina(cursor(after), limite(limit));
+    }
+
+    // Primero se pagina sobre los ids y después se cargan esas palabras con sus definiciones
+    // en una única consulta, así el número de sentencias no depende del tamaño de la página
+    public List<Palabra> getPaginaPalabrasConDefiniciones(Long after, Integer limit) {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            return instantanea.paginaConDefiniciones(cursor(after), maximo(limit));
+        }
+        return soloLectura().execute(estado -> {
+            List<Long> ids = palabraRepository.findPaginaIds(cursor(after), limite(limit));
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return palabraRepository.findConDefinicionesByIdIn(ids);
+        });
+    }
+
+    public PalabraDTO getPalabraById(Long id) throws RecordNotFoundException {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        PalabraDTO palabra = instantanea != null
+                ? instantanea.palabra(id)
+                : cachePalabras.palabra(id, () -> palabraRepository.findById(id).map(PalabraService::aDTO).orElse(null));
+        if (palabra != null) {
+            return palabra;
+        } else {
+            throw new RecordNotFoundException("No existe Palabra para el id: ", id);
+        }
+    }
+
+    public Palabra getPalabraConDefinicionesById(Long id) throws RecordNotFoundException {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        Palabra palabra = instantanea != null
+                ? instantanea.palabraConDefiniciones(id)
+                : cachePalabras.palabraConDefiniciones(id, () -> palabraRepository.findConDefinicionesById(id).orElse(null));
+        if (palabra != null) {
+            return palabra;
         } else {
             throw new RecordNotFoundException("No existe Palabra para el id: ", id);
         }
     }
 
+    // Varias palabras con sus definiciones en una sola petición: una consulta con fetch join por
+    // cada tramo de la lista. Se devuelven en el orden pedido y sin repetir, y lo que no existe se
+    // indica aparte en lugar de lanzar RecordNotFoundException.
+    @Transactional(readOnly = true)
+    public RespuestaLoteDTO getPalabrasEnLote(List<Long> ids, List<String> terminos) {
+        List<Long> idsPedidos = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> terminosPedidos = terminos == null ? List.of() : terminos.stream().filter(Objects::nonNull).distinct().toList();
+        if (idsPedidos.isEmpty() && terminosPedidos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un id o un término.");
+        }
+        if (idsPedidos.size() + terminosPedidos.size() > LIMITE_LOTE) {
+            throw new IllegalArgumentException("No se pueden pedir más de " + LIMITE_LOTE + " palabras a la vez.");
+        }
+        Map<Long, Palabra> porId = new HashMap<>();
+        for (int i = 0; i < idsPedidos.size(); i += TAMANO_TRAMO) {
+            for (Palabra palabra : palabraRepository.findConDefinicionesByIdIn(idsPedidos.subList(i, Math.min(idsPedidos.size(), i + TAMANO_TRAMO)))) {
+                porId.put(palabra.getId(), palabra);
+            }
+        }
+        List<String> candidatos = terminosPedidos.stream().filter(filtroTerminos::puedeContener).toList();
+        Map<String, Palabra> porTermino = new HashMap<>();
+        for (int i = 0; i < candidatos.size(); i += TAMANO_TRAMO) {
+            for (Palabra palabra : palabraRepository.findConDefinicionesByTerminoIn(candidatos.subList(i, Math.min(candidatos.size(), i + TAMANO_TRAMO)))) {
+                porTermino.put(palabra.getTermino(), palabra);
+            }
+        }
+        RespuestaLoteDTO respuesta = new RespuestaLoteDTO();
+        Set<Long> incluidas = new HashSet<>();
+        for (Long id : idsPedidos) {
+            Palabra palabra = porId.get(id);
+            if (palabra == null) {
+                respuesta.getIdsNoEncontrados().add(id);
+            } else if (incluidas.add(palabra.getId())) {
+                respuesta.getPalabras().add(palabra);
+            }
+        }
+        for (String termino : terminosPedidos) {
+            Palabra palabra = porTermino.get(termino);
+            if (palabra == null) {
+                respuesta.getTerminosNoEncontrados().add(termino);
+            } else if (incluidas.add(palabra.getId())) {
+                respuesta.getPalabras().add(palabra);
+            }
+        }
+        return respuesta;
+    }
+
+    @Transactional
     public Palabra createPalabra(Palabra palabra) {
         if (palabra == null) {
             throw new IllegalArgumentException("El objeto Palabra no puede ser nulo.");
@@ -45,17 +224,41 @@ public class PalabraService {
         if (palabra.getCategoriaGramatical() == null || palabra.getCategoriaGramatical().trim().isEmpty()) {
             throw new IllegalArgumentException("La categoría gramatical no puede estar vacía.");
         }
-        if (palabraRepository.existsByTermino(palabra.getTermino())) {
+        if (terminoExiste(palabra.getTermino())) {
             throw new IllegalStateException("La palabra '" + palabra.getTermino() + "' ya existe en el diccionario.");
         }
+        if (palabra.getDefiniciones() != null) {
+            for (Definicion definicion : palabra.getDefiniciones()) {
+                definicion.setPalabra(palabra);
+            }
+        }
         try {
-            return palabraRepository.save(palabra);
+            filtroTerminos.agregar(palabra.getTermino());
+            Palabra guardada = palabraRepository.saveAndFlush(palabra);
+            registroCambios.palabraCreada(guardada);
+            int numeroDefiniciones = guardada.getDefiniciones() == null ? 0 : guardada.getDefiniciones().size();
+            eventPublisher.publishEvent(CambioPalabraEvent.creada(aDTO(guardada), numeroDefiniciones));
+            return guardada;
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("La palabra '" + palabra.getTermino() + "' ya existe en el diccionario.", e);
         } catch (Exception e) {
             throw new RuntimeException("Error al guardar la palabra en la base de datos: " + e.getMessage(), e);
         }
     }
 
     public Palabra updatePalabra(Long id, Palabra palabra) throws RecordNotFoundException {
+        return updatePalabra(id, palabra, null);
+    }
+
+    // Bloqueo optimista con un solo UPDATE condicionado a la versión, sin cargar la palabra ni consultar
+    // antes el término: un duplicado lo detecta la restricción única. Se parte de la versión esperada
+    // (If-Match) o de la palabra en caché. Como las definiciones también suben la versión, si el UPDATE
+    // encuentra esa versión la palabra de partida, con sus definiciones, es exactamente la que había, y
+    // sirve para la respuesta y el evento sin volver a leerla.
+    // Si otro editor la cambia entre tanto, con versión esperada se lanza OptimisticLockingFailureException.
+    // Sin ella se vuelve a leer y se reintenta hasta REINTENTOS_ACTUALIZACION veces, conservando los campos
+    // que solo ha cambiado el otro; si los dos cambian el mismo campo a valores distintos, también se lanza.
+    public Palabra updatePalabra(Long id, Palabra palabra, Long versionEsperada) throws RecordNotFoundException {
         if (id == null) {
             throw new IllegalArgumentException("El ID de la palabra no puede ser nulo.");
         }
@@ -68,95 +271,384 @@ public class PalabraService {
         if (palabra.getCategoriaGramatical() == null || palabra.getCategoriaGramatical().trim().isEmpty()) {
             throw new IllegalArgumentException("La categoría gramatical no puede estar vacía.");
         }
-        Optional<Palabra> palabraOptional = palabraRepository.findById(id);
-        if (palabraOptional.isPresent()) {
-            Palabra palabraExistente = palabraOptional.get();
-            if (palabraRepository.existsByTermino(palabra.getTermino())) {
-                throw new IllegalStateException("El término '" + palabra.getTermino() + "' ya está en uso por otra palabra.");
+        Palabra base = getPalabraConDefinicionesById(id);
+        if (versionEsperada != null && !versionEsperada.equals(base.getVersion())) {
+            // La caché puede ir un poco por detrás de la base de datos
+            base = leerPalabra(id);
+            if (!versionEsperada.equals(base.getVersion())) {
+                throw new OptimisticLockingFailureException("La palabra " + id + " está en la versión " + base.getVersion() + ", no en la " + versionEsperada + ".");
             }
-            palabraExistente.setTermino(palabra.getTermino());
-            palabraExistente.setCategoriaGramatical(palabra.getCategoriaGramatical());
-            return palabraRepository.save(palabraExistente);
-        } else {
+        }
+        String termino = palabra.getTermino();
+        String categoria = palabra.getCategoriaGramatical();
+        for (int intento = 0; ; intento++) {
+            Palabra actualizada = actualizar(base, termino, categoria);
+            if (actualizada != null) {
+                return actualizada;
+            }
+            if (versionEsperada != null || intento == REINTENTOS_ACTUALIZACION) {
+                throw new OptimisticLockingFailureException("La palabra " + id + " ha cambiado mientras se actualizaba.");
+            }
+            Palabra actual = leerPalabra(id);
+            termino = fusionar(id, "término", base.getTermino(), termino, actual.getTermino());
+            categoria = fusionar(id, "categoría gramatical", base.getCategoriaGramatical(), categoria, actual.getCategoriaGramatical());
+            base = actual;
+        }
+    }
+
+    // null si la palabra ya no está en la versión de base
+    private Palabra actualizar(Palabra base, String termino, String categoria) {
+        return new TransactionTemplate(transactionManager).execute(estado -> {
+            int filas;
+            try {
+                filas = palabraRepository.actualizarSiVersion(base.getId(), base.getVersion(), termino, Normalizador.normalizar(termino), categoria);
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalStateException("El término '" + termino + "' ya está en uso por otra palabra.", e);
+            }
+            if (filas == 0) {
+                return null;
+            }
+            Palabra actualizada = new Palabra();
+            actualizada.setId(base.getId());
+            actualizada.setTermino(termino);
+            actualizada.setCategoriaGramatical(categoria);
+            actualizada.setVersion(base.getVersion() + 1);
+            actualizada.setDefiniciones(new ArrayList<>(base.getDefiniciones()));
+            filtroTerminos.agregar(termino);
+            registroCambios.palabraActualizada(actualizada);
+            eventPublisher.publishEvent(CambioPalabraEvent.actualizada(aDTO(base), aDTO(actualizada), actualizada.getDefiniciones().size()));
+            return actualizada;
+        });
+    }
+
+    // Valor de un campo tras un cambio concurrente: el de esta petición si lo cambia, si no el del otro editor
+    private static String fusionar(Long id, String campo, String base, String propio, String ajeno) {
+        if (propio.equals(base) || propio.equals(ajeno)) {
+            return ajeno;
+        }
+        if (!ajeno.equals(base)) {
+            throw new OptimisticLockingFailureException("Otro editor ha cambiado a la vez el " + campo + " de la palabra " + id + ".");
+        }
+        return propio;
+    }
+
+    // De la base de datos con una consulta de proyección: ni la caché ni el contexto de persistencia de
+    // la petición, que puede tener una copia anterior de la palabra. En una transacción de escritura para
+    // que vaya a la primaria: una réplica retrasada devolvería la misma versión que acaba de fallar
+    private Palabra leerPalabra(Long id) throws RecordNotFoundException {
+        List<FilaDiccionarioDTO> filas = new TransactionTemplate(transactionManager).execute(estado -> palabraRepository.findFilasById(id));
+        if (filas.isEmpty()) {
             throw new RecordNotFoundException("No existe Palabra para el id: ", id);
         }
+        FilaDiccionarioDTO primera = filas.get(0);
+        Palabra palabra = new Palabra();
+        palabra.setId(primera.getPalabraId());
+        palabra.setTermino(primera.getTermino());
+        palabra.setCategoriaGramatical(primera.getCategoriaGramatical());
+        palabra.setVersion(primera.getVersion());
+        List<Definicion> definiciones = new ArrayList<>();
+        for (FilaDiccionarioDTO fila : filas) {
+            if (fila.getDefinicionId() != null) {
+                Definicion definicion = new Definicion();
+                definicion.setId(fila.getDefinicionId());
+                definicion.setDescripcion(fila.getDescripcion());
+                definicion.setEjemplo(fila.getEjemplo());
+                definiciones.add(definicion);
+            }
+        }
+        palabra.setDefiniciones(definiciones);
+        return palabra;
     }
 
+    @Transactional
     public void deletePalabra(Long id) throws RecordNotFoundException {
-        Optional<Palabra> palabraOptional = palabraRepository.findById(id);
+        Optional<Palabra> palabraOptional = palabraRepository.findConDefinicionesById(id);
         if (palabraOptional.isPresent()) {
-            palabraRepository.delete(palabraOptional.get());
+            Palabra palabra = palabraOptional.get();
+            int numeroDefiniciones = palabra.getDefiniciones().size();
+            palabraRepository.delete(palabra);
+            registroCambios.palabraEliminada(palabra);
+            eventPublisher.publishEvent(CambioPalabraEvent.eliminada(aDTO(palabra), numeroDefiniciones));
         } else {
             throw new RecordNotFoundException("No existe Palabra para el id: ", id);
         }
     }
 
-    public List<Palabra> findByCategoriaGramatical(String categoria) {
+    public List<PalabraDTO> findByCategoriaGramatical(String categoria, Long after, Integer limit) {
         if (categoria == null || categoria.trim().isEmpty()) {
             throw new IllegalArgumentException("La categoría gramatical no puede estar vacía.");
         }
-        try {
-            List<Palabra> palabras = palabraRepository.findByCategoriaGramatical(categoria);
-            if (palabras.isEmpty()) {
-                throw new NoResultException("No se encontraron palabras para la categoría gramatical: " + categoria);
+        return buscarPorCategorias(List.of(categoria), null, after, limit);
+    }
+
+    // Palabras de cualquiera de las categorías y, si se indica, cuya inicial coincide, por id. Los ids
+    // salen del índice de categorías y solo se leen las palabras de la página, por tramos.
+    public List<PalabraDTO> buscarPorCategorias(List<String> categorias, Character inicial, Long after, Integer limit) {
+        Set<String> pedidas = categorias == null ? Set.of() : categorias.stream()
+                .filter(Objects::nonNull).map(String::trim).filter(c -> !c.isEmpty()).collect(Collectors.toSet());
+        if (pedidas.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una categoría gramatical.");
+        }
+        if (inicial != null && !Character.isLetter(inicial)) {
+            throw new IllegalArgumentException("El carácter inicial debe ser una letra.");
+        }
+        // Se compara con la inicial del término normalizado, como en el índice: 'Á' busca también "arbol"
+        Character letra = inicial == null ? null : IndiceCategorias.inicial(String.valueOf(inicial));
+        int maximo = maximo(limit);
+        List<PalabraDTO> palabras = new ArrayList<>();
+        long desde = cursor(after);
+        while (palabras.size() < maximo) {
+            List<Long> ids = indiceCategorias.buscar(pedidas, letra, desde, Math.min(maximo - palabras.size(), TAMANO_TRAMO));
+            if (ids.isEmpty()) {
+                break;
             }
-            return palabras;
-        } catch (Exception e) {
-            throw new RuntimeException("Error al buscar palabras por categoría gramatical: " + e.getMessage(), e);
+            for (PalabraDTO palabra : leerPalabras(ids)) {
+                // El índice se actualiza al confirmar: se descarta lo que ha cambiado mientras tanto
+                if (pedidas.contains(palabra.getCategoriaGramatical())
+                        && (letra == null || letra.equals(IndiceCategorias.inicial(palabra.getTermino())))) {
+                    palabras.add(palabra);
+                }
+            }
+            desde = ids.get(ids.size() - 1);
         }
+        return palabras;
+    }
+
+    // Número de palabras de cada categoría gramatical
+    public Map<String, Integer> contarPorCategoria() {
+        return indiceCategorias.conteos();
     }
 
-    public List<Palabra> findByTerminoStartingWith(char inicial) {
+    public List<PalabraDTO> findByTerminoStartingWith(char inicial, Long after, Integer limit) {
         if (!Character.isLetter(inicial)) {
             throw new IllegalArgumentException("El carácter inicial debe ser una letra.");
         }
-        return palabraRepository.findByTerminoStartingWith(inicial);
+        return indicePrefijos.buscarPorInicial(inicial, cursor(after), maximo(limit));
+    }
+
+    public List<PalabraDTO> autocompletar(String prefijo, Integer limit) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            throw new IllegalArgumentException("El prefijo no puede estar vacío.");
+        }
+        return indicePrefijos.autocompletar(prefijo.trim(), limit == null ? LIMITE_AUTOCOMPLETAR : limite(limit).max());
+    }
+
+    public List<PalabraDTO> sugerencias(String termino, Integer distancia, Integer limit) {
+        if (termino == null || termino.trim().isEmpty()) {
+            throw new IllegalArgumentException("El término no puede estar vacío.");
+        }
+        int distanciaMaxima = distancia == null ? DISTANCIA_SUGERENCIAS : distancia;
+        if (distanciaMaxima < 0 || distanciaMaxima > DISTANCIA_MAXIMA_SUGERENCIAS) {
+            throw new IllegalArgumentException("La distancia debe estar entre 0 y " + DISTANCIA_MAXIMA_SUGERENCIAS + ".");
+        }
+        return indicePrefijos.sugerir(termino, distanciaMaxima, limit == null ? LIMITE_AUTOCOMPLETAR : limite(limit).max());
+    }
+
+    public List<ResultadoBusquedaDTO> buscarEnDefiniciones(String consulta, Integer limit) {
+        if (consulta == null || consulta.trim().isEmpty()) {
+            throw new IllegalArgumentException("La consulta no puede estar vacía.");
+        }
+        Map<Long, Double> puntuaciones = indiceTextual.buscar(consulta, limit == null ? LIMITE_AUTOCOMPLETAR : limite(limit).max());
+        if (puntuaciones.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        List<ResultadoBusquedaDTO> encontrados = instantanea != null
+                ? instantanea.resultados(puntuaciones.keySet())
+                : definicionRepository.findResultadosByIdIn(puntuaciones.keySet());
+        Map<Long, ResultadoBusquedaDTO> porDefinicion = new HashMap<>();
+        for (ResultadoBusquedaDTO resultado : encontrados) {
+            porDefinicion.put(resultado.getDefinicionId(), resultado);
+        }
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>();
+        for (Map.Entry<Long, Double> entrada : puntuaciones.entrySet()) {
+            ResultadoBusquedaDTO resultado = porDefinicion.get(entrada.getKey());
+            if (resultado != null) {
+                resultado.setPuntuacion(entrada.getValue());
+                resultados.add(resultado);
+            }
+        }
+        return resultados;
+    }
+
+    // Búsqueda sin distinguir tildes ni mayúsculas sobre la columna normalizada e indexada
+    public List<PalabraDTO> buscarPorTermino(String termino, boolean prefijo, Long after, Integer limit) {
+        if (termino == null || termino.trim().isEmpty()) {
+            throw new IllegalArgumentException("El término de búsqueda no puede estar vacío.");
+        }
+        String clave = Normalizador.normalizar(termino);
+        if (clave.isEmpty()) {
+            // Solo signos diacríticos: no queda nada que buscar
+            throw new IllegalArgumentException("El término de búsqueda no puede estar vacío.");
+        }
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            return prefijo
+                    ? instantanea.porNormalizado(clave, true, cursor(after), maximo(limit))
+                    : instantanea.porNormalizado(clave, false, 0, Integer.MAX_VALUE);
+        }
+        if (!prefijo) {
+            return palabraRepository.findByTerminoNormalizado(clave);
+        }
+        String hasta = clave.substring(0, clave.length() - 1) + (char) (clave.charAt(clave.length() - 1) + 1);
+        return palabraRepository.findByPrefijoNormalizado(clave, hasta, clave, cursor(after), limite(limit));
+    }
+
+    // Rellena la clave normalizada de las palabras guardadas antes de que existiera la columna (CargasArranque)
+    public void completarTerminosNormalizados() {
+        try {
+            int total = 0;
+            long after = 0;
+            List<PalabraDTO> pendientes;
+            // Por id y no volviendo a empezar: una palabra sin término seguiría sin clave y saldría siempre
+            do {
+                pendientes = palabraRepository.findSinNormalizar(after, Limit.of(500));
+                for (PalabraDTO palabra : pendientes) {
+                    palabraRepository.actualizarTerminoNormalizado(palabra.getId(), Normalizador.normalizar(palabra.getTermino()));
+                    after = palabra.getId();
+                }
+                total += pendientes.size();
+            } while (!pendientes.isEmpty());
+            if (total > 0) {
+                log.info("Clave normalizada calculada para {} palabras existentes", total);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudieron normalizar los términos existentes: {}", e.getMessage());
+        }
     }
 
     public boolean existsByTermino(String termino) {
-        return palabraRepository.existsByTermino(termino);
+        if (!filtroTerminos.puedeContener(termino)) {
+            return false;
+        }
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            return instantanea.existe(termino);
+        }
+        return cachePalabras.existe(termino, () -> palabraRepository.existsByTermino(termino));
+    }
+
+    // Comprobación previa a guardar: sin caché, pero descartando antes con el filtro. La garantía
+    // frente a altas concurrentes la da la restricción única sobre el término.
+    private boolean terminoExiste(String termino) {
+        return filtroTerminos.puedeContener(termino) && palabraRepository.existsByTermino(termino);
+    }
+
+    public long getVersionEstadisticas() {
+        return estadisticasService.getVersion();
     }
 
     public Map<String, Object> obtenerEstadisticas() {
         try {
-            List<Palabra> palabras = palabraRepository.findAll();
-            int totalPalabras = palabras.size();
-            int totalDefiniciones = palabras.stream().mapToInt(p -> p.getDefiniciones().size()).sum();
-            Map<String, Long> categorias = palabras.stream()
-                    .collect(Collectors.groupingBy(Palabra::getCategoriaGramatical, Collectors.counting()));
-
-            Map<String, Object> estadisticas = new HashMap<>();
-            estadisticas.put("totalPalabras", totalPalabras);
-            estadisticas.put("totalDefiniciones", totalDefiniciones);
-            estadisticas.put("categoriasGramaticales", categorias);
-
-            return estadisticas;
+            return estadisticasService.obtener();
         } catch (Exception e) {
             throw new RuntimeException("Error al obtener estadísticas del diccionario: " + e.getMessage());
         }
     }
 
-    public String exportarDiccionario() {
+    // Desde la instantánea no hace falta transacción ni conexión, por eso se abre solo para el cursor
+    public void exportarDiccionario(Writer writer) {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            Iterable<Palabra> palabras = () -> instantanea.palabrasDesde(0);
+            escribirCsv(writer, StreamSupport.stream(palabras.spliterator(), false)
+                    .flatMap(palabra -> palabra.getDefiniciones().stream()
+                            .map(definicion -> new FilaExportacionDTO(palabra.getId(), palabra.getTermino(),
+                                    palabra.getCategoriaGramatical(), definicion.getDescripcion())))
+                    .iterator());
+            return;
+        }
+        soloLectura().executeWithoutResult(estado -> {
+            try (Stream<FilaExportacionDTO> filas = palabraRepository.streamFilasExportacion()) {
+                escribirCsv(writer, filas.iterator());
+            }
+        });
+    }
+
+    private static void escribirCsv(Writer writer, Iterator<FilaExportacionDTO> iterator) {
         try {
-            List<Palabra> palabras = palabraRepository.findAll();
-            StringBuilder builder = new StringBuilder();
-
-            builder.append("Id,Termino,Categoria Gramatical,Definiciones\n");
-            for (Palabra palabra : palabras) {
-                for (Definicion definicion : palabra.getDefiniciones()) {
-                    builder.append(palabra.getId()).append(",");
-                    builder.append(palabra.getTermino()).append(",");
-                    builder.append(palabra.getCategoriaGramatical()).append(",");
-                    builder.append(definicion.getDescripcion()).append("\n");
-                }
+            writer.write("Id,Termino,Categoria Gramatical,Definiciones\r\n");
+            while (iterator.hasNext()) {
+                FilaExportacionDTO fila = iterator.next();
+                writer.write(String.valueOf(fila.getPalabraId()));
+                writer.write(',');
+                writer.write(escaparCsv(fila.getTermino()));
+                writer.write(',');
+                writer.write(escaparCsv(fila.getCategoriaGramatical()));
+                writer.write(',');
+                writer.write(escaparCsv(fila.getDescripcion()));
+                writer.write("\r\n");
             }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir el diccionario exportado: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al exportar el diccionario: " + e.getMessage(), e);
+        }
+    }
 
-            return builder.toString();
+    // Descarga en formato binario desde un cursor. Las filas de una palabra llegan seguidas y se
+    // reúnen antes de escribirla, porque el formato lleva el número de definiciones delante.
+    public void exportarDiccionarioBinario(Long after, OutputStream salida) {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea != null) {
+            try {
+                FormatoBinario.escribir(instantanea.palabrasDesde(cursor(after)), salida);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error al escribir el diccionario binario: " + e.getMessage(), e);
+            }
+            return;
+        }
+        soloLectura().executeWithoutResult(estado -> escribirBinario(after, salida));
+    }
+
+    private void escribirBinario(Long after, OutputStream salida) {
+        try (Stream<FilaDiccionarioDTO> filas = palabraRepository.streamFilasDiccionario(cursor(after))) {
+            FormatoBinario.Escritor escritor = new FormatoBinario.Escritor(salida);
+            List<FilaDiccionarioDTO> palabra = new ArrayList<>();
+            Iterator<FilaDiccionarioDTO> iterator = filas.iterator();
+            while (iterator.hasNext()) {
+                FilaDiccionarioDTO fila = iterator.next();
+                if (!palabra.isEmpty() && !palabra.get(0).getPalabraId().equals(fila.getPalabraId())) {
+                    escribirPalabra(escritor, palabra);
+                    palabra.clear();
+                }
+                palabra.add(fila);
+            }
+            if (!palabra.isEmpty()) {
+                escribirPalabra(escritor, palabra);
+            }
+            escritor.terminar();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir el diccionario binario: " + e.getMessage(), e);
         } catch (Exception e) {
-            throw new RuntimeException("Error al exportar el diccionario: " + e.getMessage());
+            throw new RuntimeException("Error al exportar el diccionario: " + e.getMessage(), e);
+        }
+    }
+
+    // Una palabra sin definiciones llega en una sola fila con la definición vacía
+    private static void escribirPalabra(FormatoBinario.Escritor escritor, List<FilaDiccionarioDTO> filas) throws IOException {
+        FilaDiccionarioDTO primera = filas.get(0);
+        int definiciones = primera.getDefinicionId() == null ? 0 : filas.size();
+        escritor.palabra(primera.getPalabraId(), primera.getTermino(), primera.getCategoriaGramatical(), primera.getVersion(), definiciones);
+        for (int i = 0; i < definiciones; i++) {
+            FilaDiccionarioDTO fila = filas.get(i);
+            escritor.definicion(fila.getDefinicionId(), fila.getDescripcion(), fila.getEjemplo());
+        }
+    }
+
+    // Entrecomillado según RFC 4180
+    private static String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
         }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
     }
 
+    @Transactional
     public Palabra createPalabraConDefiniciones(Palabra palabra, List<Definicion> definiciones) {
         if (palabra == null) {
             throw new IllegalArgumentException("El objeto Palabra no puede ser nulo.");
@@ -167,7 +659,7 @@ public class PalabraService {
         if (palabra.getCategoriaGramatical() == null || palabra.getCategoriaGramatical().trim().isEmpty()) {
             throw new IllegalArgumentException("La categoría gramatical no puede estar vacía.");
         }
-        if (palabraRepository.existsByTermino(palabra.getTermino())) {
+        if (terminoExiste(palabra.getTermino())) {
             throw new IllegalStateException("La palabra '" + palabra.getTermino() + "' ya existe en el diccionario.");
         }
         if (definiciones == null || definiciones.isEmpty()) {
@@ -179,13 +671,23 @@ public class PalabraService {
             }
         }
         try {
+            for (Definicion definicion : definiciones) {
+                definicion.setPalabra(palabra);
+            }
             palabra.setDefiniciones(definiciones);
-            return palabraRepository.save(palabra);
+            filtroTerminos.agregar(palabra.getTermino());
+            Palabra guardada = palabraRepository.saveAndFlush(palabra);
+            registroCambios.palabraCreada(guardada);
+            eventPublisher.publishEvent(CambioPalabraEvent.creada(aDTO(guardada), definiciones.size()));
+            return guardada;
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("La palabra '" + palabra.getTermino() + "' ya existe en el diccionario.", e);
         } catch (Exception e) {
             throw new RuntimeException("Error al guardar la palabra y sus definiciones en la base de datos: " + e.getMessage(), e);
         }
     }
 
+    @Transactional
     public Palabra addDefinicionToPalabra(Long id, Definicion definicion) throws RecordNotFoundException {
         if (definicion == null) {
             throw new IllegalArgumentException("El objeto Definicion no puede ser nulo.");
@@ -193,21 +695,74 @@ public class PalabraService {
         if (definicion.getDescripcion() == null || definicion.getDescripcion().trim().isEmpty()) {
             throw new IllegalArgumentException("La descripción de la definición no puede estar vacía.");
         }
-        Optional<Palabra> palabraOptional = palabraRepository.findById(id);
+        Optional<Palabra> palabraOptional = palabraRepository.findConDefinicionesById(id);
         if (palabraOptional.isPresent()) {
             Palabra palabraExistente = palabraOptional.get();
+            definicion.setPalabra(palabraExistente);
             palabraExistente.getDefiniciones().add(definicion);
-            return palabraRepository.save(palabraExistente);
+            // Las definiciones son el lado inverso de la relación y no cambian la versión por sí solas
+            entityManager.lock(palabraExistente, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            Palabra guardada = palabraRepository.saveAndFlush(palabraExistente);
+            Definicion agregada = guardada.getDefiniciones().get(guardada.getDefiniciones().size() - 1);
+            registroCambios.definicionAgregada(id, agregada);
+            eventPublisher.publishEvent(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.AGREGADA, agregada.getId(), id,
+                    agregada.getDescripcion(), agregada.getEjemplo(), guardada.getDefiniciones().size()));
+            return guardada;
         } else {
             throw new RecordNotFoundException("No existe Palabra para el id: ", id);
         }
     }
     public List<Definicion> getDefinicionesByPalabraId(Long id) throws RecordNotFoundException {
-        Optional<Palabra> palabraOptional = palabraRepository.findById(id);
-        if (palabraOptional.isPresent()) {
-            return palabraOptional.get().getDefiniciones();
-        } else {
-            throw new RecordNotFoundException("No existe Palabra para el id: ", id);
+        return getPalabraConDefinicionesById(id).getDefiniciones();
+    }
+
+    // Palabras por id en el orden de los ids, desde la instantánea si está al día
+    private List<PalabraDTO> leerPalabras(List<Long> ids) {
+        ArchivoInstantanea instantanea = instantaneaDiccionario.vigente();
+        if (instantanea == null) {
+            return palabraRepository.findByIdIn(ids);
+        }
+        List<PalabraDTO> palabras = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PalabraDTO palabra = instantanea.palabra(id);
+            if (palabra != null) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    private static long cursor(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    private static Limit limite(Integer limit) {
+        return Limit.of(tamanoPagina(limit));
+    }
+
+    // Igual que limite() para las lecturas desde la instantánea
+    private static int maximo(Integer limit) {
+        return tamanoPagina(limit);
+    }
+
+    // Tamaño efectivo de una página de listado con el 'limit' pedido
+    public static int tamanoPagina(Integer limit) {
+        if (limit == null) {
+            return LIMITE_POR_DEFECTO;
         }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que cero.");
+        }
+        return Math.min(limit, LIMITE_MAXIMO);
+    }
+
+    private TransactionTemplate soloLectura() {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setReadOnly(true);
+        return plantilla;
+    }
+
+    private static PalabraDTO aDTO(Palabra palabra) {
+        return PalabraDTO.de(palabra);
     }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+package org.example.dictionaryapp.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.dictionaryapp.configs.ConsistenciaLecturas;
+import org.example.dictionaryapp.dto.RespuestaCambiosDTO;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.model.ContadorCambios;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.repository.CambioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Registro de cambios del diccionario, escrito en la misma transacción que cada cambio. Los seq salen de
+// ContadorCambios, que queda bloqueado hasta confirmar, así que se confirman en orden desde cualquier instancia.
+@Component
+public class RegistroCambios {
+
+    public static final int LIMITE_POR_DEFECTO = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroCambios.class);
+
+    @Autowired
+    private CambioRepository cambioRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Protegido por this; solo crece
+    private long ultimoConfirmado;
+
+    // Crea la fila del contador si aún no existe (base de datos creada con ddl-auto), a partir de
+    // los cambios ya registrados
+    @PostConstruct
+    public void inicializar() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                if (cambioRepository.ultimoSeq() == null) {
+                    Long maximo = cambioRepository.maxSeq();
+                    entityManager.persist(new ContadorCambios(maximo == null ? 0 : maximo));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia que arranca a la vez ya la ha creado
+        }
+        confirmado(cambioRepository.ultimoSeq());
+    }
+
+    // Cambios confirmados desde otras instancias
+    @Scheduled(fixedDelayString = "${diccionario.cambios.sondeo-ms:1000}",
+            initialDelayString = "${diccionario.cambios.sondeo-ms:1000}")
+    public void sondear() {
+        try {
+            Long ultimo = cambioRepository.ultimoSeq();
+            if (ultimo != null && confirmado(ultimo)) {
+                eventPublisher.publishEvent(new CambiosConfirmadosEvent(ultimo));
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo consultar el registro de cambios: {}", e.getMessage());
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void palabraCreada(Palabra palabra) {
+        registrar(cambiosDeAlta(palabra));
+    }
+
+    // Las palabras de un lote de importación, con una sola reserva para todo el lote
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void palabrasImportadas(List<Palabra> palabras) {
+        List<Cambio> cambios = new ArrayList<>();
+        for (Palabra palabra : palabras) {
+            cambios.addAll(cambiosDeAlta(palabra));
+        }
+        registrar(cambios);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void palabraActualizada(Palabra palabra) {
+        registrar(List.of(Cambio.dePalabra(Cambio.Tipo.PALABRA_ACTUALIZADA, palabra)));
+    }
+
+    // Sus definiciones se eliminan con ella, no se registran aparte
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void palabraEliminada(Palabra palabra) {
+        registrar(List.of(Cambio.dePalabra(Cambio.Tipo.PALABRA_ELIMINADA, palabra)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void definicionAgregada(Long palabraId, Definicion definicion) {
+        registrar(List.of(Cambio.definicionAgregada(palabraId, definicion)));
+    }
+
+    // Las de un lote de escritura diferida, con una sola reserva para todo el lote
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void definicionesAgregadas(List<Definicion> definiciones) {
+        List<Cambio> cambios = new ArrayList<>();
+        for (Definicion definicion : definiciones) {
+            cambios.add(Cambio.definicionAgregada(definicion.getPalabra().getId(), definicion));
+        }
+        registrar(cambios);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void definicionEliminada(Long palabraId, Long definicionId) {
+        registrar(List.of(Cambio.definicionEliminada(palabraId, definicionId)));
+    }
+
+    // Sin 'desde' solo se devuelve el punto de partida para un cliente nuevo
+    public RespuestaCambiosDTO getCambios(Long desde, Integer limit, boolean compactar) {
+        if (desde != null && desde < 0) {
+            throw new IllegalArgumentException("El valor de 'desde' no puede ser negativo.");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que cero.");
+        }
+        if (desde == null) {
+            return new RespuestaCambiosDTO(List.of(), ultimoConfirmado(), false);
+        }
+        return leer(desde, limit == null ? LIMITE_POR_DEFECTO : Math.min(limit, PalabraService.LIMITE_MAXIMO), compactar);
+    }
+
+    // Cambios posteriores a 'desde'. Con compactar se quitan, dentro de la página, los que dejan
+    // sin efecto otros posteriores de la misma palabra: el resultado de aplicarlos es el mismo.
+    public RespuestaCambiosDTO leer(long desde, int limit, boolean compactar) {
+        // La cota se calcula antes de consultar: lo que esté por debajo ya está confirmado
+        long hasta = ultimoConfirmado() + 1;
+        // Con réplicas, una que vaya por detrás de la cota se saltaría cambios: el cursor devuelto
+        // ya estaría más allá y el cliente no los volvería a pedir
+        ConsistenciaLecturas.exigir(hasta - 1);
+        List<Cambio> cambios = cambioRepository.findPagina(desde, hasta, Limit.of(limit));
+        boolean hayMas = cambios.size() == limit;
+        long siguiente = hayMas ? cambios.get(cambios.size() - 1).getSeq() : Math.max(desde, hasta - 1);
+        return new RespuestaCambiosDTO(compactar ? compactar(cambios) : cambios, siguiente, hayMas);
+    }
+
+    // Último seq que ya se puede leer; un cliente nuevo empieza aquí antes de descargar el diccionario
+    public synchronized long ultimoConfirmado() {
+        return ultimoConfirmado;
+    }
+
+    private List<Cambio> cambiosDeAlta(Palabra palabra) {
+        List<Cambio> cambios = new ArrayList<>();
+        cambios.add(Cambio.dePalabra(Cambio.Tipo.PALABRA_CREADA, palabra));
+        if (palabra.getDefiniciones() != null) {
+            for (Definicion definicion : palabra.getDefiniciones()) {
+                cambios.add(Cambio.definicionAgregada(palabra.getId(), definicion));
+            }
+        }
+        return cambios;
+    }
+
+    private void registrar(List<Cambio> cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        // Lo pendiente de la transacción se escribe antes de bloquear el contador, para retenerlo lo menos posible
+        entityManager.flush();
+        cambioRepository.reservarSeqs(cambios.size());
+        long ultimo = cambioRepository.ultimoSeq();
+        long seq = ultimo - cambios.size();
+        for (Cambio cambio : cambios) {
+            cambio.setSeq(++seq);
+            entityManager.persist(cambio);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    confirmado(ultimo);
+                    eventPublisher.publishEvent(CambiosConfirmadosEvent.propios(ultimo - cambios.size() + 1, ultimo));
+                }
+            }
+        });
+    }
+
+    // true si es posterior al último conocido
+    private synchronized boolean confirmado(long seq) {
+        if (seq <= ultimoConfirmado) {
+            return false;
+        }
+        ultimoConfirmado = seq;
+        return true;
+    }
+
+    static List<Cambio> compactar(List<Cambio> cambios) {
+        Set<Long> palabrasVistas = new HashSet<>();
+        Set<Long> palabrasEliminadas = new HashSet<>();
+        Set<Long> definicionesEliminadas = new HashSet<>();
+        List<Cambio> resultado = new ArrayList<>();
+        for (int i = cambios.size() - 1; i >= 0; i--) {
+            Cambio cambio = cambios.get(i);
+            Long palabraId = cambio.getPalabraId();
+            boolean conservar = switch (cambio.getTipo()) {
+                case PALABRA_CREADA, PALABRA_ACTUALIZADA, PALABRA_ELIMINADA -> palabrasVistas.add(palabraId);
+                case DEFINICION_AGREGADA -> !palabrasEliminadas.contains(palabraId)
+                        && !definicionesEliminadas.contains(cambio.getDefinicionId());
+                case DEFINICION_ELIMINADA -> !palabrasEliminadas.contains(palabraId)
+                        && definicionesEliminadas.add(cambio.getDefinicionId());
+            };
+            if (cambio.getTipo() == Cambio.Tipo.PALABRA_ELIMINADA) {
+                palabrasEliminadas.add(palabraId);
+            }
+            if (conservar) {
+                resultado.add(cambio);
+            }
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.dictionaryapp.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.dictionaryapp.event.CambiosConfirmadosEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Versión del diccionario: el último seq confirmado del registro de cambios, igual en todas las instancias.
+// Da el ETag de los listados; no hay Last-Modified porque cada instancia ve los cambios en un momento distinto.
+@Component
+public class VersionDiccionario {
+
+    @Autowired
+    private RegistroCambios registroCambios;
+
+    private volatile long version;
+
+    @PostConstruct
+    public void inicializar() {
+        version = registroCambios.ultimoConfirmado();
+    }
+
+    public String etag() {
+        return etag("");
+    }
+
+    // Cada representación del mismo recurso (JSON, binaria) necesita su propio ETag
+    public String etag(String variante) {
+        return etag(version, variante);
+    }
+
+    // Para lo que lleva su propia versión del registro de cambios (EstadisticasService)
+    public static String etag(long version, String variante) {
+        return "\"d" + version + variante + "\"";
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @EventListener
+    public void onCambiosConfirmados(CambiosConfirmadosEvent evento) {
+        actualizar(evento.getSeq());
+    }
+
+    // Los avisos pueden llegar desordenados desde varios hilos: la versión nunca baja
+    private synchronized void actualizar(long seq) {
+        if (seq > version) {
+            version = seq;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.example.dictionaryapp.util;
+
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Formato binario compacto del diccionario (application/x-diccionario); se escribe de un tirón desde el cursor.
+//   cabecera: 'D' 'I' 'C' 1
+//   palabra:  uvarint id - id anterior (0 = fin), texto término, uvarint categoría (posición en la tabla;
+//             igual al tamaño: le sigue el texto de una nueva), uvarint versión + 1 (0 = nula),
+//             uvarint número de definiciones y por cada una svarint id - id anterior, texto descripción, texto ejemplo
+// uvarint: base 128 empezando por los bits bajos, como en Protobuf; texto: uvarint longitud UTF-8 + 1 (0 = nulo) y los bytes.
+public final class FormatoBinario {
+
+    public static final String MEDIA_TYPE = "application/x-diccionario";
+
+    private static final byte[] CABECERA = {'D', 'I', 'C', 1};
+
+    private FormatoBinario() {
+    }
+
+    public static void escribir(List<Palabra> palabras, OutputStream salida) throws IOException {
+        escribir(palabras.iterator(), salida);
+    }
+
+    public static void escribir(Iterator<Palabra> palabras, OutputStream salida) throws IOException {
+        Escritor escritor = new Escritor(salida);
+        while (palabras.hasNext()) {
+            escritor.palabra(palabras.next());
+        }
+        escritor.terminar();
+    }
+
+    public static List<Palabra> leer(InputStream entrada) throws IOException {
+        Lector lector = new Lector(entrada);
+        for (int i = 0; i < CABECERA.length; i++) {
+            if (lector.octeto() != CABECERA[i]) {
+                throw new IOException("No es un diccionario en formato binario o la versión no es compatible");
+            }
+        }
+        List<Palabra> palabras = new ArrayList<>();
+        List<String> categorias = new ArrayList<>();
+        long id = 0;
+        long definicionId = 0;
+        long delta;
+        while ((delta = lector.uvarint()) != 0) {
+            id += delta;
+            Palabra palabra = new Palabra();
+            palabra.setId(id);
+            palabra.setTermino(lector.texto());
+            long categoria = lector.uvarint();
+            if (categoria < 0 || categoria > categorias.size()) {
+                throw new IOException("Categoría " + categoria + " fuera de la tabla (" + categorias.size() + ") en la palabra " + id);
+            }
+            if (categoria == categorias.size()) {
+                categorias.add(lector.texto());
+            }
+            palabra.setCategoriaGramatical(categorias.get((int) categoria));
+            long version = lector.uvarint();
+            palabra.setVersion(version == 0 ? null : version - 1);
+            // El número de definiciones viene de la entrada: no se reserva espacio por adelantado
+            long total = lector.uvarint();
+            List<Definicion> definiciones = new ArrayList<>();
+            for (long i = 0; i < total; i++) {
+                long zigzag = lector.uvarint();
+                definicionId += (zigzag >>> 1) ^ -(zigzag & 1);
+                Definicion definicion = new Definicion();
+                definicion.setId(definicionId);
+                definicion.setDescripcion(lector.texto());
+                definicion.setEjemplo(lector.texto());
+                definiciones.add(definicion);
+            }
+            palabra.setDefiniciones(definiciones);
+            palabras.add(palabra);
+        }
+        return palabras;
+    }
+
+    // Escribe sobre un buffer propio: los enteros van byte a byte y un BufferedOutputStream
+    // sincroniza cada escritura. No cierra la salida.
+    public static final class Escritor {
+
+        private final OutputStream salida;
+        private final byte[] buffer = new byte[8192];
+        private int posicion;
+
+        private final Map<String, Integer> categorias = new HashMap<>();
+        private long idAnterior;
+        private long definicionAnterior;
+        private int definicionesPendientes;
+
+        public Escritor(OutputStream salida) throws IOException {
+            this.salida = salida;
+            for (byte b : CABECERA) {
+                octeto(b);
+            }
+        }
+
+        public void palabra(Palabra palabra) throws IOException {
+            List<Definicion> definiciones = palabra.getDefiniciones() == null ? List.of() : palabra.getDefiniciones();
+            palabra(palabra.getId(), palabra.getTermino(), palabra.getCategoriaGramatical(), palabra.getVersion(), definiciones.size());
+            for (Definicion definicion : definiciones) {
+                definicion(definicion.getId(), definicion.getDescripcion(), definicion.getEjemplo());
+            }
+        }
+
+        // Debe ir seguida de exactamente 'definiciones' llamadas a definicion()
+        public void palabra(long id, String termino, String categoria, Long version, int definiciones) throws IOException {
+            if (definicionesPendientes != 0) {
+                throw new IllegalStateException("Faltan " + definicionesPendientes + " definiciones de la palabra " + idAnterior);
+            }
+            if (id <= idAnterior) {
+                throw new IllegalArgumentException("Las palabras deben escribirse por id creciente: " + id + " después de " + idAnterior);
+            }
+            uvarint(id - idAnterior);
+            idAnterior = id;
+            texto(termino);
+            Integer posicion = categorias.get(categoria);
+            if (posicion != null) {
+                uvarint(posicion);
+            } else {
+                uvarint(categorias.size());
+                texto(categoria);
+                categorias.put(categoria, categorias.size());
+            }
+            uvarint(version == null ? 0 : version + 1);
+            uvarint(definiciones);
+            definicionesPendientes = definiciones;
+        }
+
+        public void definicion(long id, String descripcion, String ejemplo) throws IOException {
+            if (definicionesPendientes == 0) {
+                throw new IllegalStateException("La palabra " + idAnterior + " no tiene más definiciones");
+            }
+            definicionesPendientes--;
+            long delta = id - definicionAnterior;
+            uvarint((delta << 1) ^ (delta >> 63));
+            definicionAnterior = id;
+            texto(descripcion);
+            texto(ejemplo);
+        }
+
+        public void terminar() throws IOException {
+            if (definicionesPendientes != 0) {
+                throw new IllegalStateException("Faltan " + definicionesPendientes + " definiciones de la palabra " + idAnterior);
+            }
+            uvarint(0);
+            vaciar();
+            salida.flush();
+        }
+
+        private void texto(String valor) throws IOException {
+            if (valor == null) {
+                uvarint(0);
+                return;
+            }
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            uvarint(bytes.length + 1L);
+            if (bytes.length > buffer.length - posicion) {
+                vaciar();
+                if (bytes.length > buffer.length) {
+                    salida.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, posicion, bytes.length);
+            posicion += bytes.length;
+        }
+
+        private void uvarint(long valor) throws IOException {
+            if (buffer.length - posicion < 10) {
+                vaciar();
+            }
+            while ((valor & ~0x7FL) != 0) {
+                buffer[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            buffer[posicion++] = (byte) valor;
+        }
+
+        private void octeto(byte valor) throws IOException {
+            if (posicion == buffer.length) {
+                vaciar();
+            }
+            buffer[posicion++] = valor;
+        }
+
+        private void vaciar() throws IOException {
+            if (posicion > 0) {
+                salida.write(buffer, 0, posicion);
+                posicion = 0;
+            }
+        }
+    }
+
+    private static final class Lector {
+
+        private final InputStream entrada;
+
+        Lector(InputStream entrada) {
+            this.entrada = entrada;
+        }
+
+        int octeto() throws IOException {
+            int b = entrada.read();
+            if (b < 0) {
+                throw new EOFException("El diccionario binario está incompleto");
+            }
+            return b;
+        }
+
+        long uvarint() throws IOException {
+            long valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+                int b = octeto();
+                valor |= (long) (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Entero demasiado largo en el diccionario binario");
+        }
+
+        String texto() throws IOException {
+            long longitud = uvarint();
+            if (longitud == 0) {
+                return null;
+            }
+            if (longitud < 0 || longitud - 1 > Integer.MAX_VALUE - 8) {
+                throw new IOException("Texto demasiado largo en el diccionario binario");
+            }
+            // readNBytes va leyendo por bloques: una longitud falsa no reserva toda la memoria de golpe
+            byte[] bytes = entrada.readNBytes((int) (longitud - 1));
+            if (bytes.length != longitud - 1) {
+                throw new EOFException("El diccionario binario está incompleto");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
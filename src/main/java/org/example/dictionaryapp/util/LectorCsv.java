@@ -0,0 +1,94 @@
+package org.example.dictionaryapp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lector incremental de CSV según RFC 4180 (el formato de la exportación): campos entre comillas
+// con comillas dobladas y saltos de línea dentro. Lee fila a fila sin cargar el fichero entero.
+public class LectorCsv {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int posicion;
+    private int limite;
+    private long linea = 1;
+
+    public LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Número de línea en el que empieza la siguiente fila
+    public long getLinea() {
+        return linea;
+    }
+
+    // Devuelve null al llegar al final
+    public List<String> siguienteFila() throws IOException {
+        int c = leer();
+        if (c < 0) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean campoEntrecomillado = false;
+        while (true) {
+            if (entreComillas) {
+                if (c < 0) {
+                    throw new IOException("Comillas sin cerrar en la línea " + linea);
+                }
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n' && siguiente >= 0) {
+                        posicion--;
+                    }
+                }
+                if (c >= 0) {
+                    linea++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                campoEntrecomillado = false;
+            } else if (c == '"' && campo.length() == 0 && !campoEntrecomillado) {
+                entreComillas = true;
+                campoEntrecomillado = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    private int leer() throws IOException {
+        if (posicion == limite) {
+            limite = reader.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.dictionaryapp.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+// Clave de búsqueda de un término: en minúsculas y sin tildes ni diéresis, pero conservando la ñ,
+// de modo que "Árbol", "arbol" y "árbol" comparten clave y "año" no se confunde con "ano".
+public final class Normalizador {
+
+    private static final char TILDE_COMBINABLE = '\u0303';
+
+    private Normalizador() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String descompuesto = Normalizer.normalize(texto.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (c == TILDE_COMBINABLE && builder.length() > 0 && builder.charAt(builder.length() - 1) == 'n') {
+                builder.setCharAt(builder.length() - 1, 'ñ');
+                continue;
+            }
+            int tipo = Character.getType(c);
+            if (tipo == Character.NON_SPACING_MARK || tipo == Character.COMBINING_SPACING_MARK || tipo == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,40 @@
+-- Esquema tal como lo creaba Hibernate con ddl-auto=update. Una base de datos que ya tiene estas
+-- tablas se da por migrada hasta esta versión sin ejecutar el script.
+create sequence cambio_seq start with 1 increment by 50;
+create sequence definicion_seq start with 1 increment by 50;
+create sequence palabra_seq start with 1 increment by 50;
+
+create table cambio (
+    definicion_id bigint,
+    instante timestamp(6) with time zone,
+    palabra_id bigint not null,
+    seq bigint not null,
+    tipo varchar(20) not null check (tipo in ('PALABRA_CREADA','PALABRA_ACTUALIZADA','PALABRA_ELIMINADA','DEFINICION_AGREGADA','DEFINICION_ELIMINADA')),
+    categoria_gramatical varchar(255),
+    descripcion varchar(255),
+    ejemplo varchar(255),
+    termino varchar(255),
+    primary key (seq)
+);
+
+create table definicion (
+    id bigint not null,
+    palabra_id bigint,
+    descripcion varchar(255),
+    ejemplo varchar(255),
+    primary key (id)
+);
+
+create table palabra (
+    id bigint not null,
+    version bigint,
+    categoria_gramatical varchar(255),
+    termino varchar(255),
+    termino_normalizado varchar(255),
+    primary key (id),
+    constraint uk_palabra_termino unique (termino)
+);
+
+create index idx_palabra_termino_normalizado on palabra (termino_normalizado, id);
+
+alter table if exists definicion add constraint FKo10afe8h3evemyf1qexkmr280 foreign key (palabra_id) references palabra;
@@ -0,0 +1,2 @@
+-- Listados por categoría gramatical paginados por id. Puede existir ya si la base se actualizó con ddl-auto=update.
+create index if not exists idx_palabra_categoria on palabra (categoria_gramatical, id);
@@ -0,0 +1,11 @@
+-- Los seq del registro de cambios salen de esta fila (ContadorCambios) y no de cambio_seq, para que
+-- se confirmen en orden también con varias instancias escribiendo
+create table if not exists cambio_contador (
+    id integer not null,
+    ultimo bigint not null,
+    primary key (id)
+);
+
+insert into cambio_contador (id, ultimo)
+select 1, coalesce(max(seq), 0) from cambio
+where not exists (select 1 from cambio_contador where id = 1);
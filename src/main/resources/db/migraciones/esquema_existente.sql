@@ -0,0 +1,28 @@
+-- Completa hasta V1 una base creada con ddl-auto por una versión anterior de la aplicación, que puede
+-- no tener las secuencias (los ids eran IDENTITY), las columnas version y termino_normalizado ni el
+-- registro de cambios (MigracionesEsquema). Sentencias idempotentes: lo que ya existe no se toca.
+create sequence if not exists cambio_seq start with 1 increment by 50;
+create sequence if not exists definicion_seq start with 1 increment by 50;
+create sequence if not exists palabra_seq start with 1 increment by 50;
+
+create table if not exists cambio (
+    definicion_id bigint,
+    instante timestamp(6) with time zone,
+    palabra_id bigint not null,
+    seq bigint not null,
+    tipo varchar(20) not null check (tipo in ('PALABRA_CREADA','PALABRA_ACTUALIZADA','PALABRA_ELIMINADA','DEFINICION_AGREGADA','DEFINICION_ELIMINADA')),
+    categoria_gramatical varchar(255),
+    descripcion varchar(255),
+    ejemplo varchar(255),
+    termino varchar(255),
+    primary key (seq)
+);
+
+alter table palabra add column if not exists version bigint;
+alter table palabra add column if not exists termino_normalizado varchar(255);
+-- Con @Version, una fila sin versión no se podría actualizar
+update palabra set version = 0 where version is null;
+
+create index if not exists idx_palabra_termino_normalizado on palabra (termino_normalizado, id);
+-- Falla si hay términos repetidos: hay que resolverlos antes de migrar
+create unique index if not exists uk_palabra_termino on palabra (termino);
@@ -0,0 +1,225 @@
+package org.example.dictionaryapp.carga;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.dictionaryapp.DictionaryAppApplication;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.service.ImportacionService;
+import org.example.dictionaryapp.service.PalabraService;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Arranca la aplicación completa en un puerto libre para las pruebas de carga, con dos añadidos:
+// una latencia opcional antes de cada sentencia SQL (imita la ida y vuelta a una base de datos
+// remota) y un filtro que, para cada ruta, acumula las sentencias ejecutadas y los bytes
+// reservados en el hilo de la petición.
+//
+// Base de datos (-Dcarga.bd): "h2" (por defecto), "h2-postgres" (H2 en modo de compatibilidad con
+// PostgreSQL) o una URL JDBC cualquiera, p. ej. la de un PostgreSQL local, con -Dcarga.bd.usuario
+// y -Dcarga.bd.clave.
+final class AplicacionCarga implements AutoCloseable {
+
+    private static final com.sun.management.ThreadMXBean HILOS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Sentencias ejecutadas por el hilo actual; el filtro toma la diferencia antes y después
+    private static final ThreadLocal<long[]> SENTENCIAS_HILO = ThreadLocal.withInitial(() -> new long[1]);
+
+    final ConfigurableApplicationContext context;
+    final Map<String, MedidaServidor> medidas = new ConcurrentHashMap<>();
+    final AtomicLong sentencias = new AtomicLong();
+
+    // Ids y términos presentes tras sembrar, en orden de id
+    long[] ids;
+    String[] terminos;
+
+    private final int latenciaBdMs;
+
+    AplicacionCarga(String nombre, String bd, boolean hilosVirtuales, int tamanoCache, int latenciaBdMs) {
+        this.latenciaBdMs = latenciaBdMs;
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                "--diccionario.cache.tamano-maximo=" + tamanoCache,
+                "--diccionario.busqueda.instantanea=target/carga/indice-" + nombre + ".bin",
+                "--logging.level.root=WARN"));
+        argumentos.addAll(baseDeDatos(nombre, bd));
+        argumentos.addAll(replicas(argumentos));
+        this.context = new SpringApplicationBuilder(DictionaryAppApplication.class)
+                .initializers(context -> {
+                    context.getBeanFactory().addBeanPostProcessor(new InstrumentacionBd());
+                    context.getBeanFactory().registerSingleton("medicionPeticiones", new MedicionPeticiones());
+                })
+                .run(argumentos.toArray(String[]::new));
+    }
+
+    private static List<String> baseDeDatos(String nombre, String bd) {
+        if (bd.startsWith("jdbc:")) {
+            return List.of("--spring.datasource.url=" + bd,
+                    "--spring.datasource.username=" + System.getProperty("carga.bd.usuario", ""),
+                    "--spring.datasource.password=" + System.getProperty("carga.bd.clave", ""));
+        }
+        String url = "jdbc:h2:mem:carga" + nombre + ";DB_CLOSE_DELAY=-1";
+        if (bd.equals("h2-postgres")) {
+            url += ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+        } else if (!bd.equals("h2")) {
+            throw new IllegalArgumentException("Base de datos de carga no reconocida: " + bd);
+        }
+        return List.of("--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create");
+    }
+
+    // -Dcarga.replicas: "misma" usa como réplica la propia base de datos de la prueba (siempre al día,
+    // para medir el enrutamiento), o URLs JDBC separadas por comas
+    private static List<String> replicas(List<String> argumentos) {
+        String replicas = System.getProperty("carga.replicas");
+        if (replicas == null || replicas.isBlank()) {
+            return List.of();
+        }
+        if (replicas.equals("misma")) {
+            replicas = argumentos.stream().filter(argumento -> argumento.startsWith("--spring.datasource.url="))
+                    .map(argumento -> argumento.substring("--spring.datasource.url=".length()))
+                    .findFirst().orElseThrow();
+        }
+        return List.of("--diccionario.bd.replicas.urls=" + replicas, "--spring.jpa.open-in-view=false");
+    }
+
+    int puerto() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    void sembrar(int palabras, long semilla) throws IOException {
+        new DiccionarioSintetico(semilla).sembrar(context.getBean(ImportacionService.class), palabras);
+        PalabraService palabraService = context.getBean(PalabraService.class);
+        List<PalabraDTO> presentes = new ArrayList<>(palabras);
+        Long after = null;
+        List<PalabraDTO> pagina;
+        while (!(pagina = palabraService.getPaginaPalabras(after, PalabraService.LIMITE_MAXIMO)).isEmpty()) {
+            presentes.addAll(pagina);
+            after = pagina.get(pagina.size() - 1).getId();
+        }
+        ids = presentes.stream().mapToLong(PalabraDTO::getId).toArray();
+        terminos = presentes.stream().map(PalabraDTO::getTermino).toArray(String[]::new);
+    }
+
+    // Descarta lo medido durante la siembra y el calentamiento
+    void reiniciarMedidas() {
+        medidas.clear();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // Acumulado por ruta en el servidor
+    static final class MedidaServidor {
+
+        final LongAdder peticiones = new LongAdder();
+        final LongAdder sentencias = new LongAdder();
+        final LongAdder bytesReservados = new LongAdder();
+        final LongAdder peticionesConReserva = new LongAdder();
+    }
+
+    private final class MedicionPeticiones implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            long[] contador = SENTENCIAS_HILO.get();
+            long sentenciasAntes = contador[0];
+            long reservadosAntes = HILOS.getCurrentThreadAllocatedBytes();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                long reservadosDespues = HILOS.getCurrentThreadAllocatedBytes();
+                Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String ruta = ((HttpServletRequest) request).getMethod() + " " + (patron != null ? patron : ((HttpServletRequest) request).getRequestURI());
+                MedidaServidor medida = medidas.computeIfAbsent(ruta, r -> new MedidaServidor());
+                medida.peticiones.increment();
+                medida.sentencias.add(contador[0] - sentenciasAntes);
+                // Con hilos virtuales la JVM no informa de las reservas por hilo (devuelve -1)
+                if (reservadosAntes >= 0 && reservadosDespues >= 0) {
+                    medida.bytesReservados.add(reservadosDespues - reservadosAntes);
+                    medida.peticionesConReserva.increment();
+                }
+            }
+        }
+    }
+
+    private final class InstrumentacionBd implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return instrumentar(super.getConnection());
+                }
+            };
+        }
+
+        private Connection instrumentar(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object resultado = invocar(connection, method, args);
+                        if (resultado instanceof Statement statement && method.getReturnType().isInterface()) {
+                            return instrumentar(statement, method.getReturnType());
+                        }
+                        return resultado;
+                    });
+        }
+
+        private Statement instrumentar(Statement statement, Class<?> tipo) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{tipo},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            SENTENCIAS_HILO.get()[0]++;
+                            sentencias.incrementAndGet();
+                            if (latenciaBdMs > 0) {
+                                Thread.sleep(latenciaBdMs);
+                            }
+                        }
+                        return invocar(statement, method, args);
+                    });
+        }
+
+        private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.dictionaryapp.carga;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga de extremo a extremo: arranca la aplicación, la siembra con un diccionario
+// sintético y lanza una mezcla configurable de peticiones a /palabras. Informa, por operación,
+// del rendimiento y los percentiles de latencia, y por ruta, de las sentencias SQL y la memoria
+// reservada por petición. Se ejecuta con mvn verify -Pload.
+//
+// Parámetros (-D...):
+//   carga.bd             h2 (por defecto), h2-postgres o una URL JDBC (con carga.bd.usuario y carga.bd.clave)
+//   carga.replicas       réplicas de lectura: "misma" (la propia base de datos) o URLs JDBC separadas por comas
+//   carga.palabras       tamaño del diccionario sembrado (20000)
+//   carga.clientes       clientes concurrentes (50)
+//   carga.segundos       duración de la medida (30), tras carga.calentamiento segundos (10)
+//   carga.mezcla         operaciones y pesos, p. ej. "porId:50,existe:30,crear:20" (ver GeneradorCarga)
+//   carga.zipf           exponente de popularidad de las palabras (1.0; 0 = uniforme)
+//   carga.cache          tamaño de la caché de lecturas (10000; 0 la desactiva)
+//   carga.latencia-bd-ms espera añadida a cada sentencia SQL (0)
+//   carga.virtuales      atender con hilos virtuales (false; requiere Java 21)
+class CargaHttpIT {
+
+    @Test
+    void mezclaDePeticiones() throws Exception {
+        String bd = System.getProperty("carga.bd", "h2");
+        boolean virtuales = Boolean.getBoolean("carga.virtuales");
+        try (AplicacionCarga aplicacion = new AplicacionCarga("http", bd, virtuales,
+                Integer.getInteger("carga.cache", 10000), Integer.getInteger("carga.latencia-bd-ms", 0))) {
+            long inicio = System.nanoTime();
+            aplicacion.sembrar(Integer.getInteger("carga.palabras", 20000), 42);
+            System.out.printf("%n[carga] %d palabras sembradas en %d ms%n", aplicacion.ids.length, (System.nanoTime() - inicio) / 1_000_000);
+
+            GeneradorCarga generador = new GeneradorCarga(aplicacion.puerto(), aplicacion.ids, aplicacion.terminos,
+                    System.getProperty("carga.mezcla", GeneradorCarga.MEZCLA_POR_DEFECTO),
+                    Double.parseDouble(System.getProperty("carga.zipf", "1.0")));
+            GeneradorCarga.Resultado resultado = generador.ejecutar(Integer.getInteger("carga.clientes", 50),
+                    Integer.getInteger("carga.calentamiento", 10), Integer.getInteger("carga.segundos", 30), aplicacion::reiniciarMedidas);
+
+            System.out.print(InformeCarga.generar("mezcla sobre " + bd + (virtuales ? " con hilos virtuales" : ""), resultado, aplicacion));
+            assertTrue(resultado.errores() <= resultado.total() / 100, "Más de un 1% de peticiones fallidas");
+        }
+    }
+}
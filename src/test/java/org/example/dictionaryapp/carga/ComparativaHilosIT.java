@@ -0,0 +1,44 @@
+package org.example.dictionaryapp.carga;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Compara el modelo actual (pool de hilos de Tomcat) con hilos virtuales bajo la misma carga.
+// Arranca la aplicación sobre H2 con la caché desactivada y una latencia artificial por sentencia
+// que imita la ida y vuelta a la base de datos remota. Se ejecuta con mvn verify -Pload; la parte
+// de hilos virtuales necesita Java 21 (mvn verify -Pload,java21).
+// Parámetros: -Dcarga.palabras, -Dcarga.concurrencia, -Dcarga.segundos, -Dcarga.latencia-bd-ms
+class ComparativaHilosIT {
+
+    private static final int PALABRAS = Integer.getInteger("carga.palabras", 2000);
+    private static final int CONCURRENCIA = Integer.getInteger("carga.concurrencia", 400);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 20);
+    private static final int CALENTAMIENTO_SEGUNDOS = 3;
+    private static final int LATENCIA_BD_MS = Integer.getInteger("carga.latencia-bd-ms", 3);
+
+    // Lecturas que van a la base de datos: por id, con definiciones y de existencia
+    private static final String MEZCLA = "porId:50,conDefiniciones:30,existe:20";
+
+    @Test
+    void hilosDePlataforma() throws Exception {
+        ejecutar(false);
+    }
+
+    @Test
+    void hilosVirtuales() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Los hilos virtuales necesitan Java 21");
+        ejecutar(true);
+    }
+
+    private void ejecutar(boolean virtuales) throws Exception {
+        try (AplicacionCarga aplicacion = new AplicacionCarga(virtuales ? "virtual" : "plataforma", "h2", virtuales, 0, LATENCIA_BD_MS)) {
+            aplicacion.sembrar(PALABRAS, 42);
+            GeneradorCarga generador = new GeneradorCarga(aplicacion.puerto(), aplicacion.ids, aplicacion.terminos, MEZCLA, 0);
+            GeneradorCarga.Resultado resultado = generador.ejecutar(CONCURRENCIA, CALENTAMIENTO_SEGUNDOS, SEGUNDOS, aplicacion::reiniciarMedidas);
+            System.out.print(InformeCarga.generar(virtuales ? "hilos virtuales" : "hilos de plataforma", resultado, aplicacion));
+            assertTrue(resultado.errores() <= resultado.total() / 100, "Más de un 1% de peticiones fallidas");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.example.dictionaryapp.carga;
+
+import org.example.dictionaryapp.service.ImportacionService;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+// Diccionario sintético con aspecto de español para las pruebas de carga. Los términos se forman
+// con sílabas (con tildes, ñ y diéresis), las categorías siguen la frecuencia habitual de un
+// diccionario y el número de definiciones tiene cola larga: la mayoría tiene una o dos, unas
+// pocas pasan de veinte, como las palabras muy polisémicas. Con la misma semilla se genera
+// siempre el mismo diccionario.
+final class DiccionarioSintetico {
+
+    private static final String[] SILABAS = {
+            "a", "ca", "ma", "ri", "llo", "ción", "ar", "es", "to", "la", "pe", "dro", "sa", "ne", "güe",
+            "bra", "zo", "ña", "mi", "ta", "co", "rre", "gui", "lo", "cha", "ve", "fi", "ja", "ron", "me",
+            "tra", "di", "go", "ble", "ñu", "que", "sol", "plu", "ber", "nal", "tí", "án", "mien", "cer",
+            "pli", "cua", "dad", "or", "gen", "jo"
+    };
+
+    private static final String[] CATEGORIAS = {"sustantivo", "verbo", "adjetivo", "adverbio", "interjección", "preposición"};
+
+    private static final double[] PESOS_CATEGORIAS = {0.50, 0.25, 0.15, 0.06, 0.02, 0.02};
+
+    static final String[] VOCABULARIO = {
+            "acción", "efecto", "persona", "cosa", "tiene", "lugar", "donde", "hace", "parte", "conjunto",
+            "agua", "tierra", "tiempo", "forma", "manera", "cualidad", "propio", "relativo", "perteneciente",
+            "movimiento", "instrumento", "sirve", "cortar", "medir", "llevar", "animal", "planta", "color",
+            "casa", "campo", "mar", "río", "fuego", "viento", "sonido", "mano", "ojo", "cabeza", "pequeño",
+            "grande", "antiguo", "árbol", "camino", "trabajo", "música", "pájaro", "niño", "ciudad", "luz", "piedra"
+    };
+
+    private static final String[] ENLACES = {"de", "que", "la", "el", "en", "y", "a", "los", "se", "del", "las", "un", "por", "con", "para"};
+
+    // Palabras por llamada a la importación: acota la memoria con diccionarios grandes
+    private static final int TRAMO_IMPORTACION = 10000;
+
+    private final Random random;
+    private final Set<String> usados = new HashSet<>();
+
+    DiccionarioSintetico(long semilla) {
+        this.random = new Random(semilla);
+    }
+
+    void sembrar(ImportacionService importacionService, int palabras) throws IOException {
+        for (int hechas = 0; hechas < palabras; hechas += TRAMO_IMPORTACION) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = hechas; i < Math.min(palabras, hechas + TRAMO_IMPORTACION); i++) {
+                palabraNdjson(ndjson);
+            }
+            importacionService.importarNdjson(new StringReader(ndjson.toString()), null);
+        }
+    }
+
+    // Una palabra en el formato de POST /palabras/condefiniciones; los textos no llevan comillas
+    // ni barras, así que no hace falta escaparlos
+    String palabraJson(String termino) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"termino\":\"").append(termino).append("\",\"categoriaGramatical\":\"").append(categoria())
+                .append("\",\"definiciones\":[");
+        int definiciones = definiciones();
+        for (int i = 0; i < definiciones; i++) {
+            json.append(i > 0 ? "," : "").append("{\"descripcion\":\"").append(frase(6 + random.nextInt(14))).append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    String definicionJson() {
+        return "{\"descripcion\":\"" + frase(6 + random.nextInt(14)) + "\"}";
+    }
+
+    private void palabraNdjson(StringBuilder ndjson) {
+        ndjson.append(palabraJson(termino())).append('\n');
+    }
+
+    // Cola larga: geométrica con p = 0,45 y, en un 1% de las palabras, entre 20 y 60 acepciones
+    private int definiciones() {
+        if (random.nextInt(100) == 0) {
+            return 20 + random.nextInt(41);
+        }
+        int n = 1;
+        while (n < 15 && random.nextDouble() < 0.45) {
+            n++;
+        }
+        return n;
+    }
+
+    // De dos a cinco sílabas; si se repiten demasiado se añade un sufijo numérico
+    private String termino() {
+        for (int intento = 0; ; intento++) {
+            StringBuilder termino = new StringBuilder();
+            int silabas = 2 + random.nextInt(4);
+            for (int i = 0; i < silabas; i++) {
+                termino.append(SILABAS[random.nextInt(SILABAS.length)]);
+            }
+            if (intento > 10) {
+                termino.append(usados.size());
+            }
+            if (usados.add(termino.toString())) {
+                return termino.toString();
+            }
+        }
+    }
+
+    private String categoria() {
+        double valor = random.nextDouble();
+        for (int i = 0; i < CATEGORIAS.length; i++) {
+            valor -= PESOS_CATEGORIAS[i];
+            if (valor < 0) {
+                return CATEGORIAS[i];
+            }
+        }
+        return CATEGORIAS[0];
+    }
+
+    private String frase(int palabras) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                frase.append(' ');
+            }
+            frase.append(i % 2 == 1 ? ENLACES[random.nextInt(ENLACES.length)] : VOCABULARIO[random.nextInt(VOCABULARIO.length)]);
+        }
+        frase.setCharAt(0, Character.toUpperCase(frase.charAt(0)));
+        return frase.append('.').toString();
+    }
+}
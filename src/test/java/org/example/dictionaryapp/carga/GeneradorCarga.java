@@ -0,0 +1,287 @@
+package org.example.dictionaryapp.carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lanza peticiones HTTP contra la aplicación desde un número fijo de clientes concurrentes
+// (carga cerrada: cada cliente espera la respuesta antes de enviar la siguiente) y mide la
+// latencia de cada operación por separado. Las palabras se eligen con una distribución de Zipf,
+// como en el uso real, donde unas pocas palabras concentran la mayoría de las consultas.
+//
+// La mezcla se indica como "operacion:peso,...", p. ej. "porId:50,conDefiniciones:30,existe:20".
+final class GeneradorCarga {
+
+    // Operaciones disponibles para la mezcla, con la ruta con la que las agrupa el servidor
+    enum Operacion {
+        POR_ID("porId", "GET /palabras/{id}"),
+        CON_DEFINICIONES("conDefiniciones", "GET /palabras/{id}/condefiniciones"),
+        DEFINICIONES("definiciones", "GET /palabras/{id}/definiciones"),
+        EXISTE("existe", "GET /palabras/existe/{termino}"),
+        NO_EXISTE("noExiste", "GET /palabras/existe/{termino}"),
+        AUTOCOMPLETAR("autocompletar", "GET /palabras/autocompletar"),
+        SUGERENCIAS("sugerencias", "GET /palabras/sugerencias/{termino}"),
+        BUSCAR_TERMINO("buscarTermino", "GET /palabras/buscar"),
+        BUSCAR_EN_DEFINICIONES("buscarEnDefiniciones", "GET /palabras/buscar-en-definiciones"),
+        PAGINA("pagina", "GET /palabras"),
+        PAGINA_CON_DEFINICIONES("paginaConDefiniciones", "GET /palabras/condefiniciones"),
+        CATEGORIA("categoria", "GET /palabras/categoria/{categoria}"),
+        ESTADISTICAS("estadisticas", "GET /palabras/estadisticas"),
+        LOTE("lote", "POST /palabras/lote"),
+        CREAR("crear", "POST /palabras/condefiniciones"),
+        AGREGAR_DEFINICION("agregarDefinicion", "POST /palabras/{id}/definiciones");
+
+        final String nombre;
+        final String ruta;
+
+        Operacion(String nombre, String ruta) {
+            this.nombre = nombre;
+            this.ruta = ruta;
+        }
+
+        static Operacion de(String nombre) {
+            for (Operacion operacion : values()) {
+                if (operacion.nombre.equals(nombre)) {
+                    return operacion;
+                }
+            }
+            throw new IllegalArgumentException("Operación de carga no válida: '" + nombre + "'. Disponibles: "
+                    + Arrays.stream(values()).map(o -> o.nombre).toList());
+        }
+    }
+
+    static final String MEZCLA_POR_DEFECTO = "porId:30,conDefiniciones:20,existe:10,noExiste:5,autocompletar:10,"
+            + "buscarTermino:5,buscarEnDefiniciones:5,pagina:5,categoria:3,estadisticas:2,lote:2,crear:2,agregarDefinicion:1";
+
+    private static final String[] CATEGORIAS = {"sustantivo", "verbo", "adjetivo", "adverbio"};
+
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String base;
+    private final long[] ids;
+    private final String[] terminos;
+    private final Operacion[] operaciones;
+    private final double[] pesosAcumulados;
+    private final double[] zipfAcumulada;
+    private final AtomicLong altas = new AtomicLong();
+
+    GeneradorCarga(int puerto, long[] ids, String[] terminos, String mezcla, double exponenteZipf) {
+        this.base = "http://localhost:" + puerto;
+        this.ids = ids;
+        this.terminos = terminos;
+        Map<Operacion, Double> pesos = leerMezcla(mezcla);
+        this.operaciones = pesos.keySet().toArray(Operacion[]::new);
+        this.pesosAcumulados = acumular(pesos.values().stream().mapToDouble(Double::doubleValue).toArray());
+        double[] zipf = new double[ids.length];
+        for (int rango = 0; rango < zipf.length; rango++) {
+            zipf[rango] = 1 / Math.pow(rango + 1, exponenteZipf);
+        }
+        this.zipfAcumulada = acumular(zipf);
+    }
+
+    private static Map<Operacion, Double> leerMezcla(String mezcla) {
+        Map<Operacion, Double> pesos = new LinkedHashMap<>();
+        for (String parte : mezcla.split(",")) {
+            String[] operacionYPeso = parte.trim().split(":");
+            pesos.put(Operacion.de(operacionYPeso[0].trim()), operacionYPeso.length > 1 ? Double.parseDouble(operacionYPeso[1].trim()) : 1);
+        }
+        return pesos;
+    }
+
+    private static double[] acumular(double[] pesos) {
+        double[] acumulados = new double[pesos.length];
+        double total = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            total += pesos[i];
+            acumulados[i] = total;
+        }
+        for (int i = 0; i < acumulados.length; i++) {
+            acumulados[i] /= total;
+        }
+        return acumulados;
+    }
+
+    private static int elegir(double[] acumulados, double valor) {
+        int posicion = Arrays.binarySearch(acumulados, valor);
+        return Math.min(acumulados.length - 1, posicion >= 0 ? posicion : -posicion - 1);
+    }
+
+    // Los rangos de Zipf se reparten sobre los ids con un salto fijo, para que las palabras
+    // populares no sean las de id más bajo
+    private int palabra(ThreadLocalRandom random) {
+        int rango = elegir(zipfAcumulada, random.nextDouble());
+        return (int) ((rango * 7919L) % ids.length);
+    }
+
+    Resultado ejecutar(int clientes, int segundosCalentamiento, int segundos, Runnable alTerminarCalentamiento) throws InterruptedException {
+        long inicioMedida = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundosCalentamiento);
+        long fin = inicioMedida + TimeUnit.SECONDS.toNanos(segundos);
+        List<Map<Operacion, Latencias>> porCliente = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        for (int i = 0; i < clientes; i++) {
+            Map<Operacion, Latencias> propias = new LinkedHashMap<>();
+            for (Operacion operacion : operaciones) {
+                propias.put(operacion, new Latencias());
+            }
+            porCliente.add(propias);
+            DiccionarioSintetico diccionario = new DiccionarioSintetico(1000 + i);
+            executor.execute(() -> {
+                while (System.nanoTime() < fin) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Operacion operacion = operaciones[elegir(pesosAcumulados, random.nextDouble())];
+                    HttpRequest peticion = peticion(operacion, random, diccionario);
+                    long inicio = System.nanoTime();
+                    boolean correcta;
+                    try {
+                        int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        correcta = estado >= 200 && estado < 300;
+                    } catch (Exception e) {
+                        correcta = false;
+                    }
+                    if (inicio >= inicioMedida) {
+                        propias.get(operacion).agregar(System.nanoTime() - inicio, correcta);
+                    }
+                }
+            });
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(segundosCalentamiento));
+        alTerminarCalentamiento.run();
+        executor.shutdown();
+        executor.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+        Map<Operacion, Latencias> total = new LinkedHashMap<>();
+        for (Map<Operacion, Latencias> propias : porCliente) {
+            propias.forEach((operacion, latencias) -> total.computeIfAbsent(operacion, o -> new Latencias()).sumar(latencias));
+        }
+        return new Resultado(total, segundos);
+    }
+
+    private HttpRequest peticion(Operacion operacion, ThreadLocalRandom random, DiccionarioSintetico diccionario) {
+        int palabra = palabra(random);
+        long id = ids[palabra];
+        String termino = terminos[palabra];
+        return switch (operacion) {
+            case POR_ID -> get("/palabras/" + id);
+            case CON_DEFINICIONES -> get("/palabras/" + id + "/condefiniciones");
+            case DEFINICIONES -> get("/palabras/" + id + "/definiciones");
+            case EXISTE -> get("/palabras/existe/" + codificar(termino));
+            case NO_EXISTE -> get("/palabras/existe/" + codificar(termino + "xq"));
+            case AUTOCOMPLETAR -> get("/palabras/autocompletar?limit=10&prefijo=" + codificar(termino.substring(0, Math.min(termino.length(), 1 + random.nextInt(4)))));
+            case SUGERENCIAS -> get("/palabras/sugerencias/" + codificar(termino.substring(1)) + "?limit=10");
+            case BUSCAR_TERMINO -> get("/palabras/buscar?prefijo=true&limit=20&termino=" + codificar(termino.substring(0, Math.min(termino.length(), 3))));
+            case BUSCAR_EN_DEFINICIONES -> get("/palabras/buscar-en-definiciones?limit=20&q=" + codificar(
+                    DiccionarioSintetico.VOCABULARIO[random.nextInt(DiccionarioSintetico.VOCABULARIO.length)] + " "
+                            + DiccionarioSintetico.VOCABULARIO[random.nextInt(DiccionarioSintetico.VOCABULARIO.length)]));
+            case PAGINA -> get("/palabras?limit=50&after=" + id);
+            case PAGINA_CON_DEFINICIONES -> get("/palabras/condefiniciones?limit=20&after=" + id);
+            case CATEGORIA -> get("/palabras/categoria/" + CATEGORIAS[random.nextInt(CATEGORIAS.length)] + "?limit=50&after=" + id);
+            case ESTADISTICAS -> get("/palabras/estadisticas");
+            case LOTE -> post("/palabras/lote", lote(random));
+            case CREAR -> post("/palabras/condefiniciones", diccionario.palabraJson("carga" + System.nanoTime() + "n" + altas.incrementAndGet()));
+            case AGREGAR_DEFINICION -> post("/palabras/" + id + "/definiciones", diccionario.definicionJson());
+        };
+    }
+
+    private String lote(ThreadLocalRandom random) {
+        StringBuilder cuerpo = new StringBuilder("{\"ids\":[");
+        for (int i = 0; i < 20; i++) {
+            cuerpo.append(i > 0 ? "," : "").append(ids[palabra(random)]);
+        }
+        cuerpo.append("],\"terminos\":[");
+        for (int i = 0; i < 5; i++) {
+            cuerpo.append(i > 0 ? "," : "").append('"').append(terminos[palabra(random)]).append('"');
+        }
+        return cuerpo.append("]}").toString();
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta)).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(URI.create(base + ruta)).timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    // Latencias en nanosegundos de una operación; cada cliente tiene las suyas y se suman al final
+    static final class Latencias {
+
+        long[] valores = new long[1024];
+        int total;
+        long errores;
+
+        void agregar(long nanos, boolean correcta) {
+            if (total == valores.length) {
+                valores = Arrays.copyOf(valores, total * 2);
+            }
+            valores[total++] = nanos;
+            if (!correcta) {
+                errores++;
+            }
+        }
+
+        void sumar(Latencias otras) {
+            if (total + otras.total > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(valores.length * 2, total + otras.total));
+            }
+            System.arraycopy(otras.valores, 0, valores, total, otras.total);
+            total += otras.total;
+            errores += otras.errores;
+        }
+
+        // Percentil por el método del rango más cercano, en milisegundos; requiere ordenar antes
+        double percentil(double p) {
+            if (total == 0) {
+                return 0;
+            }
+            int posicion = (int) Math.min(total - 1, Math.ceil(p / 100 * total) - 1);
+            return valores[Math.max(0, posicion)] / 1_000_000.0;
+        }
+
+        void ordenar() {
+            Arrays.sort(valores, 0, total);
+        }
+    }
+
+    static final class Resultado {
+
+        final Map<Operacion, Latencias> porOperacion;
+        final Latencias global = new Latencias();
+        final int segundos;
+
+        Resultado(Map<Operacion, Latencias> porOperacion, int segundos) {
+            this.porOperacion = porOperacion;
+            this.segundos = segundos;
+            porOperacion.values().forEach(latencias -> {
+                global.sumar(latencias);
+                latencias.ordenar();
+            });
+            global.ordenar();
+        }
+
+        long total() {
+            return global.total;
+        }
+
+        long errores() {
+            return global.errores;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.dictionaryapp.carga;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Tablas de resultados de una prueba de carga: latencias por operación vistas desde el cliente
+// y, por ruta, las sentencias SQL y la memoria reservada medidas en el servidor
+final class InformeCarga {
+
+    private InformeCarga() {
+    }
+
+    static String generar(String titulo, GeneradorCarga.Resultado resultado, AplicacionCarga aplicacion) {
+        StringBuilder informe = new StringBuilder();
+        double segundos = resultado.segundos;
+        informe.append(String.format("%n[carga] %s: %d peticiones en %d s, %.0f pet/s, p50 %.1f ms, p99 %.1f ms, máx %.1f ms, %d errores%n",
+                titulo, resultado.total(), resultado.segundos, resultado.total() / segundos, resultado.global.percentil(50),
+                resultado.global.percentil(99), resultado.global.percentil(100), resultado.errores()));
+
+        informe.append(String.format("[carga] %-24s %9s %8s %7s %9s %9s %9s %9s%n",
+                "operación", "peticiones", "pet/s", "errores", "p50 ms", "p90 ms", "p99 ms", "máx ms"));
+        resultado.porOperacion.forEach((operacion, latencias) -> informe.append(String.format(
+                "[carga] %-24s %9d %8.1f %7d %9.1f %9.1f %9.1f %9.1f%n",
+                operacion.nombre, latencias.total, latencias.total / segundos, latencias.errores,
+                latencias.percentil(50), latencias.percentil(90), latencias.percentil(99), latencias.percentil(100))));
+
+        informe.append(String.format("[carga] %-40s %9s %10s %12s %10s%n", "ruta (servidor)", "peticiones", "sql/pet", "KB/pet", "MB/s"));
+        Map<String, AplicacionCarga.MedidaServidor> porRuta = new TreeMap<>(aplicacion.medidas);
+        porRuta.forEach((ruta, medida) -> {
+            long peticiones = medida.peticiones.sum();
+            long conReserva = medida.peticionesConReserva.sum();
+            String reservado = conReserva == 0 ? String.format("%12s %10s", "n/d", "n/d")
+                    : String.format("%12.1f %10.1f", medida.bytesReservados.sum() / 1024.0 / conReserva,
+                    medida.bytesReservados.sum() * ((double) peticiones / conReserva) / segundos / (1024 * 1024));
+            informe.append(String.format("[carga] %-40s %9d %10.2f %s%n", ruta, peticiones,
+                    peticiones == 0 ? 0 : medida.sentencias.sum() / (double) peticiones, reservado));
+        });
+        return informe.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.dictionaryapp.configs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Base de datos creada con ddl-auto por la aplicación anterior a las migraciones: ids IDENTITY, sin
+// secuencias, sin version ni termino_normalizado y sin registro de cambios
+class MigracionesEsquemaTests {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private MigracionesEsquema migraciones;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:anterior;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE palabra (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "categoria_gramatical VARCHAR(255), termino VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE definicion (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "descripcion VARCHAR(255), ejemplo VARCHAR(255), palabra_id BIGINT REFERENCES palabra)");
+        jdbcTemplate.update("INSERT INTO palabra (id, categoria_gramatical, termino) VALUES (7, 'sustantivo', 'casa'), (120, 'verbo', 'comer')");
+        jdbcTemplate.update("INSERT INTO definicion (id, descripcion, palabra_id) VALUES (300, 'edificio', 7)");
+        migraciones = new MigracionesEsquema();
+        ReflectionTestUtils.setField(migraciones, "dataSource", dataSource);
+    }
+
+    @Test
+    void baseAnteriorSeCompletaAntesDeDarlaPorMigrada() {
+        migraciones.migrar();
+
+        assertEquals("esquema existente", jdbcTemplate.queryForObject("SELECT descripcion FROM esquema_version WHERE version = 1", String.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT ultimo FROM cambio_contador", Long.class));
+        assertEquals(List.of(0L, 0L), jdbcTemplate.queryForList("SELECT version FROM palabra ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cambio", Integer.class));
+        // Hibernate usa los 50 ids anteriores al valor de la secuencia: ninguno puede estar ya ocupado
+        assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR palabra_seq", Long.class) - 50 >= 120);
+        assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR definicion_seq", Long.class) - 50 >= 300);
+    }
+
+    @Test
+    void segundoArranqueNoAplicaNada() {
+        migraciones.migrar();
+        List<Integer> versiones = jdbcTemplate.queryForList("SELECT version FROM esquema_version ORDER BY version", Integer.class);
+        long siguiente = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR palabra_seq", Long.class);
+
+        migraciones.migrar();
+
+        assertEquals(versiones, jdbcTemplate.queryForList("SELECT version FROM esquema_version ORDER BY version", Integer.class));
+        assertEquals(siguiente + 50, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR palabra_seq", Long.class));
+    }
+}
@@ -0,0 +1,188 @@
+package org.example.dictionaryapp.configs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Réplica en una base H2 aparte a la que solo se accede con un usuario de solo lectura: una
+// escritura que acabe en ella falla en lugar de pasar desapercibida.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "diccionario.busqueda.instantanea=",
+        // Hasta que la prueba la crea no existe, y el usuario de solo lectura no puede crearla
+        "diccionario.bd.replicas.urls=jdbc:h2:mem:replica;IFEXISTS=TRUE",
+        "diccionario.bd.replicas.usuario=lector",
+        "diccionario.bd.replicas.clave=lector",
+        "diccionario.bd.replicas.comprobacion-ms=100",
+        "spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+class ReplicasBdTests {
+
+    private static final String REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void actualizacionTrasUnaLecturaVaALaPrimaria() throws Exception {
+        long id = crearPalabra("casa");
+        copiarPrimaria();
+        esperarReplicaAlDia();
+
+        double lecturasReplica = lecturas("replica-1");
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        // Sin la palabra en caché, la actualización la lee primero (en la réplica) y después escribe
+        mockMvc.perform(put("/palabras/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"termino\":\"casona\",\"categoriaGramatical\":\"sustantivo\"}"))
+                .andExpect(status().isOk());
+
+        assertTrue(lecturas("replica-1") > lecturasReplica, "la lectura previa debía ir a la réplica");
+        assertEquals("casona", jdbcTemplate.queryForObject("SELECT termino FROM palabra WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void actualizacionReleeEnLaPrimariaSiLaReplicaVaRetrasada() throws Exception {
+        long id = crearPalabra("luna");
+        copiarPrimaria();
+        esperarReplicaAlDia();
+        mockMvc.perform(get("/palabras/" + id + "/condefiniciones")).andExpect(status().isOk());
+        // Otra instancia la cambia: ni la caché ni la réplica tienen la versión 1
+        cambiarEnLaPrimaria(id);
+
+        // La caché da la versión 0 y la réplica también; la 1 que pide If-Match solo está en la primaria
+        mockMvc.perform(put("/palabras/" + id)
+                        .header("If-Match", "\"pd" + id + "-1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"termino\":\"lunita\",\"categoriaGramatical\":\"nombre\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+
+        cambiarEnLaPrimaria(id);
+        // Sin If-Match se parte de la versión 0 de la réplica: el UPDATE falla y el reintento debe leer la 3
+        mockMvc.perform(put("/palabras/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"termino\":\"lunar\",\"categoriaGramatical\":\"nombre\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4));
+        assertEquals("lunar", jdbcTemplate.queryForObject("SELECT termino FROM palabra WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void cambiosNoSeSaltanLoQueLaReplicaAunNoTiene() throws Exception {
+        copiarPrimaria();
+        esperarReplicaAlDia();
+        // La réplica es una copia fija: desde aquí va por detrás, pero dentro del retraso máximo
+        long id = crearPalabra("perro");
+
+        // Sin cookie de lectura propia: la cota de la respuesta incluye el alta, así que la página también
+        mockMvc.perform(get("/palabras/cambios").param("desde", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cambios[?(@.palabraId == " + id + ")]").isNotEmpty());
+    }
+
+    private long crearPalabra(String termino) throws Exception {
+        MvcResult creada = mockMvc.perform(post("/palabras/condefiniciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"termino\":\"" + termino + "\",\"categoriaGramatical\":\"sustantivo\",\"definiciones\":[{\"descripcion\":\"edificio\"}]}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return Long.parseLong(creada.getResponse().getContentAsString().replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+    }
+
+    // Sin pasar por el registro de cambios: la réplica no lo nota y se sigue dando por al día
+    private void cambiarEnLaPrimaria(long id) {
+        jdbcTemplate.update("UPDATE palabra SET categoria_gramatical = 'nombre', version = version + 1 WHERE id = ?", id);
+    }
+
+    // Copia de la primaria (sustituye a la anterior) con un usuario que solo puede leer
+    private void copiarPrimaria() throws Exception {
+        Path copia = Files.createTempFile("replica", ".sql");
+        try {
+            jdbcTemplate.execute("SCRIPT TO '" + copia.toAbsolutePath() + "'");
+            try (Connection conexion = DriverManager.getConnection(REPLICA, "sa", "");
+                 Statement sentencia = conexion.createStatement()) {
+                // Sin DROP ALL OBJECTS, que borraría también el usuario y dejaría inservibles sus conexiones
+                for (String borrar : consultar(sentencia, "SELECT 'DROP TABLE \"' || TABLE_NAME || '\" CASCADE' " +
+                        "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' UNION ALL " +
+                        "SELECT 'DROP SEQUENCE \"' || SEQUENCE_NAME || '\"' FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'PUBLIC'")) {
+                    sentencia.execute(borrar);
+                }
+                sentencia.execute("RUNSCRIPT FROM '" + copia.toAbsolutePath() + "'");
+                sentencia.execute("CREATE USER IF NOT EXISTS lector PASSWORD 'lector'");
+                sentencia.execute("GRANT SELECT ON SCHEMA PUBLIC TO lector");
+            }
+        } finally {
+            Files.deleteIfExists(copia);
+        }
+    }
+
+    private static List<String> consultar(Statement sentencia, String sql) throws SQLException {
+        List<String> valores = new ArrayList<>();
+        try (ResultSet filas = sentencia.executeQuery(sql)) {
+            while (filas.next()) {
+                valores.add(filas.getString(1));
+            }
+        }
+        return valores;
+    }
+
+    private void esperarReplicaAlDia() throws InterruptedException {
+        // Tras una comprobación completa: el valor anterior puede ser de antes de la copia
+        Thread.sleep(300);
+        for (int i = 0; i < 100; i++) {
+            Gauge retraso = meterRegistry.find("diccionario.bd.replicas.retraso").tag("replica", "replica-1").gauge();
+            if (retraso != null && retraso.value() == 0) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La réplica no llegó a estar al día");
+    }
+
+    private double lecturas(String destino) {
+        Counter contador = meterRegistry.find("diccionario.bd.lecturas").tag("destino", destino).counter();
+        return contador == null ? 0 : contador.count();
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.FilaDiccionarioDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.ResultadoBusquedaDTO;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchivoInstantaneaTests {
+
+    @TempDir
+    Path directorio;
+
+    private ArchivoInstantanea archivo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // En orden de id de palabra; las definiciones de palabras distintas no van en orden de id
+        List<FilaDiccionarioDTO> filas = List.of(
+                new FilaDiccionarioDTO(1L, "casa", "sustantivo", 3L, 10L, "edificio", "mi casa"),
+                new FilaDiccionarioDTO(1L, "casa", "sustantivo", 3L, 11L, "familia", null),
+                new FilaDiccionarioDTO(2L, "Cañón", null, null, null, null, null),
+                new FilaDiccionarioDTO(5L, "cañada", "sustantivo", 0L, 12L, "vía pecuaria", null),
+                new FilaDiccionarioDTO(7L, "cama", "sustantivo", 1L, 9L, "mueble", "a la cama"),
+                new FilaDiccionarioDTO(9L, "ñu", "sustantivo", 0L, 13L, "antílope", null));
+        Path ruta = directorio.resolve("diccionario.bin");
+        ArchivoInstantanea.escribir(ruta, filas.iterator(), 42);
+        archivo = ArchivoInstantanea.abrir(ruta);
+    }
+
+    @Test
+    void cabeceraYPaginas() {
+        assertEquals(42, archivo.getSeq());
+        assertEquals(5, archivo.getPalabras());
+        assertEquals(5, archivo.getDefiniciones());
+
+        assertEquals(List.of(1L, 2L, 5L, 7L, 9L), ids(archivo.pagina(0, 10)));
+        assertEquals(List.of(5L, 7L), ids(archivo.pagina(2, 2)));
+        assertEquals(List.of(), archivo.pagina(9, 10));
+        PalabraDTO canon = archivo.pagina(1, 1).get(0);
+        assertEquals("Cañón", canon.getTermino());
+        assertNull(canon.getCategoriaGramatical());
+    }
+
+    @Test
+    void palabraConDefinicionesConservaNulos() {
+        Palabra casa = archivo.palabraConDefiniciones(1);
+        assertEquals("casa", casa.getTermino());
+        assertEquals("sustantivo", casa.getCategoriaGramatical());
+        assertEquals(3L, casa.getVersion());
+        List<Definicion> definiciones = casa.getDefiniciones();
+        assertEquals(List.of(10L, 11L), definiciones.stream().map(Definicion::getId).toList());
+        assertEquals("mi casa", definiciones.get(0).getEjemplo());
+        assertEquals("familia", definiciones.get(1).getDescripcion());
+        assertNull(definiciones.get(1).getEjemplo());
+
+        Palabra canon = archivo.palabraConDefiniciones(2);
+        assertEquals("Cañón", canon.getTermino());
+        assertNull(canon.getCategoriaGramatical());
+        assertNull(canon.getVersion());
+        assertTrue(canon.getDefiniciones().isEmpty());
+
+        assertNull(archivo.palabraConDefiniciones(3));
+        assertNull(archivo.palabra(100));
+    }
+
+    @Test
+    void existeComparaElTerminoExacto() {
+        assertTrue(archivo.existe("casa"));
+        assertTrue(archivo.existe("Cañón"));
+        assertTrue(archivo.existe("ñu"));
+        assertFalse(archivo.existe("cañón"));
+        assertFalse(archivo.existe("cas"));
+        assertFalse(archivo.existe("casas"));
+        assertFalse(archivo.existe(""));
+    }
+
+    @Test
+    void porNormalizadoConYSinPrefijo() {
+        assertEquals(List.of(1L, 2L, 5L, 7L), ids(archivo.porNormalizado("ca", true, 0, 10)));
+        assertEquals(List.of(2L, 5L), ids(archivo.porNormalizado("ca", true, 1, 2)));
+        // La ñ se conserva al normalizar y ocupa dos bytes: "can" no es prefijo de "cañon"
+        assertEquals(List.of(2L, 5L), ids(archivo.porNormalizado("cañ", true, 0, 10)));
+        assertEquals(List.of(), ids(archivo.porNormalizado("can", true, 0, 10)));
+        assertEquals(List.of(9L), ids(archivo.porNormalizado("ñ", true, 0, 10)));
+        assertEquals(List.of(2L), ids(archivo.porNormalizado("cañon", false, 0, 10)));
+        assertEquals(List.of(), ids(archivo.porNormalizado("cañ", false, 0, 10)));
+        assertEquals(List.of(), ids(archivo.porNormalizado("z", true, 0, 10)));
+    }
+
+    @Test
+    void resultadosDeDefiniciones() {
+        List<ResultadoBusquedaDTO> resultados = archivo.resultados(List.of(9L, 11L, 99L));
+        assertEquals(2, resultados.size());
+        assertEquals("cama", resultados.get(0).getTermino());
+        assertEquals("a la cama", resultados.get(0).getEjemplo());
+        assertEquals(1L, resultados.get(1).getPalabraId());
+        assertEquals("familia", resultados.get(1).getDescripcion());
+        assertNull(resultados.get(1).getEjemplo());
+    }
+
+    private static List<Long> ids(List<PalabraDTO> palabras) {
+        return palabras.stream().map(PalabraDTO::getId).toList();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.util.Normalizador;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Las sugerencias se comparan con la distancia de Levenshtein calculada palabra a palabra
+class IndicePrefijosTests {
+
+    private static final String LETRAS = "aábcdeéfgilmnñoóprstuúüAÁEÑ";
+
+    private final Random random = new Random(20261018);
+
+    private final IndicePrefijos indice = new IndicePrefijos();
+
+    private List<PalabraDTO> palabras;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> terminos = new LinkedHashSet<>(List.of("año", "ano", "Ñandú", "nandu", "árbol", "arbol", "a", "camión", "camino"));
+        // Las generadas no repiten la clave de ninguna otra, para saber qué debe salir en las comprobaciones fijas
+        Set<String> claves = new HashSet<>();
+        terminos.forEach(termino -> claves.add(Normalizador.normalizar(termino)));
+        while (terminos.size() < 3000) {
+            String termino = aleatoria(1 + random.nextInt(9));
+            if (claves.add(Normalizador.normalizar(termino))) {
+                terminos.add(termino);
+            }
+        }
+        palabras = new ArrayList<>();
+        long id = 1;
+        for (String termino : terminos) {
+            palabras.add(new PalabraDTO(id++, termino, "sustantivo"));
+        }
+        ReflectionTestUtils.setField(indice, "tabla", IndicePrefijos.Tabla.construir(palabras));
+    }
+
+    @Test
+    void sugerenciasCoincidenConLaDistanciaCalculadaPalabraAPalabra() {
+        List<String> consultas = new ArrayList<>(List.of("", "año", "ANO", "nandú", "arbo", "camíon", "ñ", "zzzz"));
+        for (int i = 0; i < 60; i++) {
+            String base = palabras.get(random.nextInt(palabras.size())).getTermino();
+            consultas.add(i % 3 == 0 ? aleatoria(1 + random.nextInt(8)) : modificar(base, 1 + random.nextInt(3)));
+        }
+        for (int k = 1; k <= 3; k++) {
+            for (String consulta : consultas) {
+                List<PalabraDTO> sugeridas = indice.sugerir(consulta, k, Integer.MAX_VALUE);
+
+                Set<Long> esperadas = new TreeSet<>();
+                for (PalabraDTO palabra : palabras) {
+                    if (distancia(consulta, palabra.getTermino()) <= k) {
+                        esperadas.add(palabra.getId());
+                    }
+                }
+                Set<Long> obtenidas = new TreeSet<>();
+                int anterior = 0;
+                for (PalabraDTO palabra : sugeridas) {
+                    int actual = distancia(consulta, palabra.getTermino());
+                    assertTrue(actual >= anterior, "sin ordenar por distancia para '" + consulta + "'");
+                    anterior = actual;
+                    obtenidas.add(palabra.getId());
+                }
+                assertEquals(sugeridas.size(), obtenidas.size(), "repetidas para '" + consulta + "'");
+                assertEquals(esperadas, obtenidas, "k = " + k + ", consulta '" + consulta + "'");
+            }
+        }
+    }
+
+    @Test
+    void conLimiteSeQuedanLasMasCercanas() {
+        for (int i = 0; i < 30; i++) {
+            String consulta = modificar(palabras.get(random.nextInt(palabras.size())).getTermino(), 1);
+            List<PalabraDTO> todas = indice.sugerir(consulta, 3, Integer.MAX_VALUE);
+            List<PalabraDTO> primeras = indice.sugerir(consulta, 3, 5);
+
+            assertEquals(todas.subList(0, Math.min(5, todas.size())).stream().map(PalabraDTO::getId).toList(),
+                    primeras.stream().map(PalabraDTO::getId).toList());
+        }
+    }
+
+    @Test
+    void seSaltanLasPalabrasSinTermino() {
+        List<PalabraDTO> conNulos = new ArrayList<>(palabras);
+        conNulos.add(new PalabraDTO(5000L, null, "sustantivo"));
+        conNulos.add(new PalabraDTO(5001L, "  ", "sustantivo"));
+        IndicePrefijos.Tabla tabla = IndicePrefijos.Tabla.construir(conNulos);
+        assertEquals(palabras.size(), tabla.tamano());
+
+        ReflectionTestUtils.setField(indice, "tabla", tabla.con(new PalabraDTO(5002L, null, "verbo")));
+        assertEquals(List.of("año"), terminos(indice.sugerir("año", 0, 10)));
+        assertEquals(palabras.size(), indice.autocompletar("", Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void laÑCuentaComoLetraYLasTildesNo() {
+        assertEquals(List.of("año"), terminos(indice.sugerir("AÑO", 0, 10)));
+        assertEquals(List.of("ano"), terminos(indice.sugerir("ano", 0, 10)));
+        assertEquals(Set.of("árbol", "arbol"), Set.copyOf(terminos(indice.sugerir("ÁRBOL", 0, 10))));
+        // "nandu" está a 0 y "Ñandú" a 1: ñ por n
+        List<String> cercanas = terminos(indice.sugerir("nandu", 1, 100));
+        assertEquals("nandu", cercanas.get(0));
+        assertTrue(cercanas.contains("Ñandú"));
+    }
+
+    private String aleatoria(int longitud) {
+        StringBuilder builder = new StringBuilder(longitud);
+        for (int i = 0; i < longitud; i++) {
+            builder.append(LETRAS.charAt(random.nextInt(LETRAS.length())));
+        }
+        return builder.toString();
+    }
+
+    // Aplica 'cambios' inserciones, borrados o sustituciones al azar
+    private String modificar(String termino, int cambios) {
+        StringBuilder builder = new StringBuilder(termino);
+        for (int i = 0; i < cambios; i++) {
+            int operacion = builder.length() == 0 ? 0 : random.nextInt(3);
+            int posicion = random.nextInt(builder.length() + (operacion == 0 ? 1 : 0));
+            char letra = LETRAS.charAt(random.nextInt(LETRAS.length()));
+            switch (operacion) {
+                case 0 -> builder.insert(posicion, letra);
+                case 1 -> builder.deleteCharAt(posicion);
+                default -> builder.setCharAt(posicion, letra);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static List<String> terminos(List<PalabraDTO> palabras) {
+        return palabras.stream().map(PalabraDTO::getTermino).toList();
+    }
+
+    // Matriz completa, sin podas, sobre las claves normalizadas
+    private static int distancia(String a, String b) {
+        String x = Normalizador.normalizar(a);
+        String y = Normalizador.normalizar(b);
+        int[][] d = new int[x.length() + 1][y.length() + 1];
+        for (int i = 0; i <= x.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= y.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= x.length(); i++) {
+            for (int j = 1; j <= y.length(); j++) {
+                int coste = x.charAt(i - 1) == y.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + coste);
+            }
+        }
+        return d[x.length()][y.length()];
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.dictionaryapp.indice;
+
+import org.example.dictionaryapp.dto.DefinicionTextoDTO;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.event.CambioDefinicionEvent;
+import org.example.dictionaryapp.event.CambioPalabraEvent;
+import org.example.dictionaryapp.event.CambiosRemotosEvent;
+import org.example.dictionaryapp.model.Cambio;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.example.dictionaryapp.repository.DefinicionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceTextualTests {
+
+    @TempDir
+    Path directorio;
+
+    private DefinicionRepository definicionRepository;
+
+    private IndiceTextual indice;
+
+    @BeforeEach
+    void setUp() {
+        // Definiciones 10-14; la 14 es una segunda definición de la palabra 2
+        definicionRepository = mock(DefinicionRepository.class);
+        when(definicionRepository.findTextos(eq(0L), any(Limit.class))).thenReturn(List.of(
+                new DefinicionTextoDTO(10L, 1L, "Perro grande que ladra mucho", null),
+                new DefinicionTextoDTO(11L, 2L, "Perro, perro, perro", null),
+                new DefinicionTextoDTO(12L, 3L, "Gato que maúlla", null),
+                new DefinicionTextoDTO(13L, 4L, "Doméstico", "un perro o un gato"),
+                new DefinicionTextoDTO(14L, 2L, "Perro de caza", null)));
+        indice = nuevoIndice(definicionRepository);
+        indice.reconstruir();
+    }
+
+    @Test
+    void analizadorNormalizaQuitaPalabrasVaciasYReduceGeneroYNumero() {
+        assertEquals(List.of("perr", "perr", "perr", "luz", "niñ", "arbol", "bosqu"),
+                AnalizadorEspanol.analizar("Los perros, la perra y el perro; luces de los Niños en el Árbol del bosque"));
+        assertEquals(List.of(), AnalizadorEspanol.analizar(null));
+        assertEquals(List.of(), AnalizadorEspanol.analizar("de la que"));
+    }
+
+    @Test
+    void singularYPluralCortosDanLaMismaRaiz() {
+        assertEquals(AnalizadorEspanol.raiz("gato"), AnalizadorEspanol.raiz("gatos"));
+        assertEquals(AnalizadorEspanol.raiz("gato"), AnalizadorEspanol.raiz("gata"));
+        assertEquals(AnalizadorEspanol.raiz("casa"), AnalizadorEspanol.raiz("casas"));
+        assertEquals(AnalizadorEspanol.raiz("niño"), AnalizadorEspanol.raiz("niños"));
+        assertEquals(AnalizadorEspanol.raiz("ojo"), AnalizadorEspanol.raiz("ojos"));
+        assertEquals(AnalizadorEspanol.raiz("mes"), AnalizadorEspanol.raiz("meses"));
+        assertEquals("luz", AnalizadorEspanol.raiz("luces"));
+    }
+
+    @Test
+    void buscarEnPluralEncuentraElSingularYAlReves() {
+        // 'gato' solo aparece en singular en las definiciones 12 y 13
+        assertEquals(Set.of(12L, 13L), Set.copyOf(ids(indice.buscar("gatos", 10))));
+        indice.onCambioDefinicion(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.AGREGADA, 15L, 5L, "Conjunto de casas", null, 1));
+        assertEquals(List.of(15L), ids(indice.buscar("casa", 10)));
+    }
+
+    @Test
+    void rankingBm25() {
+        // Frecuencia más alta primero y, a igual frecuencia, la definición más corta; de la palabra 2 solo la mejor
+        assertEquals(List.of(11L, 13L, 10L), ids(indice.buscar("perros", 10)));
+        // Con dos términos pesa más el menos frecuente (gato) y la 13 tiene los dos
+        assertEquals(List.of(13L, 12L, 11L, 10L), ids(indice.buscar("perro gato", 10)));
+        assertEquals(List.of(11L, 13L), ids(indice.buscar("perro", 2)));
+        assertEquals(List.of(), ids(indice.buscar("caballo", 10)));
+        assertEquals(List.of(), ids(indice.buscar("que", 10)));
+    }
+
+    @Test
+    void bajasDejanDeAparecer() {
+        indice.onCambioDefinicion(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.ELIMINADA, 11L, 2L, null, null, 1));
+        // La palabra 2 sigue teniendo la 14
+        assertEquals(List.of(14L, 13L, 10L), ids(indice.buscar("perro", 10)));
+
+        indice.onCambioPalabra(CambioPalabraEvent.eliminada(new PalabraDTO(1L, "can", "sustantivo"), 1));
+        assertEquals(List.of(14L, 13L), ids(indice.buscar("perro", 10)));
+
+        indice.onCambioDefinicion(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.AGREGADA, 15L, 5L, "perro pastor", null, 1));
+        assertFalse(indice.buscar("pastor", 10).isEmpty());
+    }
+
+    @Test
+    void aplicaLosCambiosDeOtrasInstancias() {
+        Definicion pastor = new Definicion();
+        pastor.setId(15L);
+        pastor.setDescripcion("Perro pastor");
+        Palabra can = new Palabra();
+        can.setId(1L);
+        can.setTermino("can");
+        indice.onCambiosRemotos(new CambiosRemotosEvent(List.of(
+                Cambio.definicionAgregada(5L, pastor),
+                Cambio.definicionEliminada(4L, 13L),
+                Cambio.dePalabra(Cambio.Tipo.PALABRA_ELIMINADA, can))));
+
+        assertEquals(List.of(15L), ids(indice.buscar("pastor", 10)));
+        assertEquals(List.of(12L), ids(indice.buscar("gato", 10)));
+        assertEquals(Set.of(11L, 15L), Set.copyOf(ids(indice.buscar("perro", 10))));
+    }
+
+    @Test
+    void instantaneaSeCargaComoElIndiceQueLaGuardo() {
+        Path ruta = directorio.resolve("indice.bin");
+        ReflectionTestUtils.setField(indice, "rutaInstantanea", ruta.toString());
+        // Con una baja: al guardar se compacta y la frecuencia de documento de 'gato' deja de contarla
+        indice.onCambioDefinicion(new CambioDefinicionEvent(CambioDefinicionEvent.Tipo.ELIMINADA, 12L, 3L, null, null, 0));
+        indice.guardarInstantanea();
+        List<String> consultas = List.of("perro", "gato", "perro gato", "domestico", "caza");
+        List<LinkedHashMap<Long, Double>> esperados = new ArrayList<>();
+        consultas.forEach(consulta -> esperados.add(indice.buscar(consulta, 10)));
+        assertEquals(List.of(13L), ids(esperados.get(1)));
+
+        // Sin nada que leer de la base de datos: si no se cargara de la instantánea quedaría vacío
+        DefinicionRepository vacio = mock(DefinicionRepository.class);
+        when(vacio.findTextos(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(vacio.countAsignadas()).thenReturn(4L);
+        when(vacio.maxIdAsignada()).thenReturn(14L);
+        IndiceTextual cargado = nuevoIndice(vacio);
+        ReflectionTestUtils.setField(cargado, "rutaInstantanea", ruta.toString());
+        cargado.inicializar();
+
+        for (int i = 0; i < consultas.size(); i++) {
+            assertEquals(esperados.get(i), cargado.buscar(consultas.get(i), 10), consultas.get(i));
+        }
+    }
+
+    private static IndiceTextual nuevoIndice(DefinicionRepository repositorio) {
+        IndiceTextual indice = new IndiceTextual();
+        ReflectionTestUtils.setField(indice, "definicionRepository", repositorio);
+        return indice;
+    }
+
+    private static List<Long> ids(LinkedHashMap<Long, Double> resultado) {
+        return new ArrayList<>(resultado.keySet());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.dictionaryapp.service;
+
+import org.example.dictionaryapp.dto.InformeImportacionDTO;
+import org.example.dictionaryapp.indice.FiltroTerminos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Cada lote se escribe en su propia transacción: la prueba no puede ir dentro de una
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacion;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "diccionario.busqueda.instantanea="
+})
+class ImportacionServiceTests {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private FiltroTerminos filtroTerminos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void terminoRepetidoEnElMismoLoteSeOmite() throws Exception {
+        String csv = "Id,Termino,Categoria Gramatical,Definiciones\n" +
+                "1,mesa,sustantivo,mueble\n" +
+                "1,mesa,sustantivo,\"meseta, llanura\"\n" +
+                "2,silla,sustantivo,asiento\n" +
+                "3,mesa,sustantivo,otra mesa\n" +
+                "4, silla ,sustantivo,otra silla\n";
+
+        InformeImportacionDTO informe = importacionService.importarCsv(new StringReader(csv), 10);
+
+        assertEquals(5, informe.getRegistrosLeidos());
+        assertEquals(2, informe.getPalabrasCreadas());
+        assertEquals(3, informe.getDefinicionesCreadas());
+        assertEquals(2, informe.getPalabrasOmitidas());
+        assertEquals(0, informe.getTotalErrores());
+        assertEquals(List.of("meseta, llanura", "mueble"), jdbcTemplate.queryForList(
+                "SELECT d.descripcion FROM definicion d JOIN palabra p ON p.id = d.palabra_id WHERE p.termino = 'mesa' ORDER BY 1", String.class));
+    }
+
+    @Test
+    void loteRechazadoSeReintentaPalabraAPalabra() throws Exception {
+        // Dado de alta por otra instancia después de construir el filtro: la comprobación previa no lo
+        // ve y el lote entero choca con la restricción única
+        jdbcTemplate.update("INSERT INTO palabra (id, termino, termino_normalizado, categoria_gramatical, version) " +
+                "VALUES (100000, 'lobo', 'lobo', 'sustantivo', 0)");
+        assertFalse(filtroTerminos.puedeContener("lobo"));
+        String ndjson = """
+                {"termino":"zorro","categoriaGramatical":"sustantivo","definiciones":[{"descripcion":"cánido"}]}
+                {"termino":"lobo","categoriaGramatical":"sustantivo","definiciones":[{"descripcion":"repetido"}]}
+                {"termino":"","categoriaGramatical":"sustantivo"}
+                {"termino":"oso","categoriaGramatical":"sustantivo","definiciones":[{"descripcion":"plantígrado"}]}
+                """;
+
+        InformeImportacionDTO informe = importacionService.importarNdjson(new StringReader(ndjson), 10);
+
+        assertEquals(4, informe.getRegistrosLeidos());
+        assertEquals(2, informe.getPalabrasCreadas());
+        assertEquals(2, informe.getDefinicionesCreadas());
+        assertEquals(1, informe.getPalabrasOmitidas());
+        assertEquals(1, informe.getTotalErrores());
+        assertEquals(List.of("lobo", "oso", "zorro"), jdbcTemplate.queryForList(
+                "SELECT termino FROM palabra WHERE termino IN ('lobo', 'oso', 'zorro') ORDER BY termino", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM definicion WHERE palabra_id = 100000", Integer.class));
+    }
+}
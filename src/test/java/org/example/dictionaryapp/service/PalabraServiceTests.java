@@ -0,0 +1,218 @@
+package org.example.dictionaryapp.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dictionaryapp.configs.CacheConfig;
+import org.example.dictionaryapp.dto.PalabraDTO;
+import org.example.dictionaryapp.dto.RespuestaLoteDTO;
+import org.example.dictionaryapp.indice.FiltroTerminos;
+import org.example.dictionaryapp.indice.IndiceCategorias;
+import org.example.dictionaryapp.indice.IndicePrefijos;
+import org.example.dictionaryapp.indice.IndiceTextual;
+import org.example.dictionaryapp.indice.InstantaneaDiccionario;
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PalabraService.class, EstadisticasService.class, IndicePrefijos.class, IndiceTextual.class,
+        CachePalabras.class, CacheConfig.class, FiltroTerminos.class, RegistroCambios.class,
+        InstantaneaDiccionario.class, VersionDiccionario.class, IndiceCategorias.class})
+class PalabraServiceTests {
+
+    @Autowired
+    private PalabraService palabraService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FiltroTerminos filtroTerminos;
+
+    @Autowired
+    private IndiceCategorias indiceCategorias;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 40; i++) {
+            Palabra palabra = new Palabra();
+            palabra.setTermino("palabra" + i);
+            palabra.setCategoriaGramatical("sustantivo");
+            List<Definicion> definiciones = new ArrayList<>();
+            for (int j = 0; j <= i % 3; j++) {
+                Definicion definicion = new Definicion();
+                definicion.setDescripcion("definicion " + j + " de palabra" + i);
+                definicion.setPalabra(palabra);
+                definiciones.add(definicion);
+            }
+            palabra.setDefiniciones(definiciones);
+            entityManager.persist(palabra);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        filtroTerminos.reconstruir();
+    }
+
+    @Test
+    void paginaConDefinicionesUsaUnNumeroConstanteDeSentencias() {
+        long pequena = sentenciasParaPagina(5);
+        long grande = sentenciasParaPagina(40);
+
+        assertEquals(2, pequena);
+        assertEquals(pequena, grande);
+    }
+
+    @Test
+    void palabraConDefinicionesSeCargaEnUnaSolaSentencia() throws Exception {
+        Long id = palabraService.getPaginaPalabras(null, 1).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Palabra palabra = palabraService.getPalabraConDefinicionesById(id);
+        palabra.getDefiniciones().size();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void lecturasRepetidasSeSirvenDesdeLaCache() throws Exception {
+        Long id = palabraService.getPaginaPalabras(null, 1).get(0).getId();
+        palabraService.getPalabraById(id);
+        palabraService.existsByTermino("inexistente");
+        statistics.clear();
+
+        palabraService.getPalabraById(id);
+        assertFalse(palabraService.existsByTermino("inexistente"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cambiarLaPalabraDevueltaNoCambiaLaDeLaCache() throws Exception {
+        Long id = palabraService.getPaginaPalabras(null, 1).get(0).getId();
+        Palabra primera = palabraService.getPalabraConDefinicionesById(id);
+        String termino = primera.getTermino();
+        int definiciones = primera.getDefiniciones().size();
+        statistics.clear();
+
+        primera.setTermino("cambiado");
+        primera.getDefiniciones().clear();
+        Palabra segunda = palabraService.getPalabraConDefinicionesById(id);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(termino, segunda.getTermino());
+        assertEquals(definiciones, segunda.getDefiniciones().size());
+    }
+
+    @Test
+    void loteRespetaElOrdenPedidoEIndicaLosQueFaltan() {
+        List<Long> ids = new ArrayList<>(palabraService.getPaginaPalabras(null, 40).stream().map(PalabraDTO::getId).toList());
+        Collections.reverse(ids);
+        ids.add(2, -1L);
+        entityManager.clear();
+        statistics.clear();
+
+        RespuestaLoteDTO respuesta = palabraService.getPalabrasEnLote(ids, List.of("palabra3", "noexiste"));
+
+        assertEquals(1 + 1, statistics.getPrepareStatementCount());
+        assertEquals(40, respuesta.getPalabras().size());
+        assertEquals(ids.get(0), respuesta.getPalabras().get(0).getId());
+        assertEquals(List.of(-1L), respuesta.getIdsNoEncontrados());
+        assertEquals(List.of("noexiste"), respuesta.getTerminosNoEncontrados());
+    }
+
+    @Test
+    void actualizacionEsUnSoloUpdateCondicionadoALaVersion() throws Exception {
+        Long id = palabraService.getPaginaPalabras(null, 1).get(0).getId();
+        Palabra leida = palabraService.getPalabraConDefinicionesById(id);
+        statistics.clear();
+
+        Palabra actualizada = palabraService.updatePalabra(id, palabra(leida.getTermino(), "verbo"), leida.getVersion());
+
+        // El UPDATE y la reserva del seq en el contador del registro de cambios (UPDATE y SELECT)
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(leida.getVersion() + 1, actualizada.getVersion());
+        assertEquals(leida.getDefiniciones().size(), actualizada.getDefiniciones().size());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> palabraService.updatePalabra(id, palabra(leida.getTermino(), "adjetivo"), leida.getVersion()));
+    }
+
+    @Test
+    void busquedaPorPrefijoSinNadaQueBuscarTrasNormalizarSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> palabraService.buscarPorTermino("\u0301", true, null, null));
+    }
+
+    @Test
+    void completarClavesTerminaAunqueUnaPalabraNoTengaTermino() {
+        entityManager.persist(palabra(null, "sustantivo"));
+        entityManager.flush();
+        entityManager.getEntityManager().createQuery("UPDATE Palabra p SET p.terminoNormalizado = NULL").executeUpdate();
+        entityManager.clear();
+
+        palabraService.completarTerminosNormalizados();
+
+        assertEquals(1L, entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(p) FROM Palabra p WHERE p.terminoNormalizado IS NULL", Long.class)
+                .getSingleResult());
+    }
+
+    @Test
+    void busquedaPorCategoriasComparaLaInicialSinTildesNiMayusculas() {
+        entityManager.persist(palabra("Árbol", "sustantivo"));
+        entityManager.persist(palabra("abeto", "sustantivo"));
+        entityManager.persist(palabra("Ñandú", "sustantivo"));
+        entityManager.persist(palabra("nube", "sustantivo"));
+        entityManager.flush();
+        entityManager.clear();
+        indiceCategorias.cargar();
+
+        assertEquals(List.of("Árbol", "abeto"), terminos(palabraService.buscarPorCategorias(List.of("sustantivo"), 'a', null, null)));
+        assertEquals(List.of("Árbol", "abeto"), terminos(palabraService.buscarPorCategorias(List.of("sustantivo"), 'Á', null, null)));
+        assertEquals(List.of("Ñandú"), terminos(palabraService.buscarPorCategorias(List.of("sustantivo"), 'ñ', null, null)));
+        assertEquals(List.of("nube"), terminos(palabraService.buscarPorCategorias(List.of("sustantivo"), 'N', null, null)));
+    }
+
+    private static List<String> terminos(List<PalabraDTO> palabras) {
+        return palabras.stream().map(PalabraDTO::getTermino).toList();
+    }
+
+    private static Palabra palabra(String termino, String categoria) {
+        Palabra palabra = new Palabra();
+        palabra.setTermino(termino);
+        palabra.setCategoriaGramatical(categoria);
+        return palabra;
+    }
+
+    private long sentenciasParaPagina(int limit) {
+        entityManager.clear();
+        statistics.clear();
+        List<Palabra> pagina = palabraService.getPaginaPalabrasConDefiniciones(null, limit);
+        pagina.forEach(palabra -> palabra.getDefiniciones().forEach(Definicion::getDescripcion));
+        assertEquals(limit, pagina.size());
+        return statistics.getPrepareStatementCount();
+    }
+}
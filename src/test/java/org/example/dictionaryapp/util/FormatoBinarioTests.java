@@ -0,0 +1,130 @@
+package org.example.dictionaryapp.util;
+
+import org.example.dictionaryapp.model.Definicion;
+import org.example.dictionaryapp.model.Palabra;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FormatoBinarioTests {
+
+    @Test
+    void idaYVueltaConservaTodosLosCampos() throws IOException {
+        String largo = "ñandú ".repeat(2000);
+        List<Palabra> palabras = List.of(
+                palabra(3, "casa", "sustantivo", 2L, definicion(40, "edificio", "mi casa"), definicion(41, "familia", null)),
+                // Definiciones con id menor que la anterior: el incremento es negativo
+                palabra(8, null, "verbo", null, definicion(5, null, null), definicion(120, largo, "ejemplo")),
+                palabra(9, "cañón", null, 0L),
+                // Categorías ya vistas: se escriben con su posición en la tabla
+                palabra(500, "comer", "verbo", 7L, definicion(2, "ingerir", null)),
+                palabra(501, "perro", "sustantivo", 1L));
+
+        byte[] bytes = escribir(palabras);
+        List<Palabra> leidas = FormatoBinario.leer(new ByteArrayInputStream(bytes));
+
+        assertEquals(palabras.size(), leidas.size());
+        for (int i = 0; i < palabras.size(); i++) {
+            Palabra esperada = palabras.get(i);
+            Palabra leida = leidas.get(i);
+            assertEquals(esperada.getId(), leida.getId());
+            assertEquals(esperada.getTermino(), leida.getTermino());
+            assertEquals(esperada.getCategoriaGramatical(), leida.getCategoriaGramatical());
+            assertEquals(esperada.getVersion(), leida.getVersion());
+            assertEquals(esperada.getDefiniciones().size(), leida.getDefiniciones().size());
+            for (int d = 0; d < esperada.getDefiniciones().size(); d++) {
+                Definicion definicion = esperada.getDefiniciones().get(d);
+                Definicion leidaDefinicion = leida.getDefiniciones().get(d);
+                assertEquals(definicion.getId(), leidaDefinicion.getId());
+                assertEquals(definicion.getDescripcion(), leidaDefinicion.getDescripcion());
+                assertEquals(definicion.getEjemplo(), leidaDefinicion.getEjemplo());
+            }
+        }
+        assertNull(leidas.get(2).getCategoriaGramatical());
+        // Cada categoría se escribe una sola vez
+        assertEquals(1, apariciones(bytes, "sustantivo"));
+        assertEquals(1, apariciones(bytes, "verbo"));
+    }
+
+    @Test
+    void diccionarioVacio() throws IOException {
+        byte[] bytes = escribir(List.of());
+        assertArrayEquals(new byte[]{'D', 'I', 'C', 1, 0}, bytes);
+        assertEquals(List.of(), FormatoBinario.leer(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void entradaMalFormadaDaIOException() throws IOException {
+        // Categoría 5 con la tabla vacía
+        assertThrows(IOException.class, () -> leer('D', 'I', 'C', 1, 1, 2, 'a', 5));
+        // Categoría con el bit alto puesto (negativa como long)
+        assertThrows(IOException.class, () -> leer('D', 'I', 'C', 1, 1, 2, 'a',
+                0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));
+        // Número de definiciones enorme sin datos detrás
+        assertThrows(IOException.class, () -> leer('D', 'I', 'C', 1, 1, 0, 0, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F));
+        // Texto más largo que lo que queda
+        assertThrows(IOException.class, () -> leer('D', 'I', 'C', 1, 1, 0x80, 0x01, 'a'));
+        // Longitud negativa como long
+        assertThrows(IOException.class, () -> leer('D', 'I', 'C', 1, 1,
+                0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01));
+        // Truncado a mitad de un diccionario válido
+        byte[] completo = escribir(List.of(palabra(1, "casa", "sustantivo", 0L, definicion(1, "edificio", null))));
+        for (int corte = 0; corte < completo.length; corte++) {
+            byte[] truncado = Arrays.copyOf(completo, corte);
+            assertThrows(IOException.class, () -> FormatoBinario.leer(new ByteArrayInputStream(truncado)));
+        }
+    }
+
+    private static List<Palabra> leer(int... octetos) throws IOException {
+        byte[] bytes = new byte[octetos.length];
+        for (int i = 0; i < octetos.length; i++) {
+            bytes[i] = (byte) octetos[i];
+        }
+        return FormatoBinario.leer(new ByteArrayInputStream(bytes));
+    }
+
+    private static byte[] escribir(List<Palabra> palabras) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        FormatoBinario.escribir(palabras, salida);
+        return salida.toByteArray();
+    }
+
+    private static int apariciones(byte[] bytes, String texto) {
+        byte[] buscado = texto.getBytes(StandardCharsets.UTF_8);
+        int total = 0;
+        for (int i = 0; i + buscado.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + buscado.length, buscado, 0, buscado.length)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static Palabra palabra(long id, String termino, String categoria, Long version, Definicion... definiciones) {
+        Palabra palabra = new Palabra();
+        palabra.setId(id);
+        palabra.setTermino(termino);
+        palabra.setCategoriaGramatical(categoria);
+        palabra.setVersion(version);
+        palabra.setDefiniciones(List.of(definiciones));
+        return palabra;
+    }
+
+    private static Definicion definicion(long id, String descripcion, String ejemplo) {
+        Definicion definicion = new Definicion();
+        definicion.setId(id);
+        definicion.setDescripcion(descripcion);
+        definicion.setEjemplo(ejemplo);
+        return definicion;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.dictionaryapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LectorCsvTests {
+
+    @Test
+    void camposEntreComillas() throws IOException {
+        comprobar("a,b,c\n1,2,3\n", List.of(List.of("a", "b", "c"), List.of("1", "2", "3")));
+        comprobar("\"a,b\",c\n", List.of(List.of("a,b", "c")));
+        comprobar("\"dijo \"\"hola\"\"\",\"\"\"\"\n", List.of(List.of("dijo \"hola\"", "\"")));
+        comprobar(",,\n\"\"\n", List.of(List.of("", "", ""), List.of("")));
+        // Las comillas en mitad de un campo sin comillas son parte del texto
+        comprobar("pulgada 2\",x\n", List.of(List.of("pulgada 2\"", "x")));
+        // Sin salto de línea al final
+        comprobar("a,b", List.of(List.of("a", "b")));
+        comprobar("", List.of());
+    }
+
+    @Test
+    void saltosDeLineaDentroDeUnCampoYNumerosDeLinea() throws IOException {
+        String csv = "\"primera\nsegunda\r\ntercera\",y\nz\n";
+        comprobar(csv, List.of(List.of("primera\nsegunda\r\ntercera", "y"), List.of("z")));
+
+        LectorCsv lector = new LectorCsv(new StringReader(csv));
+        assertEquals(1, lector.getLinea());
+        lector.siguienteFila();
+        assertEquals(4, lector.getLinea());
+        lector.siguienteFila();
+        assertEquals(5, lector.getLinea());
+    }
+
+    @Test
+    void finesDeLineaCrlfYCr() throws IOException {
+        comprobar("a,b\r\nc,d\r\n", List.of(List.of("a", "b"), List.of("c", "d")));
+        comprobar("a\rb\r", List.of(List.of("a"), List.of("b")));
+        comprobar("\"x\"\r\n\"y\"", List.of(List.of("x"), List.of("y")));
+    }
+
+    @Test
+    void crlfPartidoEntreDosLecturasDelBuffer() throws IOException {
+        // El \r es el último carácter del primer bloque de 8192 y el \n el primero del siguiente
+        String relleno = "x".repeat(8191);
+        comprobar(relleno + "\r\ny\r\n", List.of(List.of(relleno), List.of("y")));
+        comprobar(relleno + "\rz", List.of(List.of(relleno), List.of("z")));
+        String entreComillas = "\"" + "w".repeat(8189) + "\"\r\nv\n";
+        comprobar(entreComillas, List.of(List.of("w".repeat(8189)), List.of("v")));
+    }
+
+    @Test
+    void comillasSinCerrar() {
+        assertThrows(IOException.class, () -> leer(new StringReader("a,\"sin cerrar\nb\n")));
+    }
+
+    // Con el texto entero y con lecturas de pocos caracteres, que parten las filas por cualquier sitio
+    private static void comprobar(String csv, List<List<String>> esperadas) throws IOException {
+        assertEquals(esperadas, leer(new StringReader(csv)), csv);
+        for (int trozo = 1; trozo <= 4; trozo++) {
+            assertEquals(esperadas, leer(new PorTrozos(csv, trozo)), "de " + trozo + " en " + trozo + ": " + csv);
+        }
+    }
+
+    private static List<List<String>> leer(Reader reader) throws IOException {
+        LectorCsv lector = new LectorCsv(reader);
+        List<List<String>> filas = new ArrayList<>();
+        for (List<String> fila = lector.siguienteFila(); fila != null; fila = lector.siguienteFila()) {
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    // Devuelve como mucho 'trozo' caracteres en cada lectura
+    private static final class PorTrozos extends Reader {
+
+        private final StringReader reader;
+        private final int trozo;
+
+        PorTrozos(String texto, int trozo) {
+            this.reader = new StringReader(texto);
+            this.trozo = trozo;
+        }
+
+        @Override
+        public int read(char[] destino, int desde, int longitud) throws IOException {
+            return reader.read(destino, desde, Math.min(longitud, trozo));
+        }
+
+        @Override
+        public void close() {
+            reader.close();
+        }
+    }
+}